@@ -1,13 +1,31 @@
 package com.mursion.assignment.itresources;
 
+import com.mursion.assignment.itresources.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ConfigurationPropertiesScan
+@EnableSpringDataWebSupport(pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO)
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class MursionApplication {
 
+    /**
+     * Profile that applies the database migrations and exits instead of serving requests.
+     */
+    public static final String MIGRATE_PROFILE = "migrate";
+
     public static void main(String[] args) {
-        SpringApplication.run(MursionApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(MursionApplication.class, args);
+        if (context.getEnvironment().matchesProfiles(MIGRATE_PROFILE)) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
@@ -0,0 +1,94 @@
+package com.mursion.assignment.itresources.admission;
+
+import com.mursion.assignment.itresources.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the per-client rate limit to every API request and the concurrency bulkhead to expensive ones. Rejected
+ * requests get a 429 with a Retry-After header. Clients are told apart by remote address, or by the client ID header
+ * on requests that come through a trusted proxy.
+ */
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String BULKHEAD_PERMIT = AdmissionControlInterceptor.class.getName() + ".bulkheadPermit";
+
+    private final AdmissionProperties properties;
+    private final ClientRateLimiter rateLimiter;
+    private final ConcurrencyBulkhead bulkhead;
+    private final Counter admitted;
+    private final Counter rateLimited;
+    private final Counter bulkheadRejected;
+
+    @Autowired
+    public AdmissionControlInterceptor(AdmissionProperties properties, ClientRateLimiter rateLimiter,
+                                       ConcurrencyBulkhead bulkhead, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.bulkhead = bulkhead;
+        this.admitted = Counter.builder("mursion.admission.requests").tag("outcome", "admitted").register(meterRegistry);
+        this.rateLimited = Counter.builder("mursion.admission.requests").tag("outcome", "rate_limited").register(meterRegistry);
+        this.bulkheadRejected = Counter.builder("mursion.admission.requests").tag("outcome", "bulkhead_full").register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!properties.isEnabled() || !(handler instanceof HandlerMethod handlerMethod)
+                || handlerMethod.hasMethodAnnotation(ReservedCapacity.class)) {
+            return true;
+        }
+
+        long retryAfterNanos = rateLimiter.tryAcquire(clientId(request));
+        if (retryAfterNanos > 0) {
+            rateLimited.increment();
+            reject(response, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos) + 1);
+            return false;
+        }
+
+        if (handlerMethod.hasMethodAnnotation(ExpensiveEndpoint.class)) {
+            if (!bulkhead.tryAcquire()) {
+                bulkheadRejected.increment();
+                reject(response, 1);
+                return false;
+            }
+            request.setAttribute(BULKHEAD_PERMIT, Boolean.TRUE);
+        }
+        admitted.increment();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(BULKHEAD_PERMIT) != null) {
+            request.removeAttribute(BULKHEAD_PERMIT);
+            bulkhead.release();
+        }
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String remoteAddress = request.getRemoteAddr();
+        if (properties.getTrustedProxies().contains(remoteAddress)) {
+            String clientId = request.getHeader(properties.getClientIdHeader());
+            if (clientId != null && !clientId.isBlank()) {
+                return clientId;
+            }
+        }
+        return remoteAddress;
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    }
+}
@@ -0,0 +1,63 @@
+package com.mursion.assignment.itresources.admission;
+
+import com.mursion.assignment.itresources.config.AdmissionProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one token bucket per client.
+ */
+@Component
+public class ClientRateLimiter {
+
+    private final AdmissionProperties.RateLimit properties;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflowBucket;
+
+    @Autowired
+    public ClientRateLimiter(AdmissionProperties admissionProperties, MeterRegistry meterRegistry) {
+        this.properties = admissionProperties.getRateLimit();
+        this.overflowBucket = newBucket(System.nanoTime());
+        Gauge.builder("mursion.admission.clients", buckets, ConcurrentMap::size)
+                .description("Clients with a tracked rate limit bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token from the client's bucket.
+     *
+     * @param clientId The ID of the client.
+     * @return 0 if the request is admitted, otherwise the nanoseconds until the client may retry.
+     */
+    public long tryAcquire(String clientId) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(clientId);
+        if (bucket == null) {
+            bucket = buckets.size() < properties.getMaxClients()
+                    ? buckets.computeIfAbsent(clientId, id -> newBucket(now))
+                    : overflowBucket;
+        }
+        return bucket.tryConsume(now);
+    }
+
+    /**
+     * Drops buckets of clients that have been idle for longer than the configured timeout. An idle bucket is full,
+     * so dropping it never changes a client's allowance.
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void evictIdleBuckets() {
+        long cutoff = System.nanoTime() - properties.getIdleTimeout().toNanos();
+        buckets.values().removeIf(bucket -> bucket.lastAccessNanos() - cutoff < 0);
+    }
+
+    private TokenBucket newBucket(long now) {
+        return new TokenBucket(properties.getCapacity(), properties.getRefillPerSecond(), now);
+    }
+}
@@ -0,0 +1,62 @@
+package com.mursion.assignment.itresources.admission;
+
+import com.mursion.assignment.itresources.config.AdmissionProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of expensive requests executing at once, so they can never take the whole connection pool.
+ */
+@Component
+public class ConcurrencyBulkhead {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+
+    @Autowired
+    public ConcurrencyBulkhead(AdmissionProperties admissionProperties, MeterRegistry meterRegistry) {
+        AdmissionProperties.Bulkhead properties = admissionProperties.getBulkhead();
+        this.maxConcurrent = properties.getMaxConcurrent();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.permits = new Semaphore(maxConcurrent);
+        Gauge.builder("mursion.admission.bulkhead.in_flight", this, ConcurrencyBulkhead::inFlight)
+                .description("Expensive requests currently executing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Waits up to the configured time for a free slot.
+     *
+     * @return True if a slot was acquired and must be released with {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Releases a slot acquired with {@link #tryAcquire()}.
+     */
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Retrieves the number of slots currently in use.
+     *
+     * @return The number of executing expensive requests.
+     */
+    public int inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
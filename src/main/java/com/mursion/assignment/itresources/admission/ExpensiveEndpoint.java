@@ -0,0 +1,15 @@
+package com.mursion.assignment.itresources.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method whose cost grows with the size of the tables it reads. Such requests run inside the
+ * concurrency bulkhead, in addition to the per-client rate limit.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpensiveEndpoint {
+}
@@ -0,0 +1,16 @@
+package com.mursion.assignment.itresources.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method that is never rejected by admission control, neither by the rate limit nor by the
+ * bulkhead. It still shares the connection pool with everything else; the bulkhead only keeps expensive requests
+ * from taking all of it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReservedCapacity {
+}
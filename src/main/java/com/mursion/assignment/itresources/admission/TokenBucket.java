@@ -0,0 +1,52 @@
+package com.mursion.assignment.itresources.admission;
+
+/**
+ * Token bucket refilled lazily on every access.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @param nowNanos The current {@link System#nanoTime()}.
+     * @return 0 if the token was taken, otherwise the nanoseconds until one becomes available.
+     */
+    synchronized long tryConsume(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Retrieves the time of the last access.
+     *
+     * @return The {@link System#nanoTime()} of the last access.
+     */
+    synchronized long lastAccessNanos() {
+        return lastRefillNanos;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.mursion.assignment.itresources.audit;
+
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.model.ItResourceAssign;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Captures inserts, updates and deletes of resources and assignments once their transaction has committed, and
+ * hands them to the {@link AuditTrail}. Runs on the committing thread, so it only copies the changed values.
+ */
+@Component
+public class AuditEntityListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Set<Class<?>> AUDITED = Set.of(ItResource.class, ItResourceAssign.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditTrail auditTrail;
+
+    @Autowired
+    public AuditEntityListener(EntityManagerFactory entityManagerFactory, AuditTrail auditTrail) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditTrail = auditTrail;
+    }
+
+    /**
+     * Registers the listener with Hibernate.
+     */
+    @PostConstruct
+    public void register() {
+        if (!auditTrail.isEnabled()) {
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return AUDITED.contains(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!requiresPostCommitHandling(persister)) {
+            return;
+        }
+        Map<String, Object> newValues = new LinkedHashMap<>();
+        for (int i = 0; i < event.getState().length; i++) {
+            newValues.put(propertyName(persister, i), value(persister, i, event.getState()[i], event.getSession()));
+        }
+        auditTrail.recordCommitted(persister.getMappedClass(), (UUID) event.getId(), AuditEvent.Action.INSERT,
+                Map.of(), newValues);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!requiresPostCommitHandling(persister)) {
+            return;
+        }
+        Object[] oldState = event.getOldState();
+        Object[] state = event.getState();
+        Map<String, Object> oldValues = new LinkedHashMap<>();
+        Map<String, Object> newValues = new LinkedHashMap<>();
+        for (int i = 0; i < state.length; i++) {
+            if (!isChanged(event, i)) {
+                continue;
+            }
+            String name = propertyName(persister, i);
+            if (oldState != null) {
+                oldValues.put(name, value(persister, i, oldState[i], event.getSession()));
+            }
+            newValues.put(name, value(persister, i, state[i], event.getSession()));
+        }
+        auditTrail.recordCommitted(persister.getMappedClass(), (UUID) event.getId(), AuditEvent.Action.UPDATE,
+                oldValues, newValues);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!requiresPostCommitHandling(persister)) {
+            return;
+        }
+        Map<String, Object> oldValues = new LinkedHashMap<>();
+        Object[] deletedState = event.getDeletedState();
+        if (deletedState != null) {
+            for (int i = 0; i < deletedState.length; i++) {
+                oldValues.put(propertyName(persister, i), value(persister, i, deletedState[i], event.getSession()));
+            }
+        }
+        auditTrail.recordCommitted(persister.getMappedClass(), (UUID) event.getId(), AuditEvent.Action.DELETE,
+                oldValues, Map.of());
+    }
+
+    // A failed commit changed nothing, so there is nothing to audit
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private static boolean isChanged(PostUpdateEvent event, int property) {
+        int[] dirtyProperties = event.getDirtyProperties();
+        if (dirtyProperties != null) {
+            for (int dirty : dirtyProperties) {
+                if (dirty == property) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        // Without dirty-checking results, fall back to comparing the states, or record everything
+        return event.getOldState() == null || !Objects.equals(event.getOldState()[property], event.getState()[property]);
+    }
+
+    private static String propertyName(EntityPersister persister, int property) {
+        return persister.getPropertyNames()[property];
+    }
+
+    private static Object value(EntityPersister persister, int property, Object value,
+                                SharedSessionContractImplementor session) {
+        Type type = persister.getPropertyTypes()[property];
+        if (value == null || !type.isEntityType()) {
+            return value;
+        }
+        // Associations are recorded by ID, the referenced entity has its own trail
+        return session.getEntityPersister(null, value).getIdentifier(value, session);
+    }
+}
@@ -0,0 +1,25 @@
+package com.mursion.assignment.itresources.audit;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A committed change of an audited entity, as written to the audit log.
+ *
+ * @param entityType The simple class name of the changed entity.
+ * @param entityId   The ID of the changed entity.
+ * @param action     What happened to the entity.
+ * @param actor      Who made the change.
+ * @param changes    The changed properties as a JSON object mapping each property to its old and new value.
+ * @param occurredAt When the change was committed.
+ */
+public record AuditEvent(String entityType, UUID entityId, Action action, String actor, String changes,
+                         LocalDateTime occurredAt) {
+
+    /**
+     * Kinds of changes.
+     */
+    public enum Action {
+        INSERT, UPDATE, DELETE
+    }
+}
@@ -0,0 +1,150 @@
+package com.mursion.assignment.itresources.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mursion.assignment.itresources.config.AuditProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records committed changes of audited entities. Entity changes made through the persistence context arrive from
+ * {@link AuditEntityListener}. Set-based JPQL updates bypass it, so the services report them here themselves.
+ * Either way, nothing is recorded before the change has committed.
+ */
+@Component
+public class AuditTrail {
+
+    /**
+     * Actor recorded for changes made outside a request.
+     */
+    public static final String SYSTEM_ACTOR = "system";
+
+    /**
+     * Longest caller-supplied actor name kept, so that the actor always fits its column.
+     */
+    private static final int MAX_CLAIMED_ACTOR_LENGTH = 100;
+
+    private static final String OLD = "old";
+    private static final String NEW = "new";
+
+    private final AuditWriter auditWriter;
+    private final AuditProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public AuditTrail(AuditWriter auditWriter, AuditProperties properties, ObjectMapper objectMapper) {
+        this.auditWriter = auditWriter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Whether changes are audited.
+     *
+     * @return True if auditing is enabled.
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Records a committed change of an entity.
+     *
+     * @param entityType The audited entity class.
+     * @param entityId   The ID of the entity.
+     * @param action     What happened to the entity.
+     * @param oldValues  The values of the changed properties before the change; empty for inserts.
+     * @param newValues  The values of the changed properties after the change; empty for deletes.
+     */
+    public void recordCommitted(Class<?> entityType, UUID entityId, AuditEvent.Action action,
+                                Map<String, Object> oldValues, Map<String, Object> newValues) {
+        if (!isEnabled()) {
+            return;
+        }
+        auditWriter.submit(new AuditEvent(entityType.getSimpleName(), entityId, action, currentActor(),
+                toJson(oldValues, newValues), LocalDateTime.now()));
+    }
+
+    /**
+     * Records a set-based update of the given entities once the surrounding transaction commits, or right away
+     * outside a transaction. The previous values are unknown to a set-based update, so only the new ones are kept.
+     *
+     * @param entityType The audited entity class.
+     * @param ids        The IDs of the updated entities.
+     * @param newValues  The values the update set.
+     */
+    public void recordBulkUpdate(Class<?> entityType, Collection<UUID> ids, Map<String, Object> newValues) {
+        if (!isEnabled() || ids.isEmpty()) {
+            return;
+        }
+        String actor = currentActor();
+        String changes = toJson(Map.of(), newValues);
+        List<UUID> changedIds = List.copyOf(ids);
+        Runnable submit = () -> {
+            LocalDateTime occurredAt = LocalDateTime.now();
+            changedIds.forEach(id -> auditWriter.submit(
+                    new AuditEvent(entityType.getSimpleName(), id, AuditEvent.Action.UPDATE, actor, changes, occurredAt)));
+        };
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    /**
+     * Retrieves who makes the current change: the authenticated principal of the request, or else its remote address.
+     * A name the caller gives in the actor header cannot be verified, so it is only kept as a claim next to the
+     * address.
+     */
+    private String currentActor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return SYSTEM_ACTOR;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && principal.getName() != null && !principal.getName().isBlank()) {
+            return principal.getName();
+        }
+        String claimed = request.getHeader(properties.getActorHeader());
+        if (claimed == null || claimed.isBlank()) {
+            return request.getRemoteAddr();
+        }
+        if (claimed.length() > MAX_CLAIMED_ACTOR_LENGTH) {
+            claimed = claimed.substring(0, MAX_CLAIMED_ACTOR_LENGTH);
+        }
+        return request.getRemoteAddr() + " (unverified: " + claimed + ")";
+    }
+
+    private String toJson(Map<String, Object> oldValues, Map<String, Object> newValues) {
+        Map<String, Map<String, Object>> changes = new LinkedHashMap<>();
+        oldValues.forEach((property, value) -> changes.computeIfAbsent(property, key -> new LinkedHashMap<>()).put(OLD, value));
+        newValues.forEach((property, value) -> changes.computeIfAbsent(property, key -> new LinkedHashMap<>()).put(NEW, value));
+        try {
+            return objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize audited changes", e);
+        }
+    }
+}
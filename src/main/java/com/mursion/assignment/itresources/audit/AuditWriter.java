@@ -0,0 +1,222 @@
+package com.mursion.assignment.itresources.audit;
+
+import com.mursion.assignment.itresources.config.AuditProperties;
+import com.mursion.assignment.itresources.support.RingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes audit events to the append-only audit table in the background. Committing threads only put their events
+ * into a bounded lock-free ring buffer. A single writer thread drains it in multi-row inserts, once per flush
+ * interval or as soon as a full batch is waiting.
+ * <p>
+ * When the buffer is full, a committing thread waits briefly for the writer to make room and then writes its event
+ * itself, which slows producers down to the pace of the database instead of losing events. On shutdown the buffer
+ * is written out according to the configured {@link AuditProperties.Durability}.
+ */
+@Slf4j
+@Component
+public class AuditWriter implements SmartLifecycle {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO resources.audit_log (entity_type, entity_id, action, actor, changes, occurred_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, CAST(? AS jsonb), ?)";
+    private static final long OFFER_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int BEST_EFFORT_ATTEMPTS = 3;
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditProperties properties;
+    private final RingBuffer<AuditEvent> buffer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter writtenByCaller;
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    @Autowired
+    public AuditWriter(JdbcTemplate jdbcTemplate, AuditProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.buffer = new RingBuffer<>(properties.getBufferCapacity());
+        this.written = Counter.builder("mursion.audit.events").tag("outcome", "written").register(meterRegistry);
+        this.dropped = Counter.builder("mursion.audit.events").tag("outcome", "dropped").register(meterRegistry);
+        this.writtenByCaller = Counter.builder("mursion.audit.events").tag("outcome", "written_by_caller")
+                .register(meterRegistry);
+        Gauge.builder("mursion.audit.buffer.size", buffer, RingBuffer::size).register(meterRegistry);
+    }
+
+    /**
+     * Queues an event for the writer. Blocks for at most the maximum offer wait, and then writes the event on the
+     * calling thread, when the buffer is full.
+     *
+     * @param event The event.
+     */
+    public void submit(AuditEvent event) {
+        if (!running) {
+            writeOnCaller(List.of(event));
+            return;
+        }
+        if (buffer.offer(event)) {
+            if (buffer.size() >= properties.getBatchSize()) {
+                LockSupport.unpark(writer);
+            }
+            if (!running) {
+                // The writer may have finished its last flush before the event arrived
+                drainOnCaller();
+            }
+            return;
+        }
+
+        LockSupport.unpark(writer);
+        long deadline = System.nanoTime() + properties.getMaxOfferWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(OFFER_RETRY_NANOS);
+            if (buffer.offer(event)) {
+                return;
+            }
+        }
+        writeOnCaller(List.of(event));
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = writer;
+        if (current == null) {
+            return;
+        }
+        LockSupport.unpark(current);
+        try {
+            if (properties.getDurability() == AuditProperties.Durability.DURABLE) {
+                current.join();
+            } else {
+                current.join(properties.getShutdownTimeout().plusSeconds(1).toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server has finished its in-flight requests, so their changes are still buffered and
+     * written.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        while (running) {
+            LockSupport.parkNanos(flushIntervalNanos);
+            flush(Long.MAX_VALUE);
+        }
+
+        long deadline = properties.getDurability() == AuditProperties.Durability.DURABLE
+                ? Long.MAX_VALUE
+                : System.currentTimeMillis() + properties.getShutdownTimeout().toMillis();
+        flush(deadline);
+        int remaining = buffer.size();
+        if (remaining > 0) {
+            dropped.increment(remaining);
+            log.error("Dropped {} audit events not written within the shutdown timeout", remaining);
+        }
+    }
+
+    private void flush(long deadlineMillis) {
+        List<AuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (buffer.drainTo(batch, properties.getBatchSize()) > 0) {
+            writeWithRetry(batch, deadlineMillis);
+            batch.clear();
+            if (System.currentTimeMillis() >= deadlineMillis) {
+                return;
+            }
+        }
+    }
+
+    private void writeWithRetry(List<AuditEvent> batch, long deadlineMillis) {
+        boolean durable = properties.getDurability() == AuditProperties.Durability.DURABLE;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(batch);
+                written.increment(batch.size());
+                return;
+            } catch (DataAccessException e) {
+                if (!durable && (attempt >= BEST_EFFORT_ATTEMPTS || System.currentTimeMillis() >= deadlineMillis)) {
+                    dropped.increment(batch.size());
+                    log.error("Dropped {} audit events after {} failed attempts: {}", batch.size(), attempt, batch, e);
+                    return;
+                }
+                long delay = Math.min(MAX_RETRY_DELAY_MILLIS, 1000L * attempt);
+                log.warn("Failed to write {} audit events, retrying in {}ms", batch.size(), delay, e);
+                // Interrupts are ignored: in durable mode the batch is kept until it is written
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(delay));
+            }
+        }
+    }
+
+    private synchronized void drainOnCaller() {
+        List<AuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (buffer.drainTo(batch, properties.getBatchSize()) > 0) {
+            writeOnCaller(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeOnCaller(List<AuditEvent> events) {
+        try {
+            write(events);
+            writtenByCaller.increment(events.size());
+        } catch (DataAccessException e) {
+            // The change itself is committed already, so the log is the last place the event can go
+            dropped.increment(events.size());
+            log.error("Failed to write audit events {}", events, e);
+        }
+    }
+
+    private void write(List<AuditEvent> events) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(events.size() * 6);
+        for (AuditEvent event : events) {
+            if (!args.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            args.add(event.entityType());
+            args.add(event.entityId());
+            args.add(event.action().name());
+            args.add(event.actor());
+            args.add(event.changes());
+            args.add(event.occurredAt());
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
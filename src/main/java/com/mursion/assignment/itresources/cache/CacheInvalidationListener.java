@@ -0,0 +1,218 @@
+package com.mursion.assignment.itresources.cache;
+
+import com.mursion.assignment.itresources.config.CacheInvalidationProperties;
+import com.mursion.assignment.itresources.config.TenancyProperties;
+import com.mursion.assignment.itresources.model.ItResource;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Evicts resources other nodes changed from the local second-level cache. Listens on a dedicated connection outside
+ * the pool, so it never takes a connection away from requests. Notifications arriving within the batch window are
+ * coalesced into one eviction. Notifications sent while the connection was down are lost, so every reconnect
+ * flushes the whole resource cache.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    /**
+     * Application name of the listening connection, which identifies it in {@code pg_stat_activity}.
+     */
+    public static final String APPLICATION_NAME = "mursion-cache-invalidation";
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final CacheInvalidationProperties properties;
+    private final TenancyProperties tenancyProperties;
+    private final SessionFactory sessionFactory;
+    private volatile Thread thread;
+    private volatile Connection connection;
+    private volatile boolean running;
+
+    @Autowired
+    public CacheInvalidationListener(DataSourceProperties dataSourceProperties, CacheInvalidationProperties properties,
+                                     TenancyProperties tenancyProperties, EntityManagerFactory entityManagerFactory) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.properties = properties;
+        this.tenancyProperties = tenancyProperties;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().name("cache-invalidation-listener").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread listener = thread;
+        if (listener != null) {
+            listener.interrupt();
+            closeConnection();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try {
+                connect();
+                if (reconnect) {
+                    log.info("Cache invalidation listener reconnected, flushing the resource cache");
+                    evictAll();
+                }
+                reconnect = true;
+                receive();
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Cache invalidation listener lost its connection, reconnecting in {}",
+                        properties.getReconnectDelay(), e);
+                closeConnection();
+                try {
+                    Thread.sleep(properties.getReconnectDelay());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        closeConnection();
+    }
+
+    private void connect() throws SQLException {
+        Properties info = new Properties();
+        info.setProperty("user", dataSourceProperties.determineUsername());
+        info.setProperty("password", dataSourceProperties.determinePassword());
+        info.setProperty("ApplicationName", APPLICATION_NAME);
+        // Detects a dead connection even when no notifications arrive
+        info.setProperty("tcpKeepAlive", "true");
+        connection = DriverManager.getConnection(dataSourceProperties.determineUrl(), info);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN \"" + properties.getChannel() + "\"");
+        }
+    }
+
+    private void receive() throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+            if (notifications == null || notifications.length == 0) {
+                continue;
+            }
+
+            Pending pending = new Pending();
+            pending.add(notifications);
+            PGNotification[] more = pgConnection.getNotifications((int) properties.getBatchWindow().toMillis());
+            while (more != null && more.length > 0 && !pending.all) {
+                pending.add(more);
+                more = pgConnection.getNotifications(1);
+            }
+            pending.evict();
+        }
+    }
+
+    private void evictAll() {
+        sessionFactory.getCache().evictEntityData(ItResource.class);
+        sessionFactory.getCache().evictQueryRegions();
+    }
+
+    /**
+     * Evicts a resource from the second-level cache. Cache keys include the tenant, and the notification does not
+     * carry it, so the key of every tenant is evicted.
+     *
+     * @param id The ID of the resource.
+     */
+    private void evict(UUID id) {
+        SessionFactoryImplementor factory = sessionFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(ItResource.class);
+        EntityDataAccess cache = persister.getCacheAccessStrategy();
+        if (cache == null) {
+            return;
+        }
+        for (String tenantId : tenancyProperties.getTenants()) {
+            cache.evict(cache.generateCacheKey(id, persister, factory, tenantId));
+        }
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Failed to close the cache invalidation connection", e);
+            }
+        }
+    }
+
+    /**
+     * Keys collected within one batch window.
+     */
+    private class Pending {
+
+        private final Set<UUID> ids = new HashSet<>();
+        private boolean all;
+
+        void add(PGNotification[] notifications) {
+            for (PGNotification notification : notifications) {
+                try {
+                    InvalidationMessage message = InvalidationMessage.decode(notification.getParameter());
+                    if (message.nodeId().equals(properties.getNodeId())) {
+                        continue;
+                    }
+                    if (message.isAll()) {
+                        all = true;
+                    } else {
+                        ids.addAll(message.ids());
+                    }
+                } catch (IllegalArgumentException e) {
+                    log.warn("Ignoring malformed cache invalidation: {}", notification.getParameter());
+                }
+            }
+        }
+
+        void evict() {
+            if (all) {
+                evictAll();
+            } else if (!ids.isEmpty()) {
+                ids.forEach(CacheInvalidationListener.this::evict);
+                // Cached query results may include these resources, and only local writes invalidate them
+                sessionFactory.getCache().evictQueryRegions();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.mursion.assignment.itresources.cache;
+
+import com.mursion.assignment.itresources.config.CacheInvalidationProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tells the other nodes which cached resources a write changed. Keys changed in a transaction are collected and
+ * deduplicated, then sent with {@code pg_notify} just before it commits. Postgres only delivers notifications of
+ * committed transactions, so other nodes never evict for a write that is rolled back, and never miss one that commits.
+ */
+@Component
+public class CacheInvalidationPublisher {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheInvalidationProperties properties;
+
+    @Autowired
+    public CacheInvalidationPublisher(JdbcTemplate jdbcTemplate, CacheInvalidationProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Publishes that a resource changed.
+     *
+     * @param id The ID of the resource.
+     */
+    public void resourceChanged(UUID id) {
+        publish(Set.of(id.toString()));
+    }
+
+    /**
+     * Publishes that the given resources changed.
+     *
+     * @param ids The IDs of the resources.
+     */
+    public void resourcesChanged(Collection<UUID> ids) {
+        Set<String> keys = new LinkedHashSet<>();
+        ids.forEach(id -> keys.add(id.toString()));
+        publish(keys);
+    }
+
+    /**
+     * Publishes that an unknown set of resources changed, so other nodes evict every cached resource.
+     */
+    public void allResourcesChanged() {
+        publish(Set.of(InvalidationMessage.ALL));
+    }
+
+    private void publish(Set<String> keys) {
+        if (!properties.isEnabled() || keys.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            notify(keys);
+            return;
+        }
+
+        PendingKeys pending = (PendingKeys) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingKeys();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.keys.addAll(keys);
+    }
+
+    private void notify(Set<String> keys) {
+        for (String payload : InvalidationMessage.encode(properties.getNodeId(), keys)) {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, properties.getChannel(), payload);
+        }
+    }
+
+    /**
+     * Keys changed in the current transaction, sent on the transaction's own connection before it commits.
+     */
+    private class PendingKeys implements TransactionSynchronization {
+
+        private final Set<String> keys = new LinkedHashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            CacheInvalidationPublisher.this.notify(keys);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(CacheInvalidationPublisher.this);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.mursion.assignment.itresources.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Payload of a cache invalidation notification: the node that changed the resources and the changed resource IDs,
+ * or {@link #ALL} when every cached resource is affected.
+ *
+ * @param nodeId The node that published the message.
+ * @param keys   The IDs of the changed resources, or {@link #ALL}.
+ */
+record InvalidationMessage(String nodeId, List<String> keys) {
+
+    /**
+     * Key standing for every cached resource.
+     */
+    static final String ALL = "*";
+
+    /**
+     * Keys per notification. Postgres limits payloads to 8000 bytes, and a UUID takes 37 with its separator.
+     */
+    static final int MAX_KEYS = 200;
+
+    private static final char NODE_SEPARATOR = '|';
+    private static final String KEY_SEPARATOR = ",";
+
+    /**
+     * Splits the keys into payloads that each fit into a notification.
+     *
+     * @param nodeId The publishing node.
+     * @param keys   The keys to publish.
+     * @return The payloads.
+     */
+    static List<String> encode(String nodeId, Set<String> keys) {
+        if (keys.contains(ALL)) {
+            return List.of(nodeId + NODE_SEPARATOR + ALL);
+        }
+        List<String> payloads = new ArrayList<>();
+        List<String> chunk = new ArrayList<>(MAX_KEYS);
+        for (String key : keys) {
+            chunk.add(key);
+            if (chunk.size() == MAX_KEYS) {
+                payloads.add(nodeId + NODE_SEPARATOR + String.join(KEY_SEPARATOR, chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            payloads.add(nodeId + NODE_SEPARATOR + String.join(KEY_SEPARATOR, chunk));
+        }
+        return payloads;
+    }
+
+    /**
+     * Parses a notification payload.
+     *
+     * @param payload The payload.
+     * @return The message.
+     * @throws IllegalArgumentException If the payload is malformed.
+     */
+    static InvalidationMessage decode(String payload) {
+        int separator = payload.indexOf(NODE_SEPARATOR);
+        if (separator <= 0 || separator == payload.length() - 1) {
+            throw new IllegalArgumentException("Malformed invalidation payload: " + payload);
+        }
+        return new InvalidationMessage(payload.substring(0, separator),
+                List.of(payload.substring(separator + 1).split(KEY_SEPARATOR)));
+    }
+
+    /**
+     * Whether the message affects every cached resource.
+     *
+     * @return True if every cached resource must be evicted.
+     */
+    boolean isAll() {
+        return keys.contains(ALL);
+    }
+
+    /**
+     * Retrieves the changed resource IDs.
+     *
+     * @return The IDs.
+     */
+    List<UUID> ids() {
+        return keys.stream().map(UUID::fromString).toList();
+    }
+}
@@ -0,0 +1,35 @@
+package com.mursion.assignment.itresources.config;
+
+import com.mursion.assignment.itresources.admission.AdmissionControlInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers admission control in front of the API and checks that the bulkhead leaves a margin of connections to
+ * the rest of the application.
+ */
+@Configuration
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    @Autowired
+    public AdmissionConfig(AdmissionControlInterceptor admissionControlInterceptor, AdmissionProperties properties,
+                           @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        this.admissionControlInterceptor = admissionControlInterceptor;
+        int bulkheadSize = properties.getBulkhead().getMaxConcurrent();
+        if (bulkheadSize + properties.getReservedWriteConnections() > maximumPoolSize) {
+            throw new IllegalStateException("Bulkhead size " + bulkheadSize + " plus "
+                    + properties.getReservedWriteConnections() + " connections left to other work exceeds the pool size "
+                    + maximumPoolSize);
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControlInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,83 @@
+package com.mursion.assignment.itresources.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for in-process admission control: per-client rate limits and the bulkhead in front of
+ * expensive endpoints.
+ */
+@Data
+@ConfigurationProperties(prefix = "mursion.admission")
+public class AdmissionProperties {
+
+    /**
+     * Whether admission control is applied at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Request header identifying the calling client, honoured only on requests from a trusted proxy. The remote
+     * address is used otherwise.
+     */
+    private String clientIdHeader = "X-Client-Id";
+
+    /**
+     * Remote addresses of the proxies allowed to name the client in the client ID header. Any other caller could send
+     * a new value with every request and never run out of tokens, so it is identified by its remote address.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    private RateLimit rateLimit = new RateLimit();
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    /**
+     * Database connections that the bulkhead leaves to the rest of the application. Only expensive requests are
+     * bounded: other requests, schedulers, the audit writer and bulk jobs share the same pool without a limit, so
+     * this is a sizing margin rather than connections set aside for assignment writes.
+     */
+    private int reservedWriteConnections = 4;
+
+    @Data
+    public static class RateLimit {
+
+        /**
+         * Maximum burst of requests a single client can make.
+         */
+        private int capacity = 50;
+
+        /**
+         * Sustained requests per second a single client can make.
+         */
+        private double refillPerSecond = 20;
+
+        /**
+         * Upper bound on the number of tracked clients. Clients beyond it share one bucket.
+         */
+        private int maxClients = 100_000;
+
+        /**
+         * Buckets idle for longer than this are dropped.
+         */
+        private Duration idleTimeout = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Bulkhead {
+
+        /**
+         * Maximum number of expensive requests executing at once across all clients.
+         */
+        private int maxConcurrent = 6;
+
+        /**
+         * How long an expensive request may wait for a free slot before it is rejected.
+         */
+        private Duration maxWait = Duration.ofMillis(50);
+    }
+}
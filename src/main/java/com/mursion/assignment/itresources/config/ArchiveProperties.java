@@ -0,0 +1,40 @@
+package com.mursion.assignment.itresources.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Configuration for archiving returned assignments into the cold archive table.
+ */
+@Data
+@ConfigurationProperties(prefix = "mursion.archive")
+public class ArchiveProperties {
+
+    /**
+     * Whether the scheduled archiver runs at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Minimum time since the return date before an assignment is archived.
+     */
+    private Period minAge = Period.ofYears(1);
+
+    /**
+     * Maximum number of assignments moved per transaction.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Pause between two batches, so the archiver never monopolises locks or I/O.
+     */
+    private Duration pauseBetweenBatches = Duration.ofMillis(200);
+
+    /**
+     * Upper bound on the number of batches in a single run.
+     */
+    private int maxBatchesPerRun = 1000;
+}
@@ -0,0 +1,73 @@
+package com.mursion.assignment.itresources.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the asynchronous audit log of resource and assignment changes.
+ */
+@Data
+@ConfigurationProperties(prefix = "mursion.audit")
+public class AuditProperties {
+
+    /**
+     * Whether changes are audited at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Request header in which an unauthenticated caller may name itself. Changes are recorded as made by the
+     * authenticated principal or else the remote address; the header value is only kept next to the address, marked
+     * as unverified. Changes outside a request are recorded as made by the system.
+     */
+    private String actorHeader = "X-Client-Id";
+
+    /**
+     * Number of changes buffered in memory between commit and the background writer, a power of two.
+     */
+    private int bufferCapacity = 8192;
+
+    /**
+     * Maximum number of changes written per multi-row insert.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long the writer waits for a batch to fill up before writing what it has.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * How long a committing thread waits for room in a full buffer before it writes its change itself.
+     */
+    private Duration maxOfferWait = Duration.ofMillis(100);
+
+    /**
+     * What happens to buffered changes on shutdown and when the database rejects a batch.
+     */
+    private Durability durability = Durability.DURABLE;
+
+    /**
+     * How long shutdown waits for the buffer to be written in {@link Durability#BEST_EFFORT} mode.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Guarantees of the audit log across shutdowns and database failures.
+     */
+    public enum Durability {
+
+        /**
+         * Shutdown waits until every buffered change is written, and failed batches are retried until they succeed.
+         */
+        DURABLE,
+
+        /**
+         * Shutdown waits at most the shutdown timeout, and a batch failing repeatedly is dropped. Lost changes are
+         * logged and counted.
+         */
+        BEST_EFFORT
+    }
+}
@@ -0,0 +1,45 @@
+package com.mursion.assignment.itresources.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Registers the binary Jackson formats (Smile and CBOR) for content negotiation. The mappers are built from the
+ * application's Jackson builder, so they serialize exactly like the JSON mapper. UUIDs are written as 16 raw bytes
+ * instead of 36 characters.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    /**
+     * Media type of Jackson's Smile format.
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Creates the Smile message converter.
+     *
+     * @param builder The application's Jackson builder.
+     * @return The Smile message converter.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Creates the CBOR message converter.
+     *
+     * @param builder The application's Jackson builder.
+     * @return The CBOR message converter.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
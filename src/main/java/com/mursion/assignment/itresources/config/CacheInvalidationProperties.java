@@ -0,0 +1,41 @@
+package com.mursion.assignment.itresources.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Configuration for the cross-node cache invalidation bus.
+ */
+@Data
+@ConfigurationProperties(prefix = "mursion.cache.invalidation")
+public class CacheInvalidationProperties {
+
+    /**
+     * Whether this node publishes invalidations and listens for those of other nodes.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Postgres notification channel shared by all nodes.
+     */
+    private String channel = "mursion_cache_invalidation";
+
+    /**
+     * How long the listener keeps collecting notifications after the first one before evicting, so bursts of
+     * notifications are evicted together.
+     */
+    private Duration batchWindow = Duration.ofMillis(50);
+
+    /**
+     * How long the listener waits before reconnecting after losing its connection.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    /**
+     * Identifier of this node, used to skip its own notifications. Unique per process unless set.
+     */
+    private String nodeId = UUID.randomUUID().toString();
+}
@@ -0,0 +1,49 @@
+package com.mursion.assignment.itresources.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the circuit breaker between the API and the database.
+ */
+@Data
+@ConfigurationProperties(prefix = "mursion.database.circuit-breaker")
+public class DatabaseCircuitBreakerProperties {
+
+    /**
+     * Whether the breaker guards database calls at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Consecutive failed calls that open the breaker.
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * How long an open breaker rejects calls before letting probes through.
+     */
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    /**
+     * Probe calls allowed at the same time while half-open.
+     */
+    private int halfOpenProbes = 1;
+
+    /**
+     * Time limit of a guarded read, applied as a transaction timeout. Rounded up to whole seconds.
+     */
+    private Duration readTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Number of last known good read results kept to answer reads while the database is unavailable.
+     */
+    private int staleEntries = 10_000;
+
+    /**
+     * Oldest last known good result still served; older ones are treated as missing.
+     */
+    private Duration staleMaxAge = Duration.ofHours(1);
+}
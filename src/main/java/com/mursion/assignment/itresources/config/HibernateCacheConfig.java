@@ -0,0 +1,63 @@
+package com.mursion.assignment.itresources.config;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configures the JCache (Ehcache) manager backing the Hibernate second-level and query caches.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * Creates a cache manager with one cache per configured region.
+     *
+     * @param properties The cache region configuration.
+     * @return The cache manager used by Hibernate.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        Map<String, CacheConfiguration<?, ?>> caches = new HashMap<>();
+        properties.getRegions().forEach((name, region) -> caches.put(name, toCacheConfiguration(region)));
+
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        ClassLoader classLoader = getClass().getClassLoader();
+        // A dedicated URI per application context, so parallel test contexts never share cached state
+        URI uri = URI.create(provider.getDefaultURI() + "/hibernate/" + System.identityHashCode(this));
+        return provider.getCacheManager(uri, new DefaultConfiguration(caches, classLoader));
+    }
+
+    /**
+     * Hands the cache manager to Hibernate's JCache region factory.
+     *
+     * @param hibernateCacheManager The cache manager.
+     * @return The customizer registering the cache manager.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private CacheConfiguration<Object, Object> toCacheConfiguration(HibernateCacheProperties.Region region) {
+        return CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(region.getMaxEntries()))
+                .withExpiry(region.getTimeToLive() == null
+                        ? ExpiryPolicyBuilder.noExpiration()
+                        : ExpiryPolicyBuilder.timeToLiveExpiration(region.getTimeToLive()))
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.mursion.assignment.itresources.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration for the Hibernate second-level and query cache regions.
+ */
+@Data
+@ConfigurationProperties(prefix = "mursion.cache")
+public class HibernateCacheProperties {
+
+    /**
+     * Cache regions keyed by region name.
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    /**
+     * Size and expiry settings of a single cache region.
+     */
+    @Data
+    public static class Region {
+
+        /**
+         * Maximum number of entries kept on heap.
+         */
+        private long maxEntries = 10_000;
+
+        /**
+         * Time to live of an entry; entries never expire when not set.
+         */
+        private Duration timeToLive;
+    }
+}
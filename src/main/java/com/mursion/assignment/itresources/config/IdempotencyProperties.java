@@ -0,0 +1,56 @@
+package com.mursion.assignment.itresources.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration for replaying the first response of POST requests sent with an idempotency key.
+ */
+@Data
+@ConfigurationProperties(prefix = "mursion.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Whether idempotency keys are honoured at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Request header carrying the idempotency key.
+     */
+    private String header = "Idempotency-Key";
+
+    /**
+     * Largest request body accepted with an idempotency key. The body is held in memory to fingerprint it, so larger
+     * requests are rejected with a 413.
+     */
+    private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+    /**
+     * How long the response to a key is replayed.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a request in progress holds its key before a retry may run it again, e.g. after a node died.
+     */
+    private Duration inProgressTimeout = Duration.ofMinutes(1);
+
+    /**
+     * Number of completed responses kept in memory in front of the database.
+     */
+    private int cacheEntries = 10_000;
+
+    /**
+     * Time between two cleanups of expired keys.
+     */
+    private Duration cleanupInterval = Duration.ofMinutes(15);
+
+    /**
+     * Maximum number of expired keys deleted per transaction.
+     */
+    private int cleanupBatchSize = 1000;
+}
@@ -0,0 +1,41 @@
+package com.mursion.assignment.itresources.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Configuration for the bulk job runner.
+ */
+@Data
+@ConfigurationProperties(prefix = "mursion.jobs")
+public class JobProperties {
+
+    /**
+     * Whether this node claims and runs jobs.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of jobs running at once on this node. Every running job holds a database connection while it
+     * commits a chunk.
+     */
+    private int maxConcurrentJobs = 2;
+
+    /**
+     * Number of items processed and committed per transaction.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * How long a job stays leased to a node without progress before another node may take it over.
+     */
+    private Duration leaseDuration = Duration.ofMinutes(2);
+
+    /**
+     * Identifier of this node as lease owner. Unique per process unless set.
+     */
+    private String nodeId = UUID.randomUUID().toString();
+}
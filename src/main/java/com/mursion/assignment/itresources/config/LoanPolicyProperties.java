@@ -0,0 +1,37 @@
+package com.mursion.assignment.itresources.config;
+
+import com.mursion.assignment.itresources.model.ItResource;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Period;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration of the loan period per resource type, used to compute the due date of new assignments.
+ */
+@Data
+@ConfigurationProperties(prefix = "mursion.loan-policy")
+public class LoanPolicyProperties {
+
+    /**
+     * Loan period of resource types without a specific period.
+     */
+    private Period defaultPeriod = Period.ofDays(90);
+
+    /**
+     * Loan period per resource type.
+     */
+    private Map<ItResource.ResourceType, Period> periods = new EnumMap<>(ItResource.ResourceType.class);
+
+    /**
+     * Returns the loan period of the given resource type.
+     *
+     * @param type The resource type.
+     * @return The loan period.
+     */
+    public Period periodFor(ItResource.ResourceType type) {
+        return periods.getOrDefault(type, defaultPeriod);
+    }
+}
@@ -0,0 +1,56 @@
+package com.mursion.assignment.itresources.config;
+
+import com.mursion.assignment.itresources.dto.it_resource.ItResourceDto;
+import com.mursion.assignment.itresources.dto.it_resource.ItResourceSearchDto;
+import com.mursion.assignment.itresources.dto.it_resource_assign.CurrentHoldingView;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.model.ItResourceAssign;
+import com.mursion.assignment.itresources.model.MonthlyUtilization;
+import com.mursion.assignment.itresources.model.id.UuidV7Generator;
+import com.mursion.assignment.itresources.repository.ReservationExpiry;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.data.projection.TargetAware;
+
+import java.util.stream.Stream;
+
+/**
+ * Reflection, proxy and resource hints for the native image that Spring AOT cannot infer on its own. Lombok needs
+ * none: it only runs at compile time.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Liquibase only finds the changelog root by default, not the included changesets
+        hints.resources().registerPattern("db/changelog/*.yaml");
+        hints.resources().registerPattern("db/changelog/changes/*.yaml");
+        hints.resources().registerPattern("db/changelog/changes/*.sql");
+
+        // Hibernate instantiates the id generator named by @IdGeneratorType reflectively
+        hints.reflection().registerType(UuidV7Generator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Hibernate instantiates the result type of JPQL constructor expressions reflectively
+        hints.reflection().registerType(ReservationExpiry.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Hibernate builds and reads the @IdClass of the utilization rollups reflectively
+        hints.reflection().registerType(MonthlyUtilization.Key.class, MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Looked up by name: the JCache region factory by Hibernate, the caching provider by javax.cache.Caching
+        Stream.of("org.hibernate.cache.jcache.internal.JCacheRegionFactory", "org.ehcache.jsr107.EhcacheCachingProvider")
+                .forEach(type -> hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+
+        // Spring Data backs native query projections with JDK proxies
+        hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(CurrentHoldingView.class, TargetAware.class));
+
+        // springdoc introspects the documented types for the OpenAPI schema
+        Stream.of(ItResource.class, ItResourceAssign.class, ItResourceDto.class, ItResourceSearchDto.class, CurrentHoldingView.class,
+                        MonthlyUtilization.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+    }
+}
@@ -0,0 +1,44 @@
+package com.mursion.assignment.itresources.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for time-limited resource reservations.
+ */
+@Data
+@ConfigurationProperties(prefix = "mursion.reservations")
+public class ReservationProperties {
+
+    /**
+     * Whether this node releases expired reservations.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a reservation lasts when the request does not say.
+     */
+    private Duration defaultDuration = Duration.ofMinutes(30);
+
+    /**
+     * Longest reservation that can be requested.
+     */
+    private Duration maxDuration = Duration.ofDays(1);
+
+    /**
+     * Length of a tick of the expiry timer wheel, which is how late a reservation may be released at most.
+     */
+    private Duration tick = Duration.ofSeconds(1);
+
+    /**
+     * Number of buckets of the expiry timer wheel.
+     */
+    private int wheelSize = 512;
+
+    /**
+     * Maximum number of reservations released per statement and transaction.
+     */
+    private int batchSize = 500;
+}
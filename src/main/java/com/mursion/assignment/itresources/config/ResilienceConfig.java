@@ -0,0 +1,26 @@
+package com.mursion.assignment.itresources.config;
+
+import com.mursion.assignment.itresources.resilience.DatabaseAvailabilityInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the database availability check in front of the API.
+ */
+@Configuration
+public class ResilienceConfig implements WebMvcConfigurer {
+
+    private final DatabaseAvailabilityInterceptor databaseAvailabilityInterceptor;
+
+    @Autowired
+    public ResilienceConfig(DatabaseAvailabilityInterceptor databaseAvailabilityInterceptor) {
+        this.databaseAvailabilityInterceptor = databaseAvailabilityInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(databaseAvailabilityInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,43 @@
+package com.mursion.assignment.itresources.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Verifies the schema version instead of migrating when Liquibase is disabled, which is the case outside the
+ * {@code migrate} profile.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.liquibase.enabled", havingValue = "false")
+public class SchemaVerificationConfig {
+
+    /**
+     * Creates the verifier and runs it before anything else touches the schema.
+     *
+     * @param jdbcTemplate   The JDBC template.
+     * @param resourceLoader The loader for the master changelog.
+     * @param changeLog      The location of the master changelog.
+     * @return The verifier.
+     */
+    @Bean(initMethod = "verify")
+    public SchemaVersionVerifier schemaVersionVerifier(JdbcTemplate jdbcTemplate, ResourceLoader resourceLoader,
+                                                       @Value("${spring.liquibase.change-log}") String changeLog) {
+        return new SchemaVersionVerifier(jdbcTemplate, resourceLoader, changeLog);
+    }
+
+    /**
+     * Makes the entity manager factory wait for the verifier, so a schema mismatch is reported as such rather than
+     * as a Hibernate validation error.
+     *
+     * @return The post processor adding the dependency.
+     */
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor schemaVersionVerifierDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("schemaVersionVerifier");
+    }
+}
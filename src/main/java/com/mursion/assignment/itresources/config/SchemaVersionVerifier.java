@@ -0,0 +1,99 @@
+package com.mursion.assignment.itresources.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks at startup that every changelog included by the master changelog has been applied, without running the
+ * Liquibase engine or taking its lock. Migrations themselves run in the one-shot {@code migrate} profile.
+ */
+@Slf4j
+public class SchemaVersionVerifier {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ResourceLoader resourceLoader;
+    private final String changeLog;
+
+    public SchemaVersionVerifier(JdbcTemplate jdbcTemplate, ResourceLoader resourceLoader, String changeLog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.resourceLoader = resourceLoader;
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Fails if the database is missing any changelog this application expects.
+     *
+     * @throws IllegalStateException If the schema is behind the application.
+     */
+    public void verify() {
+        Set<String> missing = findMissingChangelogs();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Database schema is behind the application, changelogs not applied: " + missing
+                    + ". Run the application with the 'migrate' profile first.");
+        }
+        log.info("Database schema is up to date with {}", changeLog);
+    }
+
+    /**
+     * Retrieves the changelogs included by the master changelog that have not been applied to the database.
+     *
+     * @return The paths of the missing changelogs, in changelog order.
+     */
+    public Set<String> findMissingChangelogs() {
+        Set<String> applied = new HashSet<>();
+        try {
+            jdbcTemplate.queryForList("SELECT DISTINCT filename FROM databasechangelog", String.class)
+                    .forEach(filename -> applied.add(normalize(filename)));
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Cannot read the Liquibase changelog table. Run the application with the "
+                    + "'migrate' profile first.", e);
+        }
+
+        Set<String> missing = new LinkedHashSet<>(expectedChangelogs());
+        missing.removeAll(applied);
+        return missing;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> expectedChangelogs() {
+        String master = normalize(changeLog);
+        String masterDirectory = master.contains("/") ? master.substring(0, master.lastIndexOf('/') + 1) : "";
+
+        Resource resource = resourceLoader.getResource(changeLog);
+        Map<String, List<Map<String, Map<String, Object>>>> document;
+        try (InputStream input = resource.getInputStream()) {
+            document = new Yaml().load(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + changeLog, e);
+        }
+
+        Set<String> expected = new LinkedHashSet<>();
+        for (Map<String, Map<String, Object>> entry : document.get("databaseChangeLog")) {
+            Map<String, Object> include = entry.get("include");
+            if (include != null) {
+                String file = (String) include.get("file");
+                boolean relative = Boolean.TRUE.equals(include.get("relativeToChangelogFile"));
+                expected.add(normalize(relative ? masterDirectory + file : file));
+            }
+        }
+        return expected;
+    }
+
+    private static String normalize(String path) {
+        String normalized = path.startsWith("classpath:") ? path.substring("classpath:".length()) : path;
+        return normalized.startsWith("/") ? normalized.substring(1) : normalized;
+    }
+}
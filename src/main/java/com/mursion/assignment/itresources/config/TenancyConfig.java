@@ -0,0 +1,25 @@
+package com.mursion.assignment.itresources.config;
+
+import com.mursion.assignment.itresources.tenant.TenantIdentifierResolver;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Scopes Hibernate sessions to the tenant of the current thread.
+ */
+@Configuration
+public class TenancyConfig {
+
+    /**
+     * Hands the tenant resolver to Hibernate.
+     *
+     * @return The customizer registering the resolver.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer tenantIdentifierResolverCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER,
+                new TenantIdentifierResolver());
+    }
+}
@@ -0,0 +1,26 @@
+package com.mursion.assignment.itresources.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for serving several tenants (business units) from one deployment.
+ */
+@Data
+@ConfigurationProperties(prefix = "mursion.tenancy")
+public class TenancyProperties {
+
+    /**
+     * Request header selecting the tenant. Requests without it belong to the default tenant.
+     */
+    private String header = "X-Tenant-Id";
+
+    /**
+     * Tenants served by this deployment. Each one gets its own partitions; requests for any other tenant are
+     * rejected.
+     */
+    private List<String> tenants = new ArrayList<>(List.of("default"));
+}
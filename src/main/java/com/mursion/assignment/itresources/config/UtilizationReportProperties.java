@@ -0,0 +1,30 @@
+package com.mursion.assignment.itresources.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Configuration for the monthly utilization rollups.
+ */
+@Data
+@ConfigurationProperties(prefix = "mursion.reports.utilization")
+public class UtilizationReportProperties {
+
+    /**
+     * Whether this node closes ended months and refreshes the open ones.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Time between two refreshes of the open months, which is how stale their figures can get.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(15);
+
+    /**
+     * Time after the end of a month before it is closed, leaving room for late returns to be entered.
+     */
+    private Period closeDelay = Period.ofDays(3);
+}
@@ -0,0 +1,75 @@
+package com.mursion.assignment.itresources.controller;
+
+import com.mursion.assignment.itresources.dto.bulk_job.BulkJobRequest;
+import com.mursion.assignment.itresources.model.BulkJob;
+import com.mursion.assignment.itresources.service.BulkJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * REST controller for submitting bulk jobs and polling their progress.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class BulkJobController {
+
+    private final BulkJobService bulkJobService;
+
+    @Autowired
+    public BulkJobController(BulkJobService bulkJobService) {
+        this.bulkJobService = bulkJobService;
+    }
+
+    /**
+     * Submits a bulk job to run in the background.
+     *
+     * @param request The job type and parameters.
+     * @return The pending job, with its status URL in the Location header.
+     */
+    @PostMapping
+    @Operation(summary = "Submit a bulk job", description = "Submits a bulk job that runs in the background")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job accepted",
+                    content = @Content(schema = @Schema(implementation = BulkJob.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid job type or parameters"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BulkJob> submitJob(@Valid @RequestBody BulkJobRequest request) {
+        try {
+            BulkJob job = bulkJobService.submitJob(request);
+            return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getId())).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Retrieves a bulk job with its status and progress.
+     *
+     * @param id The ID of the job.
+     * @return The job if found, or 404 Not Found.
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a bulk job", description = "Retrieves a bulk job with its status and progress")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job found",
+                    content = @Content(schema = @Schema(implementation = BulkJob.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BulkJob> getJob(@PathVariable UUID id) {
+        return bulkJobService.getJobById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
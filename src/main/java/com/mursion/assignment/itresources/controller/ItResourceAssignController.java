@@ -1,16 +1,29 @@
 package com.mursion.assignment.itresources.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mursion.assignment.itresources.admission.ExpensiveEndpoint;
+import com.mursion.assignment.itresources.admission.ReservedCapacity;
+import com.mursion.assignment.itresources.config.BinaryFormatsConfig;
+import com.mursion.assignment.itresources.dto.it_resource_assign.AutoAssignDto;
+import com.mursion.assignment.itresources.dto.it_resource_assign.CurrentHoldingView;
 import com.mursion.assignment.itresources.model.ItResourceAssign;
 import com.mursion.assignment.itresources.service.ItResourceAssignService;
+import com.mursion.assignment.itresources.support.MergePatch;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -34,11 +47,14 @@ public class ItResourceAssignController {
      * @param assignment The assignment details.
      * @return The created assignment.
      */
+    @ReservedCapacity
     @Operation(summary = "Create a new assignment", description = "Creates a new assignment for an IT resource")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Assignment created successfully",
                     content = @Content(schema = @Schema(implementation = ItResourceAssign.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "404", description = "Resource not found"),
+            @ApiResponse(responseCode = "409", description = "Resource not available or period overlaps another assignment"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PostMapping
@@ -46,6 +62,29 @@ public class ItResourceAssignController {
         return ResponseEntity.ok(itResourceAssignService.saveAssignment(assignment));
     }
 
+    /**
+     * Assigns the next available IT resource of a type, and optionally of a location, to a user.
+     *
+     * @param request The type, location and user of the assignment.
+     * @return The created assignment, or 409 Conflict if no matching resource is available.
+     */
+    @ReservedCapacity
+    @Operation(summary = "Assign any available resource",
+            description = "Assigns the next available IT resource of a type, and optionally of a location, to a user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignment created successfully",
+                    content = @Content(schema = @Schema(implementation = ItResourceAssign.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "409", description = "No matching resource available or period overlaps another assignment"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/auto")
+    public ResponseEntity<ItResourceAssign> autoAssign(@Valid @RequestBody AutoAssignDto request) {
+        return itResourceAssignService.autoAssign(request)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
     /**
      * Retrieves an assignment by its unique ID.
      *
@@ -71,7 +110,8 @@ public class ItResourceAssignController {
      *
      * @return A list of all assignments.
      */
-    @GetMapping
+    @ExpensiveEndpoint
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     @Operation(summary = "Get all assignments", description = "Retrieves a list of all assignments")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Assignments retrieved successfully",
@@ -85,11 +125,12 @@ public class ItResourceAssignController {
     /**
      * Searches for assignments based on resource ID and/or user ID.
      *
-     * @param resourceId The ID of the resource (optional).
-     * @param userId     The ID of the user (optional).
+     * @param resourceId      The ID of the resource (optional).
+     * @param userId          The ID of the user (optional).
+     * @param includeArchived Whether archived assignments are included (defaults to false).
      * @return A list of matching assignments.
      */
-    @GetMapping("/search")
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     @Operation(summary = "Search for assignments", description = "Searches for assignments based on resource ID and/or user ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Assignments retrieved successfully",
@@ -98,8 +139,142 @@ public class ItResourceAssignController {
     })
     public ResponseEntity<List<ItResourceAssign>> searchAssignments(
             @RequestParam(required = false) UUID resourceId,
-            @RequestParam(required = false) UUID userId) {
-        return ResponseEntity.ok(itResourceAssignService.searchAssignments(resourceId, userId));
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return ResponseEntity.ok(itResourceAssignService.searchAssignments(resourceId, userId, includeArchived));
+    }
+
+    /**
+     * Retrieves the resources a user currently holds.
+     *
+     * @param userId The ID of the user.
+     * @return The resources the user holds.
+     */
+    @GetMapping(value = "/users/{userId}/current", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get a user's current holdings", description = "Retrieves the resources a user currently holds")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Holdings retrieved successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<CurrentHoldingView>> getCurrentHoldings(@PathVariable UUID userId) {
+        return ResponseEntity.ok(itResourceAssignService.getCurrentHoldings(userId));
+    }
+
+    /**
+     * Retrieves open assignments that are past their due date, most overdue first.
+     *
+     * @param asOf The reference date (defaults to today).
+     * @param page The page number (defaults to 0).
+     * @param size The page size (defaults to 20).
+     * @return A page of overdue assignments.
+     */
+    @GetMapping(value = "/overdue", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get overdue assignments", description = "Retrieves open assignments whose due date has passed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignments retrieved successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Page<ItResourceAssign>> getOverdueAssignments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        LocalDate referenceDate = asOf != null ? asOf : LocalDate.now();
+        return ResponseEntity.ok(itResourceAssignService.getOverdueAssignments(referenceDate, page, size));
+    }
+
+    /**
+     * Retrieves open assignments due within a date range.
+     *
+     * @param from The first due date.
+     * @param to   The last due date.
+     * @param page The page number (defaults to 0).
+     * @param size The page size (defaults to 20).
+     * @return A page of open assignments.
+     */
+    @GetMapping(value = "/due", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get assignments due in a date range", description = "Retrieves open assignments due within a date range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignments retrieved successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Page<ItResourceAssign>> getAssignmentsDueBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(itResourceAssignService.getOpenAssignmentsDueBetween(from, to, page, size));
+    }
+
+    /**
+     * Retrieves assignments handed out within a date range.
+     *
+     * @param from The first assigned date.
+     * @param to   The last assigned date.
+     * @param page The page number (defaults to 0).
+     * @param size The page size (defaults to 20).
+     * @return A page of assignments.
+     */
+    @GetMapping(value = "/assigned", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get assignments handed out in a date range", description = "Retrieves assignments handed out within a date range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignments retrieved successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Page<ItResourceAssign>> getAssignmentsAssignedBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(itResourceAssignService.getAssignmentsAssignedBetween(from, to, page, size));
+    }
+
+    /**
+     * Retrieves the assignments of a resource that were running on a date, including archived ones.
+     *
+     * @param serialNumber The serial number of the resource.
+     * @param date         The date.
+     * @return The assignments running on the date.
+     */
+    @GetMapping(value = "/history/on", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get who held a resource on a date", description = "Retrieves the assignments of a resource that were running on a date")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignments retrieved successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<ItResourceAssign>> getAssignmentsRunningOn(
+            @RequestParam String serialNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(itResourceAssignService.getAssignmentsRunningOn(serialNumber, date));
+    }
+
+    /**
+     * Retrieves the assignments of a user or of a resource that were running at any time within a date range,
+     * including archived ones.
+     *
+     * @param userId     The ID of the user (either this or the resource ID).
+     * @param resourceId The ID of the resource (either this or the user ID).
+     * @param from       The first date of the range.
+     * @param to         The last date of the range.
+     * @return The overlapping assignments, or 400 Bad Request for an invalid combination of parameters.
+     */
+    @GetMapping(value = "/history/overlapping", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get assignments running in a date range",
+            description = "Retrieves the assignments of a user or of a resource that overlap a date range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignments retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid combination of parameters"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<ItResourceAssign>> getAssignmentsOverlapping(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) UUID resourceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(itResourceAssignService.getAssignmentsOverlapping(userId, resourceId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -109,6 +284,7 @@ public class ItResourceAssignController {
      * @param assignment The updated assignment details.
      * @return The updated assignment.
      */
+    @ReservedCapacity
     @PutMapping("/{id}")
     @Operation(summary = "Update an assignment", description = "Updates an existing assignment")
     @ApiResponses(value = {
@@ -116,18 +292,46 @@ public class ItResourceAssignController {
                     content = @Content(schema = @Schema(implementation = ItResourceAssign.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request body"),
             @ApiResponse(responseCode = "404", description = "Assignment not found"),
+            @ApiResponse(responseCode = "409", description = "Period overlaps another assignment or ends before it starts"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<ItResourceAssign> updateAssignment(@PathVariable UUID id, @RequestBody ItResourceAssign assignment) {
         return ResponseEntity.ok(itResourceAssignService.updateAssignment(id, assignment));
     }
 
+    /**
+     * Partially updates an assignment with a JSON Merge Patch. Only the fields in the patch are changed.
+     *
+     * @param id    The ID of the assignment to patch.
+     * @param patch The merge patch document.
+     * @return The patched assignment.
+     */
+    @ReservedCapacity
+    @PatchMapping(value = "/{id}", consumes = MergePatch.MEDIA_TYPE)
+    @Operation(summary = "Patch an assignment", description = "Changes only the fields present in a JSON Merge Patch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignment patched successfully",
+                    content = @Content(schema = @Schema(implementation = ItResourceAssign.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid merge patch"),
+            @ApiResponse(responseCode = "404", description = "Assignment not found"),
+            @ApiResponse(responseCode = "409", description = "Period overlaps another assignment or ends before it starts"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ItResourceAssign> patchAssignment(@PathVariable UUID id, @RequestBody JsonNode patch) {
+        try {
+            return ResponseEntity.ok(itResourceAssignService.patchAssignment(id, patch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Deletes an assignment by its unique ID.
      *
      * @param id The ID of the assignment to delete.
      * @return 204 No Content if successful, or 404 Not Found.
      */
+    @ReservedCapacity
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete an assignment", description = "Deletes an assignment by its unique ID")
     @ApiResponses(value = {
@@ -146,12 +350,14 @@ public class ItResourceAssignController {
      * @param id The ID of the assignment.
      * @return The updated assignment with the returned status.
      */
+    @ReservedCapacity
     @PostMapping("/{id}/return")
     @Operation(summary = "Return an assigned resource", description = "Marks an assigned resource as returned")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Resource returned successfully",
                     content = @Content(schema = @Schema(implementation = ItResourceAssign.class))),
             @ApiResponse(responseCode = "404", description = "Assignment not found"),
+            @ApiResponse(responseCode = "409", description = "Resource already returned or assignment starts in the future"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<ItResourceAssign> returnResource(@PathVariable UUID id) {
@@ -1,10 +1,20 @@
 package com.mursion.assignment.itresources.controller;
 
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mursion.assignment.itresources.admission.ExpensiveEndpoint;
+import com.mursion.assignment.itresources.admission.ReservedCapacity;
+import com.mursion.assignment.itresources.config.BinaryFormatsConfig;
 import com.mursion.assignment.itresources.dto.it_resource.ItResourceDto;
 import com.mursion.assignment.itresources.dto.it_resource.ItResourceSearchDto;
+import com.mursion.assignment.itresources.dto.it_resource.ReservationDto;
+import com.mursion.assignment.itresources.dto.it_resource.StatusTransitionDto;
+import com.mursion.assignment.itresources.dto.it_resource.StatusTransitionResultDto;
 import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.resilience.ServesStaleReads;
 import com.mursion.assignment.itresources.service.ItResourceService;
+import com.mursion.assignment.itresources.service.ReservationService;
+import com.mursion.assignment.itresources.support.MergePatch;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,9 +22,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,10 +38,12 @@ import java.util.UUID;
 public class ItResourceController {
 
     private final ItResourceService itResourceService;
+    private final ReservationService reservationService;
 
     @Autowired
-    public ItResourceController(ItResourceService itResourceService) {
+    public ItResourceController(ItResourceService itResourceService, ReservationService reservationService) {
         this.itResourceService = itResourceService;
+        this.reservationService = reservationService;
     }
 
     /**
@@ -66,13 +80,15 @@ public class ItResourceController {
      * @param id The ID of the IT resource.
      * @return The IT resource if found, or 404 Not Found.
      */
+    @ServesStaleReads
     @GetMapping("/{id}")
     @Operation(summary = "Get an IT resource by ID", description = "Retrieves an IT resource by its unique ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Resource found",
                     content = @Content(schema = @Schema(implementation = ItResource.class))),
             @ApiResponse(responseCode = "404", description = "Resource not found"),
-            @ApiResponse(responseCode = "500", description = "Internal server error")
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "503", description = "Database unavailable and no recent result known")
     })
     public ResponseEntity<ItResource> getResource(@PathVariable UUID id) {
         return itResourceService.getResourceById(id)
@@ -85,7 +101,8 @@ public class ItResourceController {
      *
      * @return A list of all IT resources.
      */
-    @GetMapping
+    @ExpensiveEndpoint
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     @Operation(summary = "Get all IT resources", description = "Retrieves a list of all IT resources")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Resources retrieved successfully",
@@ -102,17 +119,44 @@ public class ItResourceController {
      * @param searchDto The search criteria.
      * @return A list of matching IT resources.
      */
-    @PostMapping("/search")
+    @ExpensiveEndpoint
+    @ServesStaleReads
+    @PostMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     @Operation(summary = "Search for IT resources", description = "Searches for IT resources based on name and/or type")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Resources retrieved successfully",
                     content = @Content(schema = @Schema(implementation = ItResource.class))),
-            @ApiResponse(responseCode = "500", description = "Internal server error")
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "503", description = "Database unavailable and no recent result known")
     })
     public ResponseEntity<List<ItResource>> searchResources(@Valid @RequestBody ItResourceSearchDto searchDto) {
         return ResponseEntity.ok(itResourceService.searchResources(searchDto));
     }
 
+    /**
+     * Moves every IT resource matching a filter to a new status, skipping assigned and reserved resources.
+     *
+     * @param transition The filter and the new status.
+     * @return The number of updated and skipped resources.
+     */
+    @ExpensiveEndpoint
+    @PostMapping("/status-transitions")
+    @Operation(summary = "Change the status of matching IT resources",
+            description = "Moves every IT resource matching a filter to a new status, skipping assigned and reserved resources")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Status changed successfully",
+                    content = @Content(schema = @Schema(implementation = StatusTransitionResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<StatusTransitionResultDto> transitionStatus(@Valid @RequestBody StatusTransitionDto transition) {
+        try {
+            return ResponseEntity.ok(itResourceService.transitionStatus(transition.getFilter(), transition.getStatus()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Updates an existing IT resource.
      *
@@ -125,12 +169,40 @@ public class ItResourceController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Resource updated successfully",
                     content = @Content(schema = @Schema(implementation = ItResource.class))),
-            @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "400", description = "Invalid request body or status"),
             @ApiResponse(responseCode = "404", description = "Resource not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<ItResource> updateResource(@PathVariable UUID id, @RequestBody ItResource resource) {
-        return ResponseEntity.ok(itResourceService.updateResource(id, resource));
+        try {
+            return ResponseEntity.ok(itResourceService.updateResource(id, resource));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Partially updates an IT resource with a JSON Merge Patch. Only the fields in the patch are changed.
+     *
+     * @param id    The ID of the IT resource to patch.
+     * @param patch The merge patch document.
+     * @return The patched IT resource.
+     */
+    @PatchMapping(value = "/{id}", consumes = MergePatch.MEDIA_TYPE)
+    @Operation(summary = "Patch an IT resource", description = "Changes only the fields present in a JSON Merge Patch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resource patched successfully",
+                    content = @Content(schema = @Schema(implementation = ItResource.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid merge patch"),
+            @ApiResponse(responseCode = "404", description = "Resource not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ItResource> patchResource(@PathVariable UUID id, @RequestBody JsonNode patch) {
+        try {
+            return ResponseEntity.ok(itResourceService.patchResource(id, patch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -150,4 +222,47 @@ public class ItResourceController {
         itResourceService.deleteResource(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Puts an available IT resource on hold for a user for a limited time.
+     *
+     * @param id          The ID of the IT resource to reserve.
+     * @param reservation The user and duration of the hold.
+     * @return The reserved IT resource.
+     */
+    @ReservedCapacity
+    @PostMapping("/{id}/reservation")
+    @Operation(summary = "Reserve an IT resource", description = "Puts an available IT resource on hold for a user for a limited time")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resource reserved successfully",
+                    content = @Content(schema = @Schema(implementation = ItResource.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid duration"),
+            @ApiResponse(responseCode = "404", description = "Resource not found"),
+            @ApiResponse(responseCode = "409", description = "Resource not available"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ItResource> reserveResource(@PathVariable UUID id, @Valid @RequestBody ReservationDto reservation) {
+        Duration duration = reservation.getDurationMinutes() != null
+                ? Duration.ofMinutes(reservation.getDurationMinutes()) : null;
+        return ResponseEntity.ok(reservationService.reserve(id, reservation.getUserId(), duration));
+    }
+
+    /**
+     * Releases the reservation of an IT resource before it expires.
+     *
+     * @param id The ID of the reserved IT resource.
+     * @return 204 No Content if released, or 404 Not Found if the resource is not reserved.
+     */
+    @DeleteMapping("/{id}/reservation")
+    @Operation(summary = "Release a reservation", description = "Releases the reservation of an IT resource before it expires")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Reservation released successfully"),
+            @ApiResponse(responseCode = "404", description = "Resource not reserved"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Void> releaseReservation(@PathVariable UUID id) {
+        return reservationService.cancel(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
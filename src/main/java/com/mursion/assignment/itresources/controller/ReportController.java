@@ -0,0 +1,62 @@
+package com.mursion.assignment.itresources.controller;
+
+import com.mursion.assignment.itresources.config.BinaryFormatsConfig;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.model.MonthlyUtilization;
+import com.mursion.assignment.itresources.service.UtilizationReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * REST controller for reports over IT resources and their assignments.
+ */
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private final UtilizationReportService utilizationReportService;
+
+    @Autowired
+    public ReportController(UtilizationReportService utilizationReportService) {
+        this.utilizationReportService = utilizationReportService;
+    }
+
+    /**
+     * Retrieves the share of owned days resources were assigned, by resource type and month. Figures of the running
+     * month are refreshed periodically.
+     *
+     * @param from The first month, as yyyy-MM.
+     * @param to   The last month, as yyyy-MM.
+     * @param type The resource type (optional).
+     * @return The utilization by month and type, or 400 Bad Request if the range ends before it starts.
+     */
+    @GetMapping(value = "/utilization", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get monthly utilization", description = "Retrieves the utilization of resources by type and month")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Report retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid month range"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<MonthlyUtilization>> getMonthlyUtilization(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(required = false) ItResource.ResourceType type) {
+        try {
+            return ResponseEntity.ok(utilizationReportService.getMonthlyUtilization(from, to, type));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.mursion.assignment.itresources.dto.bulk_job;
+
+import com.mursion.assignment.itresources.model.BulkJob;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) for submitting a bulk job.
+ */
+@Data
+public class BulkJobRequest {
+
+    /**
+     * Type of the job.
+     */
+    @NotNull(message = "Type is required")
+    @Schema(description = "Type of the job", example = "OFFBOARD_USER")
+    private BulkJob.JobType type;
+
+    /**
+     * Handler-specific parameters of the job.
+     */
+    @Schema(description = "Parameters of the job", example = "{\"userId\": \"3fa85f64-5717-4562-b3fc-2c963f66afa6\"}")
+    private Map<String, String> parameters = new HashMap<>();
+}
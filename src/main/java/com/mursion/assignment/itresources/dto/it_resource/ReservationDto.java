@@ -0,0 +1,30 @@
+package com.mursion.assignment.itresources.dto.it_resource;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) for putting an IT resource on hold for a user.
+ */
+@Data
+@Schema(description = "Time-limited hold of an IT resource for a user")
+public class ReservationDto {
+
+    /**
+     * ID of the user the resource is held for.
+     */
+    @NotNull(message = "User ID cannot be null")
+    @Schema(description = "ID of the user the resource is held for", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID userId;
+
+    /**
+     * How many minutes the hold lasts. Defaults to the configured reservation duration.
+     */
+    @Positive(message = "Duration must be positive")
+    @Schema(description = "How many minutes the hold lasts, defaults to the configured duration", example = "30")
+    private Integer durationMinutes;
+}
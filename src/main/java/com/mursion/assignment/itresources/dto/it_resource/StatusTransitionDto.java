@@ -0,0 +1,30 @@
+package com.mursion.assignment.itresources.dto.it_resource;
+
+import com.mursion.assignment.itresources.model.ItResource;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) for moving every IT resource matching a filter to a new status.
+ */
+@Data
+@Schema(description = "Status change applied to all IT resources matching a filter")
+public class StatusTransitionDto {
+
+    /**
+     * Search criteria selecting the resources. Sorting is ignored.
+     */
+    @Valid
+    @NotNull(message = "Filter cannot be null")
+    @Schema(description = "Search criteria selecting the resources")
+    private ItResourceSearchDto filter;
+
+    /**
+     * New status of the resources.
+     */
+    @NotNull(message = "Status cannot be null")
+    @Schema(description = "New status of the resources", example = "DEPRECATED")
+    private ItResource.ResourceStatus status;
+}
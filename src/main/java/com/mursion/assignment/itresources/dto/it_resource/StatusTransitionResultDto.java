@@ -0,0 +1,40 @@
+package com.mursion.assignment.itresources.dto.it_resource;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) reporting the outcome of a status transition.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a status transition")
+public class StatusTransitionResultDto {
+
+    /**
+     * Number of resources moved to the new status.
+     */
+    @Schema(description = "Number of resources moved to the new status", example = "1200")
+    private long updated;
+
+    /**
+     * Number of matching resources skipped because they are assigned.
+     */
+    @Schema(description = "Number of matching resources skipped because they are assigned", example = "35")
+    private long skippedAssigned;
+
+    /**
+     * Number of matching resources skipped because they are reserved.
+     */
+    @Schema(description = "Number of matching resources skipped because they are reserved", example = "4")
+    private long skippedReserved;
+
+    /**
+     * Number of matching resources that already had the new status.
+     */
+    @Schema(description = "Number of matching resources that already had the new status", example = "10")
+    private long unchanged;
+}
@@ -0,0 +1,49 @@
+package com.mursion.assignment.itresources.dto.it_resource_assign;
+
+import com.mursion.assignment.itresources.model.ItResource;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) for assigning any available IT resource of a type to a user.
+ */
+@Data
+@Schema(description = "Request to assign the next available IT resource of a type")
+public class AutoAssignDto {
+
+    /**
+     * Type of the resource to assign.
+     */
+    @NotNull(message = "Type cannot be null")
+    @Schema(description = "Type of the resource to assign", example = "LAPTOP")
+    private ItResource.ResourceType type;
+
+    /**
+     * Inventory location the resource must be taken from (optional).
+     */
+    @Schema(description = "Inventory location the resource must be taken from", example = "Office A")
+    private String inventoryLocation;
+
+    /**
+     * ID of the user receiving the resource.
+     */
+    @NotNull(message = "User ID cannot be null")
+    @Schema(description = "ID of the user receiving the resource", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID userId;
+
+    /**
+     * Date of the assignment. Defaults to today.
+     */
+    @Schema(description = "Date of the assignment, defaults to today", example = "2024-08-01")
+    private LocalDate assignedDate;
+
+    /**
+     * Due date of the assignment. Defaults to the loan policy of the resource type.
+     */
+    @Schema(description = "Due date of the assignment, defaults to the loan policy of the resource type", example = "2024-09-01")
+    private LocalDate dueDate;
+}
@@ -0,0 +1,45 @@
+package com.mursion.assignment.itresources.dto.it_resource_assign;
+
+import com.mursion.assignment.itresources.model.ItResource;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projection of a resource a user currently holds.
+ * This view is read with a single join instead of loading full assignment and resource entities.
+ */
+@Schema(description = "Resource currently held by a user")
+public interface CurrentHoldingView {
+
+    /**
+     * ID of the held IT resource.
+     */
+    @Schema(description = "ID of the IT resource")
+    UUID getResourceId();
+
+    /**
+     * Name of the held IT resource.
+     */
+    @Schema(description = "Name of the IT resource", example = "Dell Laptop")
+    String getName();
+
+    /**
+     * Type of the held IT resource.
+     */
+    @Schema(description = "Type of the IT resource", example = "LAPTOP")
+    ItResource.ResourceType getType();
+
+    /**
+     * Serial number of the held IT resource.
+     */
+    @Schema(description = "Serial number of the IT resource", example = "SN123456")
+    String getSerialNumber();
+
+    /**
+     * Date when the resource was assigned to the user.
+     */
+    @Schema(description = "Date when the resource was assigned", example = "2024-01-15")
+    LocalDate getAssignedDate();
+}
@@ -0,0 +1,13 @@
+package com.mursion.assignment.itresources.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when the resource of an assignment that was already returned is returned again.
+ */
+public class AssignmentAlreadyReturnedException extends DomainException {
+
+    public AssignmentAlreadyReturnedException() {
+        super(HttpStatus.CONFLICT, "assignment_already_returned", "Resource is already returned");
+    }
+}
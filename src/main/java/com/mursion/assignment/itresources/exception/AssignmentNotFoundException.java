@@ -0,0 +1,13 @@
+package com.mursion.assignment.itresources.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an assignment does not exist, or belongs to another tenant.
+ */
+public class AssignmentNotFoundException extends DomainException {
+
+    public AssignmentNotFoundException() {
+        super(HttpStatus.NOT_FOUND, "assignment_not_found", "Assignment not found");
+    }
+}
@@ -0,0 +1,14 @@
+package com.mursion.assignment.itresources.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an assignment would overlap another assignment of the same resource.
+ */
+public class AssignmentPeriodOverlapException extends DomainException {
+
+    public AssignmentPeriodOverlapException(Throwable cause) {
+        super(HttpStatus.CONFLICT, "assignment_period_overlap",
+                "Assignment period overlaps another assignment of the resource", cause);
+    }
+}
@@ -0,0 +1,42 @@
+package com.mursion.assignment.itresources.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Expected business outcome that ends a request, such as a missing or unavailable resource. Callers react to the
+ * status and reason, never to where it was thrown, so no stack trace is captured; under contention these are thrown
+ * often enough for the capture to show up in the CPU profile.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final String reason;
+
+    protected DomainException(HttpStatus status, String reason, String message) {
+        this(status, reason, message, null);
+    }
+
+    protected DomainException(HttpStatus status, String reason, String message, Throwable cause) {
+        super(message, cause, false, false);
+        this.status = status;
+        this.reason = reason;
+    }
+
+    /**
+     * Retrieves the HTTP status the outcome is reported with.
+     *
+     * @return The status.
+     */
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Retrieves the stable, machine-readable code of the outcome, used in problem details and metrics.
+     *
+     * @return The reason code.
+     */
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,53 @@
+package com.mursion.assignment.itresources.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.net.URI;
+
+/**
+ * Reports domain exceptions as RFC 7807 problem details and counts them per reason. They are expected outcomes, so
+ * they are not logged as errors.
+ */
+@Slf4j
+@RestControllerAdvice
+public class DomainExceptionHandler {
+
+    /**
+     * Prefix of the problem type; the reason code completes it.
+     */
+    static final String TYPE_PREFIX = "urn:mursion:problem:";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public DomainExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Converts a domain exception into a problem detail with its status.
+     *
+     * @param e The exception.
+     * @return The problem detail.
+     */
+    @ExceptionHandler(DomainException.class)
+    public ProblemDetail handleDomainException(DomainException e) {
+        Counter.builder("mursion.domain.errors")
+                .tag("reason", e.getReason())
+                .tag("status", String.valueOf(e.getStatus().value()))
+                .register(meterRegistry)
+                .increment();
+        log.debug("Request ended with {}: {}", e.getReason(), e.getMessage());
+
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(e.getStatus(), e.getMessage());
+        problem.setType(URI.create(TYPE_PREFIX + e.getReason()));
+        problem.setProperty("reason", e.getReason());
+        return problem;
+    }
+}
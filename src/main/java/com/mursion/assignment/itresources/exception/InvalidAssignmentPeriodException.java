@@ -0,0 +1,13 @@
+package com.mursion.assignment.itresources.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an assignment would be returned before it was assigned.
+ */
+public class InvalidAssignmentPeriodException extends DomainException {
+
+    public InvalidAssignmentPeriodException(Throwable cause) {
+        super(HttpStatus.CONFLICT, "assignment_period_invalid", "Return date must not be before the assigned date", cause);
+    }
+}
@@ -0,0 +1,16 @@
+package com.mursion.assignment.itresources.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a reservation is requested for a duration that is not positive or longer than the maximum.
+ */
+public class InvalidReservationDurationException extends DomainException {
+
+    public InvalidReservationDurationException(Duration maxDuration) {
+        super(HttpStatus.BAD_REQUEST, "invalid_reservation_duration",
+                "Reservation duration must be positive and at most " + maxDuration);
+    }
+}
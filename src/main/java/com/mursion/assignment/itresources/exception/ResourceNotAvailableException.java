@@ -0,0 +1,17 @@
+package com.mursion.assignment.itresources.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an IT resource is assigned, or reserved for another user, and so cannot be assigned or reserved.
+ */
+public class ResourceNotAvailableException extends DomainException {
+
+    public ResourceNotAvailableException() {
+        this("Resource is not available for assignment");
+    }
+
+    public ResourceNotAvailableException(String message) {
+        super(HttpStatus.CONFLICT, "resource_not_available", message);
+    }
+}
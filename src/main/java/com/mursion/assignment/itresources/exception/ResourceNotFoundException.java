@@ -0,0 +1,13 @@
+package com.mursion.assignment.itresources.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an IT resource does not exist, or belongs to another tenant.
+ */
+public class ResourceNotFoundException extends DomainException {
+
+    public ResourceNotFoundException() {
+        super(HttpStatus.NOT_FOUND, "resource_not_found", "Resource not found");
+    }
+}
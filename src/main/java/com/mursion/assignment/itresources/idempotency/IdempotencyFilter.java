@@ -0,0 +1,261 @@
+package com.mursion.assignment.itresources.idempotency;
+
+import com.mursion.assignment.itresources.config.IdempotencyProperties;
+import com.mursion.assignment.itresources.model.IdempotencyRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Makes POST requests under /api safe to retry. A request sent with an idempotency key runs at most once; retries
+ * with the same key get the first response replayed, marked with an Idempotent-Replayed header.
+ * <p>
+ * Retries arriving while the first request still runs get a 409, and reusing a key for a different request a 422.
+ * Responses that say the request should be retried as is (5xx, 408, 429) are not kept. The body is held in memory to
+ * fingerprint it, so bodies larger than the configured maximum get a 413.
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyStore store;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter inProgress;
+    private final Counter mismatched;
+
+    @Autowired
+    public IdempotencyFilter(IdempotencyProperties properties, IdempotencyStore store, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.store = store;
+        this.executed = Counter.builder("mursion.idempotency.requests").tag("outcome", "executed").register(meterRegistry);
+        this.replayed = Counter.builder("mursion.idempotency.requests").tag("outcome", "replayed").register(meterRegistry);
+        this.inProgress = Counter.builder("mursion.idempotency.requests").tag("outcome", "in_progress").register(meterRegistry);
+        this.mismatched = Counter.builder("mursion.idempotency.requests").tag("outcome", "mismatched").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || !HttpMethod.POST.matches(request.getMethod())
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/api/")
+                || request.getHeader(properties.getHeader()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(properties.getHeader());
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    properties.getHeader() + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        long maxBodySize = properties.getMaxBodySize().toBytes();
+        if (request.getContentLengthLong() > maxBodySize) {
+            rejectTooLarge(response, maxBodySize);
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request, maxBodySize);
+        if (cachedRequest.body.length > maxBodySize) {
+            // The declared length was missing or wrong
+            rejectTooLarge(response, maxBodySize);
+            return;
+        }
+        String fingerprint = fingerprint(request, cachedRequest.body);
+
+        IdempotencyRecord existing = store.find(key);
+        if (existing == null && store.claim(key, fingerprint)) {
+            executed.increment();
+            execute(key, fingerprint, cachedRequest, response, filterChain);
+            return;
+        }
+        if (existing == null) {
+            existing = store.find(key);
+        }
+
+        if (existing != null && !existing.getRequestFingerprint().equals(fingerprint)) {
+            mismatched.increment();
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    properties.getHeader() + " was already used for a different request");
+        } else if (existing == null || existing.getStatus() == IdempotencyRecord.Status.IN_PROGRESS) {
+            inProgress.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.CONFLICT.value(), "A request with this " + properties.getHeader() + " is in progress");
+        } else {
+            replayed.increment();
+            replay(existing, response);
+        }
+    }
+
+    private void execute(String key, String fingerprint, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            int status = responseWrapper.getStatus();
+            if (isReplayable(status)) {
+                store.complete(key, fingerprint, status, responseWrapper.getContentType(),
+                        responseWrapper.getContentAsByteArray());
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                release(key);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private void rejectTooLarge(HttpServletResponse response, long maxBodySize) throws IOException {
+        response.sendError(HttpStatus.CONTENT_TOO_LARGE.value(),
+                "Requests with an " + properties.getHeader() + " are limited to " + maxBodySize + " bytes");
+    }
+
+    private void release(String key) {
+        try {
+            store.release(key);
+        } catch (RuntimeException e) {
+            // The claim times out on its own
+            log.warn("Could not release idempotency key {}", key, e);
+        }
+    }
+
+    private static boolean isReplayable(int status) {
+        return status < 500
+                && status != HttpStatus.REQUEST_TIMEOUT.value()
+                && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private static void replay(IdempotencyRecord record, HttpServletResponse response) throws IOException {
+        response.setStatus(record.getResponseStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.getResponseType() != null) {
+            response.setContentType(record.getResponseType());
+        }
+        byte[] body = record.getResponseBody();
+        if (body != null && body.length > 0) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Reads the request body up front so it can be both fingerprinted and handed to the controller. At most one byte
+     * more than the limit is read, which is enough to tell that a body is too large.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, long maxBodySize) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readNBytes((int) Math.min(maxBodySize + 1, Integer.MAX_VALUE));
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // The whole body is in memory, so it is available, and then fully read, right away
+                    try {
+                        if (in.available() > 0) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.mursion.assignment.itresources.idempotency;
+
+import com.mursion.assignment.itresources.config.IdempotencyProperties;
+import com.mursion.assignment.itresources.model.IdempotencyRecord;
+import com.mursion.assignment.itresources.repository.IdempotencyRecordRepository;
+import com.mursion.assignment.itresources.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps idempotency keys and the responses they replay.
+ * <p>
+ * The database is the source of truth, shared by every node. Completed responses never change until they expire, so
+ * the most recently used ones are also kept in memory and retries arriving at the same node skip the database.
+ * Keys are scoped to the current tenant.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+    private final Map<TenantKey, IdempotencyRecord> completed;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository repository, IdempotencyProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+        int maxEntries = properties.getCacheEntries();
+        this.completed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TenantKey, IdempotencyRecord> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the live record of an idempotency key.
+     *
+     * @param key The idempotency key.
+     * @return The record, or null if the key is unknown or expired.
+     */
+    public IdempotencyRecord find(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        TenantKey tenantKey = new TenantKey(TenantContext.current(), key);
+        synchronized (completed) {
+            IdempotencyRecord cached = completed.get(tenantKey);
+            if (cached != null) {
+                if (cached.getExpiresAt().isAfter(now)) {
+                    return cached;
+                }
+                completed.remove(tenantKey);
+            }
+        }
+        IdempotencyRecord record = repository.findUnexpired(key, now).orElse(null);
+        if (record != null && record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+            remember(record);
+        }
+        return record;
+    }
+
+    /**
+     * Claims an idempotency key for a request about to run.
+     *
+     * @param key         The idempotency key.
+     * @param fingerprint The fingerprint of the request.
+     * @return True if the request may run, false if the key is already in use.
+     */
+    public boolean claim(String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        return repository.claim(TenantContext.current(), key, fingerprint, now,
+                now.plus(properties.getInProgressTimeout())) > 0;
+    }
+
+    /**
+     * Stores the response of a claimed request so retries get it replayed.
+     *
+     * @param key            The idempotency key.
+     * @param fingerprint    The fingerprint of the request.
+     * @param responseStatus The HTTP status of the response.
+     * @param responseType   The content type of the response.
+     * @param responseBody   The body of the response.
+     */
+    public void complete(String key, String fingerprint, int responseStatus, String responseType, byte[] responseBody) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(properties.getTtl());
+        String tenantId = TenantContext.current();
+        if (repository.complete(tenantId, key, responseStatus, responseType, responseBody, expiresAt) == 0) {
+            // The claim timed out and another attempt took over; its response is the one to replay
+            log.warn("Idempotency key {} was taken over before its request completed", key);
+            return;
+        }
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setTenantId(tenantId);
+        record.setKey(key);
+        record.setRequestFingerprint(fingerprint);
+        record.setStatus(IdempotencyRecord.Status.COMPLETED);
+        record.setResponseStatus(responseStatus);
+        record.setResponseType(responseType);
+        record.setResponseBody(responseBody);
+        record.setCreatedAt(now);
+        record.setExpiresAt(expiresAt);
+        remember(record);
+    }
+
+    /**
+     * Gives up the claim of a request whose response is not worth replaying, so a retry runs it again.
+     *
+     * @param key The idempotency key.
+     */
+    public void release(String key) {
+        repository.release(TenantContext.current(), key);
+    }
+
+    /**
+     * Deletes expired keys on the configured schedule.
+     */
+    @Scheduled(fixedDelayString = "${mursion.idempotency.cleanup-interval:PT15M}")
+    public void cleanupOnSchedule() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int deleted = cleanup();
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    /**
+     * Deletes expired keys of all tenants, one batch per transaction so that no long lock is held.
+     *
+     * @return The number of deleted keys.
+     */
+    public int cleanup() {
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = properties.getCleanupBatchSize();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = repository.deleteExpired(now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        synchronized (completed) {
+            completed.values().removeIf(record -> !record.getExpiresAt().isAfter(now));
+        }
+        return total;
+    }
+
+    private void remember(IdempotencyRecord record) {
+        synchronized (completed) {
+            completed.put(new TenantKey(record.getTenantId(), record.getKey()), record);
+        }
+    }
+
+    private record TenantKey(String tenantId, String key) {
+    }
+}
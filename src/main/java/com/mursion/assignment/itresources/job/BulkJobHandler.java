@@ -0,0 +1,43 @@
+package com.mursion.assignment.itresources.job;
+
+import com.mursion.assignment.itresources.model.BulkJob;
+
+/**
+ * Runs one type of bulk job, one chunk at a time. Each chunk is called inside a transaction that also records the
+ * returned checkpoint, so a chunk must be idempotent with respect to its checkpoint.
+ */
+public interface BulkJobHandler {
+
+    /**
+     * Retrieves the type of job this handler runs.
+     *
+     * @return The job type.
+     */
+    BulkJob.JobType type();
+
+    /**
+     * Rejects parameters the handler cannot run with.
+     *
+     * @param job The submitted job.
+     * @throws IllegalArgumentException If the parameters are invalid.
+     */
+    void validate(BulkJob job);
+
+    /**
+     * Estimates the number of items the job will process.
+     *
+     * @param job The job.
+     * @return The estimated number of items.
+     */
+    long countTotal(BulkJob job);
+
+    /**
+     * Processes the next chunk after the checkpoint.
+     *
+     * @param job        The job.
+     * @param checkpoint The checkpoint of the last committed chunk, or null for the first chunk.
+     * @param chunkSize  The maximum number of items to process.
+     * @return The outcome of the chunk.
+     */
+    ChunkResult processChunk(BulkJob job, String checkpoint, int chunkSize);
+}
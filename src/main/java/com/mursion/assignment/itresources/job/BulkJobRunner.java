@@ -0,0 +1,174 @@
+package com.mursion.assignment.itresources.job;
+
+import com.mursion.assignment.itresources.config.JobProperties;
+import com.mursion.assignment.itresources.model.BulkJob;
+import com.mursion.assignment.itresources.repository.BulkJobRepository;
+import com.mursion.assignment.itresources.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Claims unfinished bulk jobs from the database and runs them on virtual threads, at most
+ * {@link JobProperties#getMaxConcurrentJobs()} at a time. Every chunk commits together with its checkpoint and a
+ * lease extension. A job whose node disappears is taken over from its last checkpoint once the lease expires. Jobs
+ * of all tenants are claimed; each runs for the tenant that submitted it.
+ */
+@Slf4j
+@Component
+public class BulkJobRunner {
+
+    private final BulkJobRepository bulkJobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JobProperties properties;
+    private final Map<BulkJob.JobType, BulkJobHandler> handlers = new EnumMap<>(BulkJob.JobType.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore slots;
+
+    @Autowired
+    public BulkJobRunner(BulkJobRepository bulkJobRepository, TransactionTemplate transactionTemplate,
+                         JobProperties properties, List<BulkJobHandler> handlers) {
+        this.bulkJobRepository = bulkJobRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.slots = new Semaphore(properties.getMaxConcurrentJobs());
+        handlers.forEach(handler -> this.handlers.put(handler.type(), handler));
+    }
+
+    /**
+     * Retrieves the handler for a job type.
+     *
+     * @param type The job type.
+     * @return The handler.
+     */
+    public BulkJobHandler handlerFor(BulkJob.JobType type) {
+        BulkJobHandler handler = handlers.get(type);
+        if (handler == null) {
+            throw new IllegalArgumentException("No handler for job type " + type);
+        }
+        return handler;
+    }
+
+    /**
+     * Looks for claimable jobs without blocking the caller, for example right after a job was submitted.
+     */
+    public void wakeUp() {
+        executor.execute(this::dispatch);
+    }
+
+    /**
+     * Resumes jobs left behind by a previous run, and periodically picks up jobs with expired leases.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${mursion.jobs.poll-interval:PT10S}")
+    public synchronized void dispatch() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        while (slots.tryAcquire()) {
+            Optional<UUID> claimed;
+            try {
+                claimed = bulkJobRepository.claimNext(properties.getNodeId(), leaseSeconds());
+            } catch (RuntimeException e) {
+                slots.release();
+                throw e;
+            }
+            if (claimed.isEmpty()) {
+                slots.release();
+                return;
+            }
+            UUID jobId = claimed.get();
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+    }
+
+    private void run(UUID jobId) {
+        BulkJob job = TenantContext.callAs(TenantContext.ROOT, () -> bulkJobRepository.findById(jobId).orElseThrow());
+        TenantContext.runAs(job.getTenantId(), () -> run(job));
+    }
+
+    private void run(BulkJob job) {
+        UUID jobId = job.getId();
+        String owner = properties.getNodeId();
+        try {
+            BulkJobHandler handler = handlerFor(job.getType());
+            if (job.getTotalCount() == null && bulkJobRepository.startWithTotal(jobId, owner, handler.countTotal(job)) == 0) {
+                return;
+            }
+
+            String checkpoint = job.getCheckpoint();
+            boolean done = false;
+            while (!done) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                ChunkResult chunk = processChunk(handler, job, checkpoint);
+                if (chunk == null) {
+                    log.warn("Lost the lease on job {}, another node continues it", jobId);
+                    return;
+                }
+                checkpoint = chunk.checkpoint();
+                done = chunk.done();
+            }
+            bulkJobRepository.finish(jobId, owner, BulkJob.JobStatus.COMPLETED.name(), null);
+            log.info("Completed job {} of type {}", jobId, job.getType());
+        } catch (RuntimeException e) {
+            if (executor.isShutdown()) {
+                log.info("Interrupted job {} by shutdown, it resumes from its last checkpoint", jobId);
+                return;
+            }
+            log.error("Job {} of type {} failed", jobId, job.getType(), e);
+            bulkJobRepository.finish(jobId, owner, BulkJob.JobStatus.FAILED.name(), e.getMessage());
+        }
+    }
+
+    /**
+     * Processes a chunk and records its checkpoint in one transaction.
+     *
+     * @return The outcome of the chunk, or null if the lease was lost and the chunk rolled back.
+     */
+    private ChunkResult processChunk(BulkJobHandler handler, BulkJob job, String checkpoint) {
+        return transactionTemplate.execute(status -> {
+            ChunkResult chunk = handler.processChunk(job, checkpoint, properties.getChunkSize());
+            int updated = bulkJobRepository.advance(job.getId(), properties.getNodeId(), chunk.checkpoint(),
+                    chunk.processed(), leaseSeconds());
+            if (updated == 0) {
+                status.setRollbackOnly();
+                return null;
+            }
+            return chunk;
+        });
+    }
+
+    private long leaseSeconds() {
+        return properties.getLeaseDuration().toSeconds();
+    }
+
+    /**
+     * Stops running jobs. Their leases expire and they resume from their last checkpoint.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
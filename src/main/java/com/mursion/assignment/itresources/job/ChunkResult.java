@@ -0,0 +1,11 @@
+package com.mursion.assignment.itresources.job;
+
+/**
+ * Outcome of processing one chunk of a bulk job.
+ *
+ * @param processed  The number of items processed in the chunk.
+ * @param checkpoint The key of the last processed item, from which the next chunk continues.
+ * @param done       Whether the job has no items left.
+ */
+public record ChunkResult(long processed, String checkpoint, boolean done) {
+}
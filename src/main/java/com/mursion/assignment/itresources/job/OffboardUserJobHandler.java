@@ -0,0 +1,59 @@
+package com.mursion.assignment.itresources.job;
+
+import com.mursion.assignment.itresources.model.BulkJob;
+import com.mursion.assignment.itresources.service.ItResourceAssignService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Returns every resource a user holds, for example when the user leaves the company.
+ * Parameters: {@code userId}.
+ */
+@Component
+public class OffboardUserJobHandler implements BulkJobHandler {
+
+    static final String USER_ID = "userId";
+
+    private static final UUID FIRST = new UUID(0, 0);
+
+    private final ItResourceAssignService itResourceAssignService;
+
+    @Autowired
+    public OffboardUserJobHandler(ItResourceAssignService itResourceAssignService) {
+        this.itResourceAssignService = itResourceAssignService;
+    }
+
+    @Override
+    public BulkJob.JobType type() {
+        return BulkJob.JobType.OFFBOARD_USER;
+    }
+
+    @Override
+    public void validate(BulkJob job) {
+        userId(job);
+    }
+
+    @Override
+    public long countTotal(BulkJob job) {
+        return itResourceAssignService.countOpenAssignmentsOfUser(userId(job));
+    }
+
+    @Override
+    public ChunkResult processChunk(BulkJob job, String checkpoint, int chunkSize) {
+        UUID after = checkpoint != null ? UUID.fromString(checkpoint) : FIRST;
+        List<UUID> returned = itResourceAssignService.returnOpenAssignmentsOfUser(userId(job), after, chunkSize);
+        String next = returned.isEmpty() ? checkpoint : returned.getLast().toString();
+        return new ChunkResult(returned.size(), next, returned.size() < chunkSize);
+    }
+
+    private UUID userId(BulkJob job) {
+        String userId = job.getParameters().get(USER_ID);
+        if (userId == null) {
+            throw new IllegalArgumentException("Missing parameter " + USER_ID);
+        }
+        return UUID.fromString(userId);
+    }
+}
@@ -0,0 +1,89 @@
+package com.mursion.assignment.itresources.job;
+
+import com.mursion.assignment.itresources.dto.it_resource.ItResourceSearchDto;
+import com.mursion.assignment.itresources.model.BulkJob;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.service.ItResourceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves every resource matching a filter to a new status, skipping assigned and reserved resources, for transitions
+ * too large for a single request. Parameters: {@code status}, and optionally the filter criteria {@code name},
+ * {@code type}, {@code currentStatus}, {@code serialNumber}, {@code startDate} and {@code endDate}.
+ */
+@Component
+public class ResourceStatusJobHandler implements BulkJobHandler {
+
+    private final ItResourceService itResourceService;
+
+    @Autowired
+    public ResourceStatusJobHandler(ItResourceService itResourceService) {
+        this.itResourceService = itResourceService;
+    }
+
+    @Override
+    public BulkJob.JobType type() {
+        return BulkJob.JobType.RESOURCE_STATUS;
+    }
+
+    @Override
+    public void validate(BulkJob job) {
+        if (status(job) == ItResource.ResourceStatus.ASSIGNED) {
+            throw new IllegalArgumentException("Resources can only become assigned through an assignment");
+        }
+        if (status(job) == ItResource.ResourceStatus.RESERVED) {
+            throw new IllegalArgumentException("Resources can only become reserved through a reservation");
+        }
+        filter(job);
+    }
+
+    @Override
+    public long countTotal(BulkJob job) {
+        return itResourceService.countTransitionCandidates(filter(job), status(job));
+    }
+
+    @Override
+    public ChunkResult processChunk(BulkJob job, String checkpoint, int chunkSize) {
+        UUID after = checkpoint != null ? UUID.fromString(checkpoint) : null;
+        List<UUID> ids = itResourceService.findTransitionCandidates(filter(job), status(job), after, chunkSize);
+        if (ids.isEmpty()) {
+            return new ChunkResult(0, checkpoint, true);
+        }
+        int updated = itResourceService.transitionStatusOf(ids, status(job));
+        return new ChunkResult(updated, ids.getLast().toString(), ids.size() < chunkSize);
+    }
+
+    private ItResource.ResourceStatus status(BulkJob job) {
+        String status = job.getParameters().get("status");
+        if (status == null) {
+            throw new IllegalArgumentException("Missing parameter status");
+        }
+        return ItResource.ResourceStatus.valueOf(status);
+    }
+
+    private ItResourceSearchDto filter(BulkJob job) {
+        Map<String, String> parameters = job.getParameters();
+        ItResourceSearchDto filter = new ItResourceSearchDto();
+        filter.setName(parameters.get("name"));
+        filter.setSerialNumber(parameters.get("serialNumber"));
+        if (parameters.get("type") != null) {
+            filter.setType(ItResource.ResourceType.valueOf(parameters.get("type")));
+        }
+        if (parameters.get("currentStatus") != null) {
+            filter.setStatus(ItResource.ResourceStatus.valueOf(parameters.get("currentStatus")));
+        }
+        if (parameters.get("startDate") != null) {
+            filter.setStartDate(LocalDateTime.parse(parameters.get("startDate")));
+        }
+        if (parameters.get("endDate") != null) {
+            filter.setEndDate(LocalDateTime.parse(parameters.get("endDate")));
+        }
+        return filter;
+    }
+}
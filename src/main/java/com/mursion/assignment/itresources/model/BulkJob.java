@@ -0,0 +1,143 @@
+package com.mursion.assignment.itresources.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mursion.assignment.itresources.model.id.UuidV7;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Entity representing a long-running bulk operation and its progress.
+ */
+@Data
+@Entity
+@Table(name = "bulk_job", schema = "resources")
+public class BulkJob {
+
+    /**
+     * Unique identifier for the job.
+     */
+    @Id
+    @UuidV7
+    private UUID id;
+
+    /**
+     * ID of the tenant (business unit) the job belongs to; set from the current tenant when it is created.
+     */
+    @JsonIgnore
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
+    /**
+     * Type of the job, which selects the handler that runs it.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobType type;
+
+    /**
+     * Status of the job (e.g., PENDING, RUNNING).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status;
+
+    /**
+     * Handler-specific parameters of the job.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private Map<String, String> parameters = new HashMap<>();
+
+    /**
+     * Key of the last item committed, from which a restarted job resumes.
+     */
+    @Column
+    private String checkpoint;
+
+    /**
+     * Number of items processed so far.
+     */
+    @Column(name = "processed_count", nullable = false)
+    private long processedCount;
+
+    /**
+     * Number of items the job is expected to process, estimated when it starts.
+     */
+    @Column(name = "total_count")
+    private Long totalCount;
+
+    /**
+     * Error message of a failed job.
+     */
+    @Column
+    private String error;
+
+    /**
+     * Node currently running the job.
+     */
+    @Column(name = "lease_owner")
+    private String leaseOwner;
+
+    /**
+     * Time after which another node may take over the job.
+     */
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    /**
+     * Timestamp of when the job was created.
+     */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Timestamp of when the job was last updated.
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Timestamp of when the job completed or failed.
+     */
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    /**
+     * Sets the creation and update timestamps before persisting.
+     */
+    @PrePersist
+    protected void onCreate() {
+        createdAt = updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Sets the update timestamp before updating.
+     */
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Enum representing the types of bulk jobs.
+     */
+    public enum JobType {
+        OFFBOARD_USER, RESOURCE_STATUS
+    }
+
+    /**
+     * Enum representing the status of a bulk job.
+     */
+    public enum JobStatus {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
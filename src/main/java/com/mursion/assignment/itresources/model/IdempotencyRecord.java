@@ -0,0 +1,80 @@
+package com.mursion.assignment.itresources.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a request sent with an idempotency key, and its first response once it completed.
+ */
+@Data
+@Entity
+@Table(name = "idempotency_key", schema = "resources")
+public class IdempotencyRecord {
+
+    /**
+     * The idempotency key chosen by the client, unique within its tenant.
+     */
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    /**
+     * ID of the tenant (business unit) the key belongs to; keys of different tenants never collide.
+     */
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
+    /**
+     * Hash of the method, path and body of the request, so a key reused for a different request is detected.
+     */
+    @Column(name = "request_fingerprint", nullable = false)
+    private String requestFingerprint;
+
+    /**
+     * Status of the request (e.g., IN_PROGRESS, COMPLETED).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    /**
+     * HTTP status of the first response.
+     */
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    /**
+     * Content type of the first response.
+     */
+    @Column(name = "response_type")
+    private String responseType;
+
+    /**
+     * Body of the first response.
+     */
+    @Column(name = "response_body")
+    private byte[] responseBody;
+
+    /**
+     * Timestamp of when the key was first used.
+     */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Time after which the key is forgotten; for a request in progress, after which another attempt may take over.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * Enum representing the status of a request sent with an idempotency key.
+     */
+    public enum Status {
+        IN_PROGRESS, COMPLETED
+    }
+}
@@ -1,27 +1,52 @@
 package com.mursion.assignment.itresources.model;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mursion.assignment.itresources.model.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 /**
  * Entity representing an IT resource.
+ * Cached in the second-level cache, as resources are read far more often than they change.
+ * Updates only write the changed columns.
  */
 @Data
 @Entity
-@Table(name = "it_resource", schema = "resources")
+@Table(name = "it_resource", schema = "resources",
+        uniqueConstraints = @UniqueConstraint(name = "uk_it_resource_serial_number", columnNames = {"tenant_id", "serial_number"}))
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ItResource.CACHE_REGION)
 public class ItResource {
 
+    /**
+     * Second-level cache region holding IT resources.
+     */
+    public static final String CACHE_REGION = "it-resource";
+
     /**
      * Unique identifier for the IT resource.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     private UUID id;
 
+    /**
+     * ID of the tenant (business unit) the IT resource belongs to; set from the current tenant when it is created.
+     */
+    @JsonIgnore
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
     /**
      * Name of the IT resource.
      */
@@ -43,9 +68,9 @@ public class ItResource {
     private ResourceStatus status;
 
     /**
-     * Serial number of the IT resource.
+     * Serial number of the IT resource, unique within its tenant.
      */
-    @Column(name = "serial_number", unique = true)
+    @Column(name = "serial_number")
     private String serialNumber;
 
     /**
@@ -54,6 +79,18 @@ public class ItResource {
     @Column(name = "inventory_location")
     private String inventoryLocation;
 
+    /**
+     * ID of the user the IT resource is reserved for, while it is reserved.
+     */
+    @Column(name = "reserved_for")
+    private UUID reservedFor;
+
+    /**
+     * Timestamp at which the reservation of the IT resource expires, while it is reserved.
+     */
+    @Column(name = "reservation_expires_at")
+    private LocalDateTime reservationExpiresAt;
+
     /**
      * Timestamp of when the IT resource was created.
      */
@@ -93,6 +130,6 @@ public class ItResource {
      * Enum representing the status of IT resource.
      */
     public enum ResourceStatus {
-        ASSIGNED, NOT_ASSIGNED, DEPRECATED
+        ASSIGNED, NOT_ASSIGNED, RESERVED, DEPRECATED
     }
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.mursion.assignment.itresources.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mursion.assignment.itresources.model.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -9,19 +13,29 @@ import java.util.UUID;
 
 /**
  * Entity representing an assignment of an IT resource to a user.
+ * Updates only write the changed columns.
  */
 @Data
 @Entity
 @Table(name = "it_resource_assign", schema = "resources")
+@DynamicUpdate
 public class ItResourceAssign {
 
     /**
      * Unique identifier for the assignment.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     private UUID id;
 
+    /**
+     * ID of the tenant (business unit) the assignment belongs to; set from the current tenant when it is created.
+     */
+    @JsonIgnore
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
     /**
      * The IT resource being assigned.
      */
@@ -48,6 +62,12 @@ public class ItResourceAssign {
     @Column(name = "assigned_date", nullable = false)
     private LocalDate assignedDate;
 
+    /**
+     * Date by which the resource is due back, derived from the loan policy of its type.
+     */
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
     /**
      * Date when the resource was returned (if applicable).
      */
@@ -0,0 +1,79 @@
+package com.mursion.assignment.itresources.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.TenantId;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Read-only rollup of how much of the time the resources of one type and tenant were assigned in one month.
+ * Backed by a view over the closed months and the periodically refreshed open months.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "monthly_utilization", schema = "resources")
+@IdClass(MonthlyUtilization.Key.class)
+public class MonthlyUtilization {
+
+    /**
+     * First day of the month.
+     */
+    @Id
+    private LocalDate month;
+
+    /**
+     * Type of the resources.
+     */
+    @Id
+    @Enumerated(EnumType.STRING)
+    private ItResource.ResourceType type;
+
+    /**
+     * ID of the tenant (business unit) the resources belong to. Part of the key, since every tenant has a row for
+     * the same month and type.
+     */
+    @JsonIgnore
+    @Id
+    @TenantId
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    /**
+     * Sum of the days the resources were assigned within the month.
+     */
+    @Column(name = "days_assigned", nullable = false)
+    private long daysAssigned;
+
+    /**
+     * Sum of the days the resources were owned within the month; the running month counts up to today.
+     */
+    @Column(name = "days_owned", nullable = false)
+    private long daysOwned;
+
+    /**
+     * Share of the owned days the resources were assigned.
+     *
+     * @return The utilization between 0 and 1.
+     */
+    public double getUtilization() {
+        return daysOwned == 0 ? 0 : (double) daysAssigned / daysOwned;
+    }
+
+    /**
+     * Composite key of a rollup row.
+     */
+    @Data
+    public static class Key implements Serializable {
+
+        private LocalDate month;
+
+        private ItResource.ResourceType type;
+
+        private String tenantId;
+    }
+}
@@ -0,0 +1,52 @@
+package com.mursion.assignment.itresources.model.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hibernate generator for time-ordered UUIDv7 identifiers.
+ * <p>
+ * The 48 most significant bits hold the Unix epoch in milliseconds, followed by a 12-bit counter that keeps ids
+ * generated within the same millisecond monotonic, so new rows are always appended to the right-hand side of the
+ * primary-key B-tree. Values remain ordinary {@code uuid}s and mix freely with existing version 4 ids.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Milliseconds since the epoch shifted left by 12 bits, plus the sub-millisecond counter.
+     */
+    private static final AtomicLong LAST_TIMESTAMP_AND_COUNTER = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return generateUuid();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * Generates a new UUIDv7 that is strictly greater than every value previously generated by this JVM.
+     *
+     * @return A new UUIDv7.
+     */
+    public static UUID generateUuid() {
+        long now = System.currentTimeMillis() << 12;
+        long timestampAndCounter = LAST_TIMESTAMP_AND_COUNTER.updateAndGet(last -> Math.max(now, last + 1));
+
+        long mostSigBits = ((timestampAndCounter >>> 12) << 16) | 0x7000L | (timestampAndCounter & 0xFFFL);
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,103 @@
+package com.mursion.assignment.itresources.repository;
+
+import com.mursion.assignment.itresources.model.BulkJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for managing `BulkJob` entities.
+ */
+@Repository
+public interface BulkJobRepository extends JpaRepository<BulkJob, UUID> {
+
+    /**
+     * Claims the oldest unfinished job whose lease is free or expired, and leases it to the given node.
+     * Concurrent claimers skip each other's locked rows instead of waiting.
+     *
+     * @param owner        The node claiming the job.
+     * @param leaseSeconds The lease duration in seconds.
+     * @return The ID of the claimed job, if any.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE resources.bulk_job
+            SET status = 'RUNNING',
+                lease_owner = :owner,
+                lease_expires_at = now() + make_interval(secs => :leaseSeconds),
+                updated_at = now()
+            WHERE id = (SELECT id
+                        FROM resources.bulk_job
+                        WHERE status IN ('PENDING', 'RUNNING')
+                          AND (lease_expires_at IS NULL OR lease_expires_at < now())
+                        ORDER BY created_at
+                        LIMIT 1 FOR UPDATE SKIP LOCKED)
+            RETURNING id
+            """, nativeQuery = true)
+    Optional<UUID> claimNext(@Param("owner") String owner, @Param("leaseSeconds") long leaseSeconds);
+
+    /**
+     * Records a committed chunk and extends the lease, provided the node still holds it.
+     * Runs in the caller's transaction, so the chunk and its checkpoint commit together.
+     *
+     * @param id           The ID of the job.
+     * @param owner        The node running the job.
+     * @param checkpoint   The key of the last processed item.
+     * @param processed    The number of items processed in the chunk.
+     * @param leaseSeconds The lease duration in seconds.
+     * @return 1 if the job was updated, 0 if the lease was lost.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE resources.bulk_job
+            SET checkpoint = :checkpoint,
+                processed_count = processed_count + :processed,
+                lease_expires_at = now() + make_interval(secs => :leaseSeconds),
+                updated_at = now()
+            WHERE id = :id AND lease_owner = :owner AND status = 'RUNNING'
+            """, nativeQuery = true)
+    int advance(@Param("id") UUID id, @Param("owner") String owner, @Param("checkpoint") String checkpoint,
+                @Param("processed") long processed, @Param("leaseSeconds") long leaseSeconds);
+
+    /**
+     * Sets the estimated total of a job the node holds.
+     *
+     * @param id         The ID of the job.
+     * @param owner      The node running the job.
+     * @param totalCount The estimated number of items.
+     * @return 1 if the job was updated, 0 if the lease was lost.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE resources.bulk_job SET total_count = :totalCount, updated_at = now()
+            WHERE id = :id AND lease_owner = :owner AND status = 'RUNNING'
+            """, nativeQuery = true)
+    int startWithTotal(@Param("id") UUID id, @Param("owner") String owner, @Param("totalCount") long totalCount);
+
+    /**
+     * Moves a job the node holds to a final status and releases its lease.
+     *
+     * @param id     The ID of the job.
+     * @param owner  The node running the job.
+     * @param status The final status, COMPLETED or FAILED.
+     * @param error  The error message of a failed job.
+     * @return 1 if the job was updated, 0 if the lease was lost.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE resources.bulk_job
+            SET status = :status, error = :error, lease_owner = NULL, lease_expires_at = NULL,
+                completed_at = now(), updated_at = now()
+            WHERE id = :id AND lease_owner = :owner AND status = 'RUNNING'
+            """, nativeQuery = true)
+    int finish(@Param("id") UUID id, @Param("owner") String owner, @Param("status") String status,
+               @Param("error") String error);
+}
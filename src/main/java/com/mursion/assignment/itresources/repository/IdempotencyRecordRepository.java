@@ -0,0 +1,120 @@
+package com.mursion.assignment.itresources.repository;
+
+import com.mursion.assignment.itresources.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing `IdempotencyRecord` entities.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Finds the record of an idempotency key of the current tenant that has not expired yet.
+     *
+     * @param key The idempotency key.
+     * @param now The current time.
+     * @return The record, if the key is known and not expired.
+     */
+    @Query("SELECT r FROM IdempotencyRecord r WHERE r.key = :key AND r.expiresAt > :now")
+    Optional<IdempotencyRecord> findUnexpired(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    /**
+     * Claims an idempotency key for a request about to run. An expired record of the key is taken over; a live one
+     * is left alone.
+     *
+     * @param tenantId    The ID of the tenant.
+     * @param key         The idempotency key.
+     * @param fingerprint The fingerprint of the request.
+     * @param now         The current time.
+     * @param expiresAt   The time after which another attempt may take over the claim.
+     * @return 1 if the key was claimed, 0 if it is in use.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO resources.idempotency_key (tenant_id, idempotency_key, request_fingerprint, status, created_at,
+                                                   expires_at)
+            VALUES (:tenantId, :key, :fingerprint, 'IN_PROGRESS', :now, :expiresAt)
+            ON CONFLICT (tenant_id, idempotency_key) DO UPDATE
+                SET request_fingerprint = EXCLUDED.request_fingerprint,
+                    status              = 'IN_PROGRESS',
+                    response_status     = NULL,
+                    response_type       = NULL,
+                    response_body       = NULL,
+                    created_at          = EXCLUDED.created_at,
+                    expires_at          = EXCLUDED.expires_at
+                WHERE resources.idempotency_key.expires_at <= :now
+            """, nativeQuery = true)
+    int claim(@Param("tenantId") String tenantId, @Param("key") String key, @Param("fingerprint") String fingerprint,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Stores the response of a claimed request.
+     *
+     * @param tenantId       The ID of the tenant.
+     * @param key            The idempotency key.
+     * @param responseStatus The HTTP status of the response.
+     * @param responseType   The content type of the response.
+     * @param responseBody   The body of the response.
+     * @param expiresAt      The time after which the key is forgotten.
+     * @return The number of updated records.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE resources.idempotency_key
+            SET status          = 'COMPLETED',
+                response_status = :responseStatus,
+                response_type   = :responseType,
+                response_body   = :responseBody,
+                expires_at      = :expiresAt
+            WHERE tenant_id = :tenantId AND idempotency_key = :key AND status = 'IN_PROGRESS'
+            """, nativeQuery = true)
+    int complete(@Param("tenantId") String tenantId, @Param("key") String key, @Param("responseStatus") int responseStatus,
+                 @Param("responseType") String responseType, @Param("responseBody") byte[] responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Gives up the claim of a request that did not produce a response worth replaying, so a retry runs it again.
+     *
+     * @param tenantId The ID of the tenant.
+     * @param key      The idempotency key.
+     * @return The number of deleted records.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM resources.idempotency_key
+            WHERE tenant_id = :tenantId AND idempotency_key = :key AND status = 'IN_PROGRESS'
+            """, nativeQuery = true)
+    int release(@Param("tenantId") String tenantId, @Param("key") String key);
+
+    /**
+     * Deletes one batch of expired records of all tenants, oldest first.
+     *
+     * @param now       The current time.
+     * @param batchSize The maximum number of records to delete.
+     * @return The number of deleted records.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM resources.idempotency_key
+            WHERE (tenant_id, idempotency_key) IN (SELECT tenant_id, idempotency_key
+                                                   FROM resources.idempotency_key
+                                                   WHERE expires_at <= :now
+                                                   ORDER BY expires_at
+                                                   LIMIT :batchSize
+                                                   FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
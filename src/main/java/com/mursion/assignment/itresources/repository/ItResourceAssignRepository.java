@@ -1,9 +1,19 @@
 package com.mursion.assignment.itresources.repository;
 
+import com.mursion.assignment.itresources.dto.it_resource_assign.CurrentHoldingView;
 import com.mursion.assignment.itresources.model.ItResourceAssign;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -37,4 +47,275 @@ public interface ItResourceAssignRepository extends JpaRepository<ItResourceAssi
      * @return A list of assignments for the resource and user.
      */
     List<ItResourceAssign> findByResourceIdAndUserId(UUID resourceId, UUID userId);
-}
\ No newline at end of file
+
+    /**
+     * Finds all assignments for the given resource ID and/or user ID, including the ones that were moved to the
+     * archive table. A {@code null} argument does not restrict the result.
+     *
+     * @param tenantId   The ID of the tenant.
+     * @param resourceId The ID of the resource (optional).
+     * @param userId     The ID of the user (optional).
+     * @return A list of live and archived assignments.
+     */
+    @Query(value = """
+            SELECT tenant_id, id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+            FROM resources.it_resource_assign
+            WHERE tenant_id = :tenantId
+              AND (CAST(:resourceId AS uuid) IS NULL OR resource_id = CAST(:resourceId AS uuid))
+              AND (CAST(:userId AS uuid) IS NULL OR user_id = CAST(:userId AS uuid))
+            UNION ALL
+            SELECT tenant_id, id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+            FROM resources.it_resource_assign_archive
+            WHERE tenant_id = :tenantId
+              AND (CAST(:resourceId AS uuid) IS NULL OR resource_id = CAST(:resourceId AS uuid))
+              AND (CAST(:userId AS uuid) IS NULL OR user_id = CAST(:userId AS uuid))
+            """, nativeQuery = true)
+    List<ItResourceAssign> findIncludingArchived(@Param("tenantId") String tenantId, @Param("resourceId") UUID resourceId,
+                                                 @Param("userId") UUID userId);
+
+    /**
+     * Finds the assignments of the resource with the given serial number that were running on the given date,
+     * including archived ones. A resource is returned on its return date, so that day belongs to the next holder.
+     *
+     * @param tenantId     The ID of the tenant.
+     * @param serialNumber The serial number of the resource.
+     * @param date         The date.
+     * @return The assignments running on the date; at most one outside the archive.
+     */
+    @Query(value = """
+            SELECT a.tenant_id, a.id, a.resource_id, a.user_id, a.status, a.assigned_date, a.due_date, a.return_date, a.created_at, a.updated_at
+            FROM resources.it_resource_assign a
+                     JOIN resources.it_resource r ON r.id = a.resource_id AND r.tenant_id = a.tenant_id
+            WHERE a.tenant_id = :tenantId
+              AND r.serial_number = :serialNumber
+              AND a.assigned_period @> CAST(:date AS date)
+            UNION ALL
+            SELECT a.tenant_id, a.id, a.resource_id, a.user_id, a.status, a.assigned_date, a.due_date, a.return_date, a.created_at, a.updated_at
+            FROM resources.it_resource_assign_archive a
+                     JOIN resources.it_resource r ON r.id = a.resource_id AND r.tenant_id = a.tenant_id
+            WHERE a.tenant_id = :tenantId
+              AND r.serial_number = :serialNumber
+              AND a.assigned_period @> CAST(:date AS date)
+            """, nativeQuery = true)
+    List<ItResourceAssign> findRunningOnBySerialNumber(@Param("tenantId") String tenantId,
+                                                       @Param("serialNumber") String serialNumber,
+                                                       @Param("date") LocalDate date);
+
+    /**
+     * Finds a user's assignments that were running at any time within the given date range (inclusive), including
+     * archived ones, in the order they were handed out.
+     *
+     * @param tenantId The ID of the tenant.
+     * @param userId   The ID of the user.
+     * @param from     The first date of the range.
+     * @param to       The last date of the range.
+     * @return The overlapping assignments.
+     */
+    @Query(value = """
+            SELECT tenant_id, id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+            FROM resources.it_resource_assign
+            WHERE tenant_id = :tenantId
+              AND user_id = :userId
+              AND assigned_period && daterange(CAST(:from AS date), CAST(:to AS date), '[]')
+            UNION ALL
+            SELECT tenant_id, id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+            FROM resources.it_resource_assign_archive
+            WHERE tenant_id = :tenantId
+              AND user_id = :userId
+              AND assigned_period && daterange(CAST(:from AS date), CAST(:to AS date), '[]')
+            ORDER BY assigned_date, id
+            """, nativeQuery = true)
+    List<ItResourceAssign> findOverlappingByUserId(@Param("tenantId") String tenantId, @Param("userId") UUID userId,
+                                                   @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Finds a resource's assignments that were running at any time within the given date range (inclusive),
+     * including archived ones, in the order they were handed out.
+     *
+     * @param tenantId   The ID of the tenant.
+     * @param resourceId The ID of the resource.
+     * @param from       The first date of the range.
+     * @param to         The last date of the range.
+     * @return The overlapping assignments.
+     */
+    @Query(value = """
+            SELECT tenant_id, id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+            FROM resources.it_resource_assign
+            WHERE tenant_id = :tenantId
+              AND resource_id = :resourceId
+              AND assigned_period && daterange(CAST(:from AS date), CAST(:to AS date), '[]')
+            UNION ALL
+            SELECT tenant_id, id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+            FROM resources.it_resource_assign_archive
+            WHERE tenant_id = :tenantId
+              AND resource_id = :resourceId
+              AND assigned_period && daterange(CAST(:from AS date), CAST(:to AS date), '[]')
+            ORDER BY assigned_date, id
+            """, nativeQuery = true)
+    List<ItResourceAssign> findOverlappingByResourceId(@Param("tenantId") String tenantId,
+                                                       @Param("resourceId") UUID resourceId,
+                                                       @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Moves one chunk of returned assignments of all tenants whose return date is before the cutoff into the archive
+     * table.
+     * Rows locked by concurrent transactions are skipped, so a chunk never waits on the hot paths.
+     *
+     * @param cutoff    Assignments returned before this date are archived.
+     * @param batchSize Maximum number of assignments to move.
+     * @return The number of assignments moved.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM resources.it_resource_assign
+                WHERE id IN (SELECT id
+                             FROM resources.it_resource_assign
+                             WHERE status = 'RETURNED'
+                               AND return_date < :cutoff
+                             ORDER BY return_date
+                             LIMIT :batchSize
+                             FOR UPDATE SKIP LOCKED)
+                RETURNING tenant_id, id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at)
+            INSERT INTO resources.it_resource_assign_archive
+                (tenant_id, id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at)
+            SELECT tenant_id, id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+            FROM moved
+            """, nativeQuery = true)
+    int archiveReturnedBefore(@Param("cutoff") LocalDate cutoff, @Param("batchSize") int batchSize);
+
+    /**
+     * Finds all open assignments whose due date is before the given date, ordered by due date.
+     * Served by the partial index on open assignments, so returned history is never read.
+     *
+     * @param tenantId The ID of the tenant.
+     * @param asOf     Assignments due before this date are overdue.
+     * @param pageable The page to return.
+     * @return A page of overdue assignments.
+     */
+    @Query(value = """
+            SELECT * FROM resources.it_resource_assign
+            WHERE tenant_id = :tenantId AND status = 'NOT_RETURNED' AND due_date < :asOf
+            ORDER BY due_date, id
+            """,
+            countQuery = """
+                    SELECT count(*) FROM resources.it_resource_assign
+                    WHERE tenant_id = :tenantId AND status = 'NOT_RETURNED' AND due_date < :asOf
+                    """,
+            nativeQuery = true)
+    Page<ItResourceAssign> findOverdue(@Param("tenantId") String tenantId, @Param("asOf") LocalDate asOf, Pageable pageable);
+
+    /**
+     * Finds all open assignments due within the given date range (inclusive), ordered by due date.
+     *
+     * @param tenantId The ID of the tenant.
+     * @param from     The first due date.
+     * @param to       The last due date.
+     * @param pageable The page to return.
+     * @return A page of open assignments.
+     */
+    @Query(value = """
+            SELECT * FROM resources.it_resource_assign
+            WHERE tenant_id = :tenantId AND status = 'NOT_RETURNED' AND due_date BETWEEN :from AND :to
+            ORDER BY due_date, id
+            """,
+            countQuery = """
+                    SELECT count(*) FROM resources.it_resource_assign
+                    WHERE tenant_id = :tenantId AND status = 'NOT_RETURNED' AND due_date BETWEEN :from AND :to
+                    """,
+            nativeQuery = true)
+    Page<ItResourceAssign> findOpenDueBetween(@Param("tenantId") String tenantId, @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to, Pageable pageable);
+
+    /**
+     * Finds all assignments handed out within the given date range (inclusive).
+     *
+     * @param from     The first assigned date.
+     * @param to       The last assigned date.
+     * @param pageable The page to return.
+     * @return A page of assignments.
+     */
+    Page<ItResourceAssign> findByAssignedDateBetween(LocalDate from, LocalDate to, Pageable pageable);
+
+    /**
+     * Finds the resources a user currently holds, newest first.
+     * The assignment side is answered by an index-only scan of the covering index on open assignments,
+     * joined once to the resource by primary key.
+     *
+     * @param tenantId The ID of the tenant.
+     * @param userId   The ID of the user.
+     * @return The resources the user holds.
+     */
+    @Query(value = """
+            SELECT a.resource_id   AS resourceId,
+                   r.name          AS name,
+                   r.type          AS type,
+                   r.serial_number AS serialNumber,
+                   a.assigned_date AS assignedDate
+            FROM resources.it_resource_assign a
+                     JOIN resources.it_resource r ON r.id = a.resource_id AND r.tenant_id = a.tenant_id
+            WHERE a.tenant_id = :tenantId
+              AND a.user_id = :userId
+              AND a.status = 'NOT_RETURNED'
+            ORDER BY a.assigned_date DESC
+            """, nativeQuery = true)
+    List<CurrentHoldingView> findCurrentHoldings(@Param("tenantId") String tenantId, @Param("userId") UUID userId);
+
+    /**
+     * Finds a chunk of a user's open assignment IDs in ID order, starting after the given ID.
+     *
+     * @param tenantId The ID of the tenant.
+     * @param userId   The ID of the user.
+     * @param after    The ID after which to start, exclusive.
+     * @param limit    The maximum number of IDs.
+     * @return The IDs of the open assignments.
+     */
+    @Query(value = """
+            SELECT id FROM resources.it_resource_assign
+            WHERE tenant_id = :tenantId AND user_id = :userId AND status = 'NOT_RETURNED' AND id > :after
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> findOpenIdsByUserIdAfter(@Param("tenantId") String tenantId, @Param("userId") UUID userId,
+                                        @Param("after") UUID after, @Param("limit") int limit);
+
+    /**
+     * Finds the IDs of the resources referenced by the given assignments.
+     *
+     * @param ids The IDs of the assignments.
+     * @return The IDs of the resources.
+     */
+    @Query("SELECT a.resource.id FROM ItResourceAssign a WHERE a.id IN :ids")
+    List<UUID> findResourceIdsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Counts a user's assignments with the given status.
+     *
+     * @param userId The ID of the user.
+     * @param status The assignment status.
+     * @return The number of matching assignments.
+     */
+    long countByUserIdAndStatus(UUID userId, ItResourceAssign.AssignStatus status);
+
+    /**
+     * Marks the given assignments as returned in one statement, skipping any that are already returned.
+     *
+     * @param ids        The IDs of the assignments.
+     * @param returnDate The return date.
+     * @param now        The update timestamp.
+     * @param returned   The returned status.
+     * @param open       The open status.
+     * @return The number of updated assignments.
+     */
+    @Modifying
+    @Query("""
+            UPDATE ItResourceAssign a
+            SET a.status = :returned, a.returnDate = :returnDate, a.updatedAt = :now
+            WHERE a.id IN :ids AND a.status = :open
+            """)
+    int markReturned(@Param("ids") Collection<UUID> ids, @Param("returnDate") LocalDate returnDate,
+                     @Param("now") LocalDateTime now,
+                     @Param("returned") ItResourceAssign.AssignStatus returned,
+                     @Param("open") ItResourceAssign.AssignStatus open);
+}
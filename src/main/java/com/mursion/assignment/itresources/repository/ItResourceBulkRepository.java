@@ -0,0 +1,24 @@
+package com.mursion.assignment.itresources.repository;
+
+import com.mursion.assignment.itresources.model.ItResource;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository fragment for set-based operations on `ItResource` entities that select IDs only.
+ */
+public interface ItResourceBulkRepository {
+
+    /**
+     * Finds a chunk of IDs of resources matching the specification in ID order, starting after the given ID.
+     * No entities are loaded.
+     *
+     * @param spec  The specification to use for filtering.
+     * @param after The ID after which to start, exclusive, or null to start at the beginning.
+     * @param limit The maximum number of IDs.
+     * @return The IDs of the matching resources.
+     */
+    List<UUID> findIdsAfter(Specification<ItResource> spec, UUID after, int limit);
+}
@@ -0,0 +1,44 @@
+package com.mursion.assignment.itresources.repository;
+
+import com.mursion.assignment.itresources.model.ItResource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria-based implementation of {@link ItResourceBulkRepository}.
+ */
+class ItResourceBulkRepositoryImpl implements ItResourceBulkRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UUID> findIdsAfter(Specification<ItResource> spec, UUID after, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = criteriaBuilder.createQuery(UUID.class);
+        Root<ItResource> root = query.from(ItResource.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate matching = spec.toPredicate(root, query, criteriaBuilder);
+        if (matching != null) {
+            predicates.add(matching);
+        }
+        if (after != null) {
+            predicates.add(criteriaBuilder.greaterThan(root.get("id"), after));
+        }
+
+        query.select(root.get("id"))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
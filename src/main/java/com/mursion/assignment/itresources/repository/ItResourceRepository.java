@@ -1,19 +1,35 @@
 package com.mursion.assignment.itresources.repository;
 
 import com.mursion.assignment.itresources.model.ItResource;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Repository interface for managing `ItResource` entities.
  */
 @Repository
-public interface ItResourceRepository extends JpaRepository<ItResource, UUID> {
+public interface ItResourceRepository extends JpaRepository<ItResource, UUID>, JpaSpecificationExecutor<ItResource>,
+        ItResourceBulkRepository {
+
+    /**
+     * Query cache region holding the results of the type lookups.
+     */
+    String TYPE_QUERY_CACHE_REGION = "it-resource-type-queries";
 
     /**
      * Finds all resources with a name containing the given string (case-insensitive).
@@ -25,19 +41,29 @@ public interface ItResourceRepository extends JpaRepository<ItResource, UUID> {
 
     /**
      * Finds all resources with the given type.
+     * Results are kept in the query cache and invalidated by any write to the resource table.
      *
      * @param type The type to search for.
      * @return A list of resources with matching types.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = TYPE_QUERY_CACHE_REGION)
+    })
     List<ItResource> findByType(String type);
 
     /**
      * Finds all resources with a name containing the given string (case-insensitive) and the given type.
+     * Results are kept in the query cache and invalidated by any write to the resource table.
      *
      * @param name The name to search for.
      * @param type The type to search for.
      * @return A list of resources with matching names and types.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = TYPE_QUERY_CACHE_REGION)
+    })
     List<ItResource> findByNameContainingIgnoreCaseAndType(String name, String type);
 
     /**
@@ -48,4 +74,187 @@ public interface ItResourceRepository extends JpaRepository<ItResource, UUID> {
      * @return A list of resources matching the specification and sorted.
      */
     List<ItResource> findAll(Specification<ItResource> spec, Sort sort);
-}
\ No newline at end of file
+
+    /**
+     * Sets the status of the resources referenced by the given assignments in one statement.
+     * Being a JPQL bulk update, it also invalidates the cached resources and resource queries.
+     *
+     * @param assignmentIds The IDs of the assignments.
+     * @param status        The new status.
+     * @param now           The update timestamp.
+     * @return The number of updated resources.
+     */
+    @Modifying
+    @Query("""
+            UPDATE ItResource r SET r.status = :status, r.updatedAt = :now
+            WHERE r.id IN (SELECT a.resource.id FROM ItResourceAssign a WHERE a.id IN :assignmentIds)
+            """)
+    int updateStatusOfAssignedResources(@Param("assignmentIds") Collection<UUID> assignmentIds,
+                                        @Param("status") ItResource.ResourceStatus status,
+                                        @Param("now") LocalDateTime now);
+
+    /**
+     * Locks the resources among the given ones of the given tenant that a transition to the given status would
+     * change: those that are neither assigned, reserved nor already in the status. A status update in the same
+     * transaction then changes exactly these resources.
+     *
+     * @param tenantId The ID of the tenant.
+     * @param ids      The IDs of the resources.
+     * @param status   The new status.
+     * @return The IDs of the locked resources.
+     */
+    @Query(value = """
+            SELECT id FROM resources.it_resource
+            WHERE tenant_id = :tenantId
+              AND id IN (:ids)
+              AND status NOT IN ('ASSIGNED', 'RESERVED')
+              AND status <> :status
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<UUID> lockTransitionCandidates(@Param("tenantId") String tenantId, @Param("ids") Collection<UUID> ids,
+                                        @Param("status") String status);
+
+    /**
+     * Sets the status of the given resources in one statement, skipping assigned and reserved resources and
+     * resources that already have the status.
+     * Being a JPQL bulk update, it also invalidates the cached resources and resource queries.
+     *
+     * @param ids      The IDs of the resources.
+     * @param status   The new status.
+     * @param assigned The assigned status, which is never changed.
+     * @param reserved The reserved status, which is never changed; reservations end through their expiry or release.
+     * @param now      The update timestamp.
+     * @return The number of updated resources.
+     */
+    @Modifying
+    @Query("""
+            UPDATE ItResource r SET r.status = :status, r.updatedAt = :now
+            WHERE r.id IN :ids AND r.status <> :assigned AND r.status <> :reserved AND r.status <> :status
+            """)
+    int updateStatusUnlessHeld(@Param("ids") Collection<UUID> ids, @Param("status") ItResource.ResourceStatus status,
+                               @Param("assigned") ItResource.ResourceStatus assigned,
+                               @Param("reserved") ItResource.ResourceStatus reserved, @Param("now") LocalDateTime now);
+
+    /**
+     * Locks the next available resource of the given tenant and type, skipping resources other transactions have
+     * locked, so concurrent callers each get a different resource without waiting on each other. The lock is held
+     * until the surrounding transaction ends.
+     *
+     * @param tenantId The ID of the tenant.
+     * @param type     The resource type.
+     * @param location The inventory location (optional).
+     * @return The locked resource, or empty if none is available.
+     */
+    @Query(value = """
+            SELECT * FROM resources.it_resource
+            WHERE tenant_id = :tenantId
+              AND status = 'NOT_ASSIGNED'
+              AND type = :type
+              AND (CAST(:location AS varchar) IS NULL OR inventory_location = CAST(:location AS varchar))
+            ORDER BY id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<ItResource> lockNextAvailable(@Param("tenantId") String tenantId, @Param("type") String type,
+                                           @Param("location") String location);
+
+    /**
+     * Reserves an available resource for a user until the given time.
+     *
+     * @param id        The ID of the resource.
+     * @param userId    The ID of the user.
+     * @param expiresAt The time the reservation expires.
+     * @param now       The update timestamp.
+     * @param reserved  The reserved status.
+     * @param available The status a resource must have to be reserved.
+     * @return 1 if the resource was reserved, 0 if it does not exist or is not available.
+     */
+    @Modifying
+    @Query("""
+            UPDATE ItResource r
+            SET r.status = :reserved, r.reservedFor = :userId, r.reservationExpiresAt = :expiresAt, r.updatedAt = :now
+            WHERE r.id = :id AND r.status = :available
+            """)
+    int reserve(@Param("id") UUID id, @Param("userId") UUID userId, @Param("expiresAt") LocalDateTime expiresAt,
+                @Param("now") LocalDateTime now, @Param("reserved") ItResource.ResourceStatus reserved,
+                @Param("available") ItResource.ResourceStatus available);
+
+    /**
+     * Releases a reservation before it expires.
+     *
+     * @param id        The ID of the resource.
+     * @param available The status the resource returns to.
+     * @param reserved  The reserved status.
+     * @param now       The update timestamp.
+     * @return 1 if the reservation was released, 0 if the resource is not reserved.
+     */
+    @Modifying
+    @Query("""
+            UPDATE ItResource r
+            SET r.status = :available, r.reservedFor = NULL, r.reservationExpiresAt = NULL, r.updatedAt = :now
+            WHERE r.id = :id AND r.status = :reserved
+            """)
+    int cancelReservation(@Param("id") UUID id, @Param("available") ItResource.ResourceStatus available,
+                          @Param("reserved") ItResource.ResourceStatus reserved, @Param("now") LocalDateTime now);
+
+    /**
+     * Locks the resources among the given ones whose reservation has expired, so that a release in the same
+     * transaction changes exactly these resources.
+     *
+     * @param ids The IDs of the resources.
+     * @param now The current time; reservations expiring later are skipped.
+     * @return The IDs of the locked resources.
+     */
+    @Query(value = """
+            SELECT id FROM resources.it_resource
+            WHERE id IN (:ids) AND status = 'RESERVED' AND reservation_expires_at <= :now
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<UUID> lockExpiredReservations(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Releases the expired reservations among the given resources in one statement. Resources that were assigned,
+     * released or reserved again in the meantime are left untouched.
+     *
+     * @param ids       The IDs of the resources.
+     * @param available The status the resources return to.
+     * @param reserved  The reserved status.
+     * @param now       The current time; reservations expiring later are kept.
+     * @return The number of released reservations.
+     */
+    @Modifying
+    @Query("""
+            UPDATE ItResource r
+            SET r.status = :available, r.reservedFor = NULL, r.reservationExpiresAt = NULL, r.updatedAt = :now
+            WHERE r.id IN :ids AND r.status = :reserved AND r.reservationExpiresAt <= :now
+            """)
+    int releaseExpiredReservations(@Param("ids") Collection<UUID> ids, @Param("available") ItResource.ResourceStatus available,
+                                   @Param("reserved") ItResource.ResourceStatus reserved, @Param("now") LocalDateTime now);
+
+    /**
+     * Finds the expiry of every reservation.
+     *
+     * @param reserved The reserved status.
+     * @return The reservation expiries.
+     */
+    @Query("""
+            SELECT new com.mursion.assignment.itresources.repository.ReservationExpiry(r.id, r.reservationExpiresAt)
+            FROM ItResource r WHERE r.status = :reserved
+            """)
+    List<ReservationExpiry> findReservationExpiries(@Param("reserved") ItResource.ResourceStatus reserved);
+
+    /**
+     * Finds a chunk of resources of all tenants whose reservation expired, longest expired first.
+     *
+     * @param now   The current time.
+     * @param limit The maximum number of IDs.
+     * @return The IDs of the resources.
+     */
+    @Query(value = """
+            SELECT id FROM resources.it_resource
+            WHERE status = 'RESERVED' AND reservation_expires_at <= :now
+            ORDER BY reservation_expires_at
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> findExpiredReservationIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
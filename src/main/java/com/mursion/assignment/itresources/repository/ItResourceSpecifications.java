@@ -0,0 +1,55 @@
+package com.mursion.assignment.itresources.repository;
+
+import com.mursion.assignment.itresources.dto.it_resource.ItResourceSearchDto;
+import com.mursion.assignment.itresources.model.ItResource;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Specifications for filtering `ItResource` entities.
+ */
+public final class ItResourceSpecifications {
+
+    private ItResourceSpecifications() {
+    }
+
+    /**
+     * Builds a specification matching the given search criteria. Criteria left null are not applied.
+     *
+     * @param searchDto The search criteria.
+     * @return The specification.
+     */
+    public static Specification<ItResource> matching(ItResourceSearchDto searchDto) {
+        Specification<ItResource> spec = Specification.where(null);
+
+        if (searchDto.getName() != null) {
+            spec = spec.and((root, query, criteriaBuilder) ->
+                    criteriaBuilder.like(root.get("name"), "%" + searchDto.getName() + "%"));
+        }
+        if (searchDto.getType() != null) {
+            spec = spec.and((root, query, criteriaBuilder) ->
+                    criteriaBuilder.equal(root.get("type"), searchDto.getType()));
+        }
+        if (searchDto.getStatus() != null) {
+            spec = spec.and(hasStatus(searchDto.getStatus()));
+        }
+        if (searchDto.getSerialNumber() != null) {
+            spec = spec.and((root, query, criteriaBuilder) ->
+                    criteriaBuilder.like(root.get("serialNumber"), "%" + searchDto.getSerialNumber() + "%"));
+        }
+        if (searchDto.getStartDate() != null && searchDto.getEndDate() != null) {
+            spec = spec.and((root, query, criteriaBuilder) ->
+                    criteriaBuilder.between(root.get("createdAt"), searchDto.getStartDate(), searchDto.getEndDate()));
+        }
+        return spec;
+    }
+
+    /**
+     * Builds a specification matching resources with the given status.
+     *
+     * @param status The status.
+     * @return The specification.
+     */
+    public static Specification<ItResource> hasStatus(ItResource.ResourceStatus status) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("status"), status);
+    }
+}
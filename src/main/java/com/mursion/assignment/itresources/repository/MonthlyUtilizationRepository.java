@@ -0,0 +1,87 @@
+package com.mursion.assignment.itresources.repository;
+
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.model.MonthlyUtilization;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for reading and maintaining the monthly utilization rollups.
+ */
+@Repository
+public interface MonthlyUtilizationRepository extends JpaRepository<MonthlyUtilization, MonthlyUtilization.Key> {
+
+    /**
+     * Finds the rollups of all types for the months within the given range (inclusive).
+     *
+     * @param from The first month.
+     * @param to   The last month.
+     * @return The rollups, by month and type.
+     */
+    List<MonthlyUtilization> findByMonthBetweenOrderByMonthAscTypeAsc(LocalDate from, LocalDate to);
+
+    /**
+     * Finds the rollups of one type for the months within the given range (inclusive).
+     *
+     * @param from The first month.
+     * @param to   The last month.
+     * @param type The resource type.
+     * @return The rollups, by month.
+     */
+    List<MonthlyUtilization> findByMonthBetweenAndTypeOrderByMonthAsc(LocalDate from, LocalDate to, ItResource.ResourceType type);
+
+    /**
+     * Computes and stores the rollups of all tenants for every month after the last closed one, up to and including
+     * the given month. Closed months are never computed again.
+     *
+     * @param lastMonth The first day of the last month to close.
+     * @return The number of stored rollup rows.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO resources.monthly_utilization_closed (tenant_id, month, type, days_assigned, days_owned)
+            SELECT tenant_id, month, type, days_assigned, days_owned
+            FROM resources.compute_monthly_utilization(
+                    coalesce((SELECT (max(month) + INTERVAL '1 month')::date FROM resources.monthly_utilization_closed),
+                             (SELECT date_trunc('month', min(created_at))::date FROM resources.it_resource)),
+                    CAST(:lastMonth AS date))
+            ON CONFLICT (tenant_id, month, type) DO NOTHING
+            """, nativeQuery = true)
+    int closeMonthsThrough(@Param("lastMonth") LocalDate lastMonth);
+
+    /**
+     * Recomputes the open months without blocking readers of the current figures.
+     * Requires the view to have been populated once.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY resources.monthly_utilization_open", nativeQuery = true)
+    void refreshOpenMonths();
+
+    /**
+     * Computes the open months for the first time. Readers are blocked until it completes.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "REFRESH MATERIALIZED VIEW resources.monthly_utilization_open", nativeQuery = true)
+    void populateOpenMonths();
+
+    /**
+     * Checks whether the open months have been computed at least once.
+     *
+     * @return Whether the view of the open months is populated.
+     */
+    @Query(value = """
+            SELECT ispopulated FROM pg_matviews
+            WHERE schemaname = 'resources' AND matviewname = 'monthly_utilization_open'
+            """, nativeQuery = true)
+    boolean isOpenMonthsPopulated();
+}
@@ -0,0 +1,13 @@
+package com.mursion.assignment.itresources.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Expiry of a reservation, read without loading the reserved resource.
+ *
+ * @param id        The ID of the reserved resource.
+ * @param expiresAt The time the reservation expires.
+ */
+public record ReservationExpiry(UUID id, LocalDateTime expiresAt) {
+}
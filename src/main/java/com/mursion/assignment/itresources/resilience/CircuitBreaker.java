@@ -0,0 +1,130 @@
+package com.mursion.assignment.itresources.resilience;
+
+/**
+ * Circuit breaker counting consecutive failures. After too many it opens and rejects every call for a while, then
+ * lets a limited number of probe calls through: one success closes it again, one failure reopens it.
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Permission to make one call, to be handed back with its outcome.
+     */
+    enum Permit {
+        CALL, PROBE
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int probesInFlight;
+    private long openUntilNanos;
+
+    CircuitBreaker(int failureThreshold, long openNanos, int halfOpenProbes) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * Asks for permission to make a call. Once the open period has passed, the breaker turns half-open and hands out
+     * probe permits.
+     *
+     * @param nowNanos The current {@link System#nanoTime()}.
+     * @return The permit, or null if the call must not be made.
+     */
+    synchronized Permit tryAcquire(long nowNanos) {
+        if (state == State.OPEN && nowNanos - openUntilNanos >= 0) {
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+        }
+        return switch (state) {
+            case CLOSED -> Permit.CALL;
+            case OPEN -> null;
+            case HALF_OPEN -> {
+                if (probesInFlight >= halfOpenProbes) {
+                    yield null;
+                }
+                probesInFlight++;
+                yield Permit.PROBE;
+            }
+        };
+    }
+
+    /**
+     * Records a call that reached the protected resource.
+     *
+     * @param permit The permit of the call.
+     */
+    synchronized void onSuccess(Permit permit) {
+        if (permit == Permit.PROBE) {
+            probesInFlight--;
+            if (state == State.HALF_OPEN) {
+                state = State.CLOSED;
+            }
+        }
+        if (state == State.CLOSED) {
+            consecutiveFailures = 0;
+        }
+    }
+
+    /**
+     * Records a call that failed because the protected resource was unavailable.
+     *
+     * @param permit   The permit of the call.
+     * @param nowNanos The current {@link System#nanoTime()}.
+     */
+    synchronized void onFailure(Permit permit, long nowNanos) {
+        if (permit == Permit.PROBE) {
+            probesInFlight--;
+            if (state == State.HALF_OPEN) {
+                open(nowNanos);
+            }
+        } else if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+            open(nowNanos);
+        }
+    }
+
+    /**
+     * Hands back a permit without an outcome, for calls that never reached the protected resource.
+     *
+     * @param permit The permit of the call.
+     */
+    synchronized void release(Permit permit) {
+        if (permit == Permit.PROBE) {
+            probesInFlight--;
+        }
+    }
+
+    /**
+     * Retrieves the current state. An open breaker whose open period has passed still reports open until the next
+     * call asks for permission.
+     *
+     * @return The state.
+     */
+    synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Retrieves the time left until an open breaker lets probes through.
+     *
+     * @param nowNanos The current {@link System#nanoTime()}.
+     * @return The nanoseconds left, or 0 if the breaker is not open.
+     */
+    synchronized long remainingOpenNanos(long nowNanos) {
+        return state == State.OPEN ? Math.max(0, openUntilNanos - nowNanos) : 0;
+    }
+
+    private void open(long nowNanos) {
+        state = State.OPEN;
+        openUntilNanos = nowNanos + openNanos;
+        consecutiveFailures = 0;
+    }
+}
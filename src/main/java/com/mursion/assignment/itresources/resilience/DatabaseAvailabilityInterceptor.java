@@ -0,0 +1,54 @@
+package com.mursion.assignment.itresources.resilience;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Fails API requests fast with a 503 and a Retry-After header while the database circuit breaker is open, so they
+ * never queue for a connection. Requests that can be answered from stale results are left to
+ * {@link DatabaseCircuitBreaker#read}. While half-open, the admitted requests serve as probes.
+ */
+@Component
+public class DatabaseAvailabilityInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT = DatabaseAvailabilityInterceptor.class.getName() + ".permit";
+
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    @Autowired
+    public DatabaseAvailabilityInterceptor(DatabaseCircuitBreaker databaseCircuitBreaker) {
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || handlerMethod.hasMethodAnnotation(ServesStaleReads.class)) {
+            return true;
+        }
+        CircuitBreaker.Permit permit = databaseCircuitBreaker.tryAcquire();
+        if (permit == null) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(databaseCircuitBreaker.retryAfterSeconds()));
+            return false;
+        }
+        request.setAttribute(PERMIT, permit);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT) instanceof CircuitBreaker.Permit permit) {
+            request.removeAttribute(PERMIT);
+            // Exceptions turned into responses by an exception resolver are only exposed as a request attribute
+            Throwable failure = ex != null ? ex : (Throwable) request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+            databaseCircuitBreaker.onCompletion(permit, failure);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.mursion.assignment.itresources.resilience;
+
+import com.mursion.assignment.itresources.config.DatabaseCircuitBreakerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.JDBCConnectionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker between the API and the database, so a failover costs a few short timeouts instead of every request
+ * thread waiting for a connection.
+ * <p>
+ * Guarded reads run with a short transaction timeout and remember their last good result. While the breaker is open,
+ * or when a read fails because the database is unavailable, the last good result is served instead and the response
+ * is marked stale. Other requests fail fast with a 503. After the open period a few probe calls go through; the
+ * first success closes the breaker again.
+ */
+@Slf4j
+@Component
+public class DatabaseCircuitBreaker {
+
+    /**
+     * Response header set to {@code true} on responses served from last known good results. The standard Age header
+     * tells how old they are.
+     */
+    public static final String STALE_HEADER = "X-Data-Stale";
+
+    // Connection failures, and shutdowns or cancelled statements during a failover
+    private static final Set<String> UNAVAILABLE_SQL_STATES = Set.of("57014", "57P01", "57P02", "57P03");
+
+    private final DatabaseCircuitBreakerProperties properties;
+    private final CircuitBreaker breaker;
+    private final LastKnownGoodCache lastKnownGood;
+    private final TransactionTemplate readTransaction;
+    private final Counter freshReads;
+    private final Counter staleReads;
+    private final Counter unavailableReads;
+    private final Counter rejectedRequests;
+
+    @Autowired
+    public DatabaseCircuitBreaker(DatabaseCircuitBreakerProperties properties, PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.breaker = new CircuitBreaker(properties.getFailureThreshold(), properties.getOpenDuration().toNanos(),
+                properties.getHalfOpenProbes());
+        this.lastKnownGood = new LastKnownGoodCache(properties.getStaleEntries());
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setTimeout((int) Math.max(1, (properties.getReadTimeout().toMillis() + 999) / 1000));
+        this.freshReads = Counter.builder("mursion.database.reads").tag("outcome", "fresh").register(meterRegistry);
+        this.staleReads = Counter.builder("mursion.database.reads").tag("outcome", "stale").register(meterRegistry);
+        this.unavailableReads = Counter.builder("mursion.database.reads").tag("outcome", "unavailable").register(meterRegistry);
+        this.rejectedRequests = Counter.builder("mursion.database.circuit.rejected").register(meterRegistry);
+        Gauge.builder("mursion.database.circuit.state", breaker, b -> b.state().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a read against the database, or answers it from the last known good result of the same key while the
+     * database is unavailable.
+     *
+     * @param key   The key identifying the read; equal keys must mean equal queries.
+     * @param query The read, run in a read-only transaction with the configured timeout.
+     * @param <T>   The result type.
+     * @return The fresh or last known good result.
+     * @throws DatabaseUnavailableException If the database is unavailable and no recent enough result is known.
+     */
+    public <T> StaleableRead<T> read(String key, Supplier<T> query) {
+        if (!properties.isEnabled()) {
+            return StaleableRead.fresh(query.get());
+        }
+        CircuitBreaker.Permit permit = breaker.tryAcquire(System.nanoTime());
+        if (permit == null) {
+            return lastKnownGood(key, null);
+        }
+
+        T value;
+        try {
+            value = readTransaction.execute(status -> query.get());
+        } catch (RuntimeException e) {
+            if (!isUnavailable(e)) {
+                onSuccess(permit);
+                throw e;
+            }
+            onFailure(permit, e);
+            return lastKnownGood(key, e);
+        }
+        onSuccess(permit);
+        lastKnownGood.put(key, value, System.currentTimeMillis());
+        freshReads.increment();
+        return StaleableRead.fresh(value);
+    }
+
+    /**
+     * Unwraps a read result, marking the current response as stale if it is.
+     *
+     * @param read The result of {@link #read}, possibly shared with other callers.
+     * @param <T>  The result type.
+     * @return The value of the result.
+     */
+    public <T> T unwrap(StaleableRead<T> read) {
+        if (read.isStale()) {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (attributes instanceof ServletRequestAttributes servletAttributes && servletAttributes.getResponse() != null) {
+                HttpServletResponse response = servletAttributes.getResponse();
+                response.setHeader(STALE_HEADER, "true");
+                response.setHeader(HttpHeaders.AGE, Long.toString(TimeUnit.MILLISECONDS.toSeconds(read.staleForMillis())));
+            }
+        }
+        return read.value();
+    }
+
+    /**
+     * Asks for permission to handle a request that has no stale fallback.
+     *
+     * @return The permit, or null if the request must fail fast.
+     */
+    CircuitBreaker.Permit tryAcquire() {
+        if (!properties.isEnabled()) {
+            return CircuitBreaker.Permit.CALL;
+        }
+        CircuitBreaker.Permit permit = breaker.tryAcquire(System.nanoTime());
+        if (permit == null) {
+            rejectedRequests.increment();
+        }
+        return permit;
+    }
+
+    /**
+     * Records the outcome of a request admitted by {@link #tryAcquire()}.
+     *
+     * @param permit  The permit of the request.
+     * @param failure The exception the request failed with, or null.
+     */
+    void onCompletion(CircuitBreaker.Permit permit, Throwable failure) {
+        if (failure != null && isUnavailable(failure)) {
+            onFailure(permit, failure);
+        } else {
+            onSuccess(permit);
+        }
+    }
+
+    /**
+     * Retrieves how long clients should wait before retrying a request that failed fast.
+     *
+     * @return The seconds until the breaker lets probes through, at least 1.
+     */
+    long retryAfterSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(breaker.remainingOpenNanos(System.nanoTime())) + 1;
+    }
+
+    /**
+     * Tells whether an exception means the database could not be reached or did not answer in time, as opposed to a
+     * database that answered with an error.
+     *
+     * @param failure The exception.
+     * @return Whether the database is unavailable.
+     */
+    static boolean isUnavailable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CannotCreateTransactionException || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof QueryTimeoutException || cause instanceof TransactionTimedOutException
+                    || cause instanceof JDBCConnectionException || cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLNonTransientConnectionException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && (sqlException.getSQLState().startsWith("08") || UNAVAILABLE_SQL_STATES.contains(sqlException.getSQLState()))) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private void onSuccess(CircuitBreaker.Permit permit) {
+        breaker.onSuccess(permit);
+        if (permit == CircuitBreaker.Permit.PROBE) {
+            log.info("Database reachable again, closing the circuit breaker");
+        }
+    }
+
+    private void onFailure(CircuitBreaker.Permit permit, Throwable failure) {
+        CircuitBreaker.State before = breaker.state();
+        breaker.onFailure(permit, System.nanoTime());
+        if (before != CircuitBreaker.State.OPEN && breaker.state() == CircuitBreaker.State.OPEN) {
+            log.warn("Database unavailable, opening the circuit breaker for {}", properties.getOpenDuration(), failure);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> StaleableRead<T> lastKnownGood(String key, RuntimeException failure) {
+        LastKnownGoodCache.Entry entry = lastKnownGood.get(key);
+        long ageMillis = entry != null ? System.currentTimeMillis() - entry.storedAtMillis() : -1;
+        if (entry == null || ageMillis > properties.getStaleMaxAge().toMillis()) {
+            unavailableReads.increment();
+            throw new DatabaseUnavailableException("Database unavailable and no recent result known", failure);
+        }
+        staleReads.increment();
+        return new StaleableRead<>((T) entry.value(), ageMillis);
+    }
+}
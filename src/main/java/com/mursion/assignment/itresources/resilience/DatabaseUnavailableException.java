@@ -0,0 +1,15 @@
+package com.mursion.assignment.itresources.resilience;
+
+import com.mursion.assignment.itresources.exception.DomainException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when the database cannot be reached and no last known good result can stand in for it. The cause carries
+ * the stack trace of the failed query.
+ */
+public class DatabaseUnavailableException extends DomainException {
+
+    public DatabaseUnavailableException(String message, Throwable cause) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "database_unavailable", message, cause);
+    }
+}
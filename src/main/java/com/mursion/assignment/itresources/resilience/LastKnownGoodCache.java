@@ -0,0 +1,36 @@
+package com.mursion.assignment.itresources.resilience;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded map of the latest successful read results, evicting the least recently used entry when full.
+ */
+class LastKnownGoodCache {
+
+    record Entry(Object value, long storedAtMillis) {
+    }
+
+    private final Map<String, Entry> entries;
+
+    LastKnownGoodCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized void put(String key, Object value, long nowMillis) {
+        entries.put(key, new Entry(value, nowMillis));
+    }
+
+    synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,15 @@
+package com.mursion.assignment.itresources.resilience;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method whose reads go through {@link DatabaseCircuitBreaker#read}. While the database is
+ * unavailable such requests are answered from the last known good results instead of failing fast.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ServesStaleReads {
+}
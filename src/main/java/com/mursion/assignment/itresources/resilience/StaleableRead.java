@@ -0,0 +1,24 @@
+package com.mursion.assignment.itresources.resilience;
+
+/**
+ * Result of a read through the database circuit breaker, which is either fresh or a last known good value.
+ *
+ * @param value          The result.
+ * @param staleForMillis How old the last known good value is, or -1 if the result is fresh.
+ * @param <T>            The result type.
+ */
+public record StaleableRead<T>(T value, long staleForMillis) {
+
+    static <T> StaleableRead<T> fresh(T value) {
+        return new StaleableRead<>(value, -1);
+    }
+
+    /**
+     * Tells whether the result was served from the last known good values.
+     *
+     * @return Whether the result is stale.
+     */
+    public boolean isStale() {
+        return staleForMillis >= 0;
+    }
+}
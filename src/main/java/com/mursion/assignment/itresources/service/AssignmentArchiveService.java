@@ -0,0 +1,73 @@
+package com.mursion.assignment.itresources.service;
+
+import com.mursion.assignment.itresources.config.ArchiveProperties;
+import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Service class for moving old returned assignments into the archive table.
+ */
+@Slf4j
+@Service
+public class AssignmentArchiveService {
+
+    private final ItResourceAssignRepository itResourceAssignRepository;
+    private final ArchiveProperties archiveProperties;
+
+    @Autowired
+    public AssignmentArchiveService(ItResourceAssignRepository itResourceAssignRepository, ArchiveProperties archiveProperties) {
+        this.itResourceAssignRepository = itResourceAssignRepository;
+        this.archiveProperties = archiveProperties;
+    }
+
+    /**
+     * Runs the archiver on the configured schedule.
+     */
+    @Scheduled(cron = "${mursion.archive.cron:-}")
+    public void archiveOnSchedule() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+        int archived = archiveReturnedAssignments();
+        log.info("Archived {} returned assignments", archived);
+    }
+
+    /**
+     * Moves returned assignments older than the configured minimum age into the archive table. Every chunk runs in
+     * its own short transaction, followed by a pause, so row locks are never held for long.
+     *
+     * @return The total number of archived assignments.
+     */
+    public int archiveReturnedAssignments() {
+        LocalDate cutoff = LocalDate.now().minus(archiveProperties.getMinAge());
+        int batchSize = archiveProperties.getBatchSize();
+        int total = 0;
+
+        for (int batch = 0; batch < archiveProperties.getMaxBatchesPerRun(); batch++) {
+            int moved = itResourceAssignRepository.archiveReturnedBefore(cutoff, batchSize);
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+            if (!pauseBetweenBatches()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private boolean pauseBetweenBatches() {
+        try {
+            Thread.sleep(archiveProperties.getPauseBetweenBatches());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.mursion.assignment.itresources.service;
+
+import com.mursion.assignment.itresources.dto.bulk_job.BulkJobRequest;
+import com.mursion.assignment.itresources.job.BulkJobRunner;
+import com.mursion.assignment.itresources.model.BulkJob;
+import com.mursion.assignment.itresources.repository.BulkJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service class for submitting bulk jobs and tracking their progress.
+ */
+@Service
+public class BulkJobService {
+
+    private final BulkJobRepository bulkJobRepository;
+    private final BulkJobRunner bulkJobRunner;
+
+    @Autowired
+    public BulkJobService(BulkJobRepository bulkJobRepository, BulkJobRunner bulkJobRunner) {
+        this.bulkJobRepository = bulkJobRepository;
+        this.bulkJobRunner = bulkJobRunner;
+    }
+
+    /**
+     * Submits a bulk job. It starts once the submission has committed.
+     *
+     * @param request The job type and parameters.
+     * @return The pending job.
+     */
+    @Transactional
+    public BulkJob submitJob(BulkJobRequest request) {
+        BulkJob job = new BulkJob();
+        job.setType(request.getType());
+        job.setStatus(BulkJob.JobStatus.PENDING);
+        job.setParameters(new HashMap<>(request.getParameters()));
+        bulkJobRunner.handlerFor(job.getType()).validate(job);
+
+        BulkJob saved = bulkJobRepository.save(job);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bulkJobRunner.wakeUp();
+            }
+        });
+        return saved;
+    }
+
+    /**
+     * Retrieves a bulk job with its status and progress.
+     *
+     * @param id The ID of the job.
+     * @return An optional containing the job if found.
+     */
+    public Optional<BulkJob> getJobById(UUID id) {
+        return bulkJobRepository.findById(id);
+    }
+}
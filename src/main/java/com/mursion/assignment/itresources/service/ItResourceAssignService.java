@@ -1,17 +1,43 @@
 package com.mursion.assignment.itresources.service;
 
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mursion.assignment.itresources.audit.AuditTrail;
+import com.mursion.assignment.itresources.cache.CacheInvalidationPublisher;
+import com.mursion.assignment.itresources.config.LoanPolicyProperties;
+import com.mursion.assignment.itresources.dto.it_resource_assign.AutoAssignDto;
+import com.mursion.assignment.itresources.dto.it_resource_assign.CurrentHoldingView;
+import com.mursion.assignment.itresources.exception.AssignmentAlreadyReturnedException;
+import com.mursion.assignment.itresources.exception.AssignmentNotFoundException;
+import com.mursion.assignment.itresources.exception.AssignmentPeriodOverlapException;
+import com.mursion.assignment.itresources.exception.InvalidAssignmentPeriodException;
+import com.mursion.assignment.itresources.exception.ResourceNotAvailableException;
+import com.mursion.assignment.itresources.exception.ResourceNotFoundException;
 import com.mursion.assignment.itresources.model.ItResource;
 import com.mursion.assignment.itresources.model.ItResourceAssign;
 import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
 import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import com.mursion.assignment.itresources.support.MergePatch;
+import com.mursion.assignment.itresources.tenant.TenantContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -20,35 +46,91 @@ import java.util.UUID;
 @Service
 public class ItResourceAssignService {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("userId", "status", "assignedDate", "dueDate", "returnDate");
+    private static final Set<String> REQUIRED_FIELDS = Set.of("userId", "status", "assignedDate");
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final String CHECK_VIOLATION = "23514";
+    private static final String RETURN_DATE_CONSTRAINT = "check_it_resource_assign_return_date";
+
     private final ItResourceAssignRepository itResourceAssignRepository;
     private final ItResourceRepository itResourceRepository;
+    private final LoanPolicyProperties loanPolicyProperties;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final AuditTrail auditTrail;
 
     @Autowired
-    public ItResourceAssignService(ItResourceAssignRepository itResourceAssignRepository, ItResourceRepository itResourceRepository) {
+    public ItResourceAssignService(ItResourceAssignRepository itResourceAssignRepository, ItResourceRepository itResourceRepository,
+                                   LoanPolicyProperties loanPolicyProperties, ObjectMapper objectMapper,
+                                   CacheInvalidationPublisher cacheInvalidationPublisher, AuditTrail auditTrail) {
         this.itResourceAssignRepository = itResourceAssignRepository;
         this.itResourceRepository = itResourceRepository;
+        this.loanPolicyProperties = loanPolicyProperties;
+        this.objectMapper = objectMapper;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.auditTrail = auditTrail;
     }
 
     /**
-     * Saves a new assignment and updates the resource status.
+     * Saves a new assignment and updates the resource status. A reserved resource can only be assigned to the user
+     * it is reserved for.
+     * Without an explicit due date, the due date follows the loan policy of the resource type.
      *
      * @param assignment The assignment to save.
      * @return The saved assignment.
+     * @throws AssignmentPeriodOverlapException If the period overlaps another assignment of the resource.
      */
     @Transactional
     public ItResourceAssign saveAssignment(ItResourceAssign assignment) {
         ItResource resource = itResourceRepository.findById(assignment.getResource().getId())
-                .orElseThrow(() -> new RuntimeException("Resource not found"));
+                .orElseThrow(ResourceNotFoundException::new);
 
-        if (resource.getStatus() != ItResource.ResourceStatus.NOT_ASSIGNED) {
-            throw new RuntimeException("Resource is not available for assignment");
+        boolean reservedForUser = resource.getStatus() == ItResource.ResourceStatus.RESERVED
+                && Objects.equals(resource.getReservedFor(), assignment.getUserId());
+        if (resource.getStatus() != ItResource.ResourceStatus.NOT_ASSIGNED && !reservedForUser) {
+            throw new ResourceNotAvailableException();
         }
 
         resource.setStatus(ItResource.ResourceStatus.ASSIGNED);
+        resource.setReservedFor(null);
+        resource.setReservationExpiresAt(null);
         itResourceRepository.save(resource);
+        cacheInvalidationPublisher.resourceChanged(resource.getId());
 
         assignment.setStatus(ItResourceAssign.AssignStatus.NOT_RETURNED);
-        return itResourceAssignRepository.save(assignment);
+        if (assignment.getDueDate() == null && assignment.getAssignedDate() != null) {
+            assignment.setDueDate(assignment.getAssignedDate().plus(loanPolicyProperties.periodFor(resource.getType())));
+        }
+        return saveChecked(assignment);
+    }
+
+    /**
+     * Assigns the next available resource of the requested type, and location if given, to a user. The resource is
+     * claimed with a row lock that skips resources other callers are claiming, so concurrent requests never compete
+     * for the same resource.
+     *
+     * @param request The type, location and user of the assignment.
+     * @return The saved assignment, or empty if no matching resource is available.
+     * @throws AssignmentPeriodOverlapException If the period overlaps another assignment of the resource.
+     */
+    @Transactional
+    public Optional<ItResourceAssign> autoAssign(AutoAssignDto request) {
+        return itResourceRepository.lockNextAvailable(TenantContext.current(), request.getType().name(),
+                        request.getInventoryLocation())
+                .map(resource -> {
+                    resource.setStatus(ItResource.ResourceStatus.ASSIGNED);
+                    itResourceRepository.save(resource);
+                    cacheInvalidationPublisher.resourceChanged(resource.getId());
+
+                    ItResourceAssign assignment = new ItResourceAssign();
+                    assignment.setResource(resource);
+                    assignment.setUserId(request.getUserId());
+                    assignment.setStatus(ItResourceAssign.AssignStatus.NOT_RETURNED);
+                    assignment.setAssignedDate(request.getAssignedDate() != null ? request.getAssignedDate() : LocalDate.now());
+                    assignment.setDueDate(request.getDueDate() != null ? request.getDueDate()
+                            : assignment.getAssignedDate().plus(loanPolicyProperties.periodFor(resource.getType())));
+                    return saveChecked(assignment);
+                });
     }
 
     /**
@@ -78,7 +160,21 @@ public class ItResourceAssignService {
      * @return A list of matching assignments.
      */
     public List<ItResourceAssign> searchAssignments(UUID resourceId, UUID userId) {
-        if (resourceId != null && userId != null) {
+        return searchAssignments(resourceId, userId, false);
+    }
+
+    /**
+     * Searches for assignments based on resource ID and/or user ID, optionally including archived assignments.
+     *
+     * @param resourceId      The ID of the resource (optional).
+     * @param userId          The ID of the user (optional).
+     * @param includeArchived Whether assignments moved to the archive table are included.
+     * @return A list of matching assignments.
+     */
+    public List<ItResourceAssign> searchAssignments(UUID resourceId, UUID userId, boolean includeArchived) {
+        if (includeArchived) {
+            return itResourceAssignRepository.findIncludingArchived(TenantContext.current(), resourceId, userId);
+        } else if (resourceId != null && userId != null) {
             return itResourceAssignRepository.findByResourceIdAndUserId(resourceId, userId);
         } else if (resourceId != null) {
             return itResourceAssignRepository.findByResourceId(resourceId);
@@ -89,24 +185,168 @@ public class ItResourceAssignService {
         }
     }
 
+    /**
+     * Returns a chunk of a user's open assignments in a few set-based statements: the assignments are marked as
+     * returned and their resources become available again, as {@link #returnResource(UUID)} does one at a time.
+     *
+     * @param userId The ID of the user.
+     * @param after  The assignment ID after which to continue, exclusive.
+     * @param limit  The maximum number of assignments to return.
+     * @return The IDs of the returned assignments, in ID order.
+     */
+    @Transactional
+    public List<UUID> returnOpenAssignmentsOfUser(UUID userId, UUID after, int limit) {
+        List<UUID> ids = itResourceAssignRepository.findOpenIdsByUserIdAfter(TenantContext.current(), userId, after, limit);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> resourceIds = itResourceAssignRepository.findResourceIdsByIdIn(ids);
+        cacheInvalidationPublisher.resourcesChanged(resourceIds);
+        itResourceRepository.updateStatusOfAssignedResources(ids, ItResource.ResourceStatus.NOT_ASSIGNED, now);
+        itResourceAssignRepository.markReturned(ids, now.toLocalDate(), now,
+                ItResourceAssign.AssignStatus.RETURNED, ItResourceAssign.AssignStatus.NOT_RETURNED);
+        auditTrail.recordBulkUpdate(ItResource.class, resourceIds,
+                Map.of("status", ItResource.ResourceStatus.NOT_ASSIGNED, "updatedAt", now));
+        auditTrail.recordBulkUpdate(ItResourceAssign.class, ids, Map.of("status", ItResourceAssign.AssignStatus.RETURNED,
+                "returnDate", now.toLocalDate(), "updatedAt", now));
+        return ids;
+    }
+
+    /**
+     * Counts the open assignments of a user.
+     *
+     * @param userId The ID of the user.
+     * @return The number of open assignments.
+     */
+    public long countOpenAssignmentsOfUser(UUID userId) {
+        return itResourceAssignRepository.countByUserIdAndStatus(userId, ItResourceAssign.AssignStatus.NOT_RETURNED);
+    }
+
+    /**
+     * Retrieves the resources a user currently holds.
+     *
+     * @param userId The ID of the user.
+     * @return The resources the user holds, most recently assigned first.
+     */
+    public List<CurrentHoldingView> getCurrentHoldings(UUID userId) {
+        return itResourceAssignRepository.findCurrentHoldings(TenantContext.current(), userId);
+    }
+
+    /**
+     * Retrieves open assignments that are past their due date, most overdue first.
+     *
+     * @param asOf The reference date; assignments due before it are overdue.
+     * @param page The page number.
+     * @param size The page size.
+     * @return A page of overdue assignments.
+     */
+    public Page<ItResourceAssign> getOverdueAssignments(LocalDate asOf, int page, int size) {
+        return itResourceAssignRepository.findOverdue(TenantContext.current(), asOf, PageRequest.of(page, size));
+    }
+
+    /**
+     * Retrieves open assignments due within the given date range.
+     *
+     * @param from The first due date.
+     * @param to   The last due date.
+     * @param page The page number.
+     * @param size The page size.
+     * @return A page of open assignments.
+     */
+    public Page<ItResourceAssign> getOpenAssignmentsDueBetween(LocalDate from, LocalDate to, int page, int size) {
+        return itResourceAssignRepository.findOpenDueBetween(TenantContext.current(), from, to, PageRequest.of(page, size));
+    }
+
+    /**
+     * Retrieves assignments handed out within the given date range, in the order they were handed out.
+     *
+     * @param from The first assigned date.
+     * @param to   The last assigned date.
+     * @param page The page number.
+     * @param size The page size.
+     * @return A page of assignments.
+     */
+    public Page<ItResourceAssign> getAssignmentsAssignedBetween(LocalDate from, LocalDate to, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("assignedDate", "id"));
+        return itResourceAssignRepository.findByAssignedDateBetween(from, to, pageable);
+    }
+
+    /**
+     * Retrieves the assignments of a resource that were running on the given date, including archived ones.
+     *
+     * @param serialNumber The serial number of the resource.
+     * @param date         The date.
+     * @return The assignments running on the date.
+     */
+    public List<ItResourceAssign> getAssignmentsRunningOn(String serialNumber, LocalDate date) {
+        return itResourceAssignRepository.findRunningOnBySerialNumber(TenantContext.current(), serialNumber, date);
+    }
+
+    /**
+     * Retrieves the assignments of a user or of a resource that were running at any time within the given date range,
+     * including archived ones. Exactly one of the user ID and the resource ID must be given.
+     *
+     * @param userId     The ID of the user (optional).
+     * @param resourceId The ID of the resource (optional).
+     * @param from       The first date of the range.
+     * @param to         The last date of the range.
+     * @return The overlapping assignments, in the order they were handed out.
+     */
+    public List<ItResourceAssign> getAssignmentsOverlapping(UUID userId, UUID resourceId, LocalDate from, LocalDate to) {
+        if ((userId == null) == (resourceId == null)) {
+            throw new IllegalArgumentException("Exactly one of userId and resourceId is required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The range must not end before it starts");
+        }
+        return userId != null
+                ? itResourceAssignRepository.findOverlappingByUserId(TenantContext.current(), userId, from, to)
+                : itResourceAssignRepository.findOverlappingByResourceId(TenantContext.current(), resourceId, from, to);
+    }
+
     /**
      * Updates an existing assignment.
      *
      * @param id         The ID of the assignment to update.
      * @param assignment The updated assignment.
      * @return The updated assignment.
+     * @throws AssignmentPeriodOverlapException If the period overlaps another assignment of the resource.
+     * @throws InvalidAssignmentPeriodException If the return date is before the assigned date.
      */
     @Transactional
     public ItResourceAssign updateAssignment(UUID id, ItResourceAssign assignment) {
         ItResourceAssign existingAssignment = itResourceAssignRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Assignment not found"));
+                .orElseThrow(AssignmentNotFoundException::new);
 
         existingAssignment.setUserId(assignment.getUserId());
         existingAssignment.setStatus(assignment.getStatus());
         existingAssignment.setAssignedDate(assignment.getAssignedDate());
+        if (assignment.getDueDate() != null) {
+            existingAssignment.setDueDate(assignment.getDueDate());
+        }
         existingAssignment.setReturnDate(assignment.getReturnDate());
 
-        return itResourceAssignRepository.save(existingAssignment);
+        return saveChecked(existingAssignment);
+    }
+
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to an assignment. Only the fields present in the patch are changed, and
+     * only the columns that actually changed are written.
+     *
+     * @param id    The ID of the assignment to patch.
+     * @param patch The merge patch document.
+     * @return The patched assignment.
+     * @throws AssignmentPeriodOverlapException If the period overlaps another assignment of the resource.
+     * @throws InvalidAssignmentPeriodException If the return date is before the assigned date.
+     */
+    @Transactional
+    public ItResourceAssign patchAssignment(UUID id, JsonNode patch) {
+        ItResourceAssign existingAssignment = itResourceAssignRepository.findById(id)
+                .orElseThrow(AssignmentNotFoundException::new);
+
+        MergePatch.apply(objectMapper, existingAssignment, patch, PATCHABLE_FIELDS, REQUIRED_FIELDS);
+        return saveChecked(existingAssignment);
     }
 
     /**
@@ -124,14 +364,15 @@ public class ItResourceAssignService {
      *
      * @param id The ID of the assignment.
      * @return The updated assignment.
+     * @throws InvalidAssignmentPeriodException If the assignment starts after today.
      */
     @Transactional
     public ItResourceAssign returnResource(UUID id) {
         ItResourceAssign assignment = itResourceAssignRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Assignment not found"));
+                .orElseThrow(AssignmentNotFoundException::new);
 
         if (assignment.getStatus() == ItResourceAssign.AssignStatus.RETURNED) {
-            throw new RuntimeException("Resource is already returned");
+            throw new AssignmentAlreadyReturnedException();
         }
 
         assignment.setStatus(ItResourceAssign.AssignStatus.RETURNED);
@@ -140,7 +381,32 @@ public class ItResourceAssignService {
         ItResource resource = assignment.getResource();
         resource.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
         itResourceRepository.save(resource);
+        cacheInvalidationPublisher.resourceChanged(resource.getId());
+
+        return saveChecked(assignment);
+    }
 
-        return itResourceAssignRepository.save(assignment);
+    /**
+     * Saves an assignment and flushes it, so the period constraints of the table are checked here rather than at
+     * commit, and reports a violation of them as a conflict.
+     *
+     * @param assignment The assignment to save.
+     * @return The saved assignment.
+     */
+    private ItResourceAssign saveChecked(ItResourceAssign assignment) {
+        try {
+            return itResourceAssignRepository.saveAndFlush(assignment);
+        } catch (DataIntegrityViolationException e) {
+            if (NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException) {
+                if (EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                    throw new AssignmentPeriodOverlapException(e);
+                }
+                if (CHECK_VIOLATION.equals(sqlException.getSQLState())
+                        && String.valueOf(sqlException.getMessage()).contains(RETURN_DATE_CONSTRAINT)) {
+                    throw new InvalidAssignmentPeriodException(e);
+                }
+            }
+            throw e;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,34 @@
 package com.mursion.assignment.itresources.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mursion.assignment.itresources.audit.AuditTrail;
+import com.mursion.assignment.itresources.cache.CacheInvalidationPublisher;
 import com.mursion.assignment.itresources.dto.it_resource.ItResourceSearchDto;
+import com.mursion.assignment.itresources.dto.it_resource.StatusTransitionResultDto;
+import com.mursion.assignment.itresources.exception.ResourceNotFoundException;
 import com.mursion.assignment.itresources.model.ItResource;
 import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import com.mursion.assignment.itresources.repository.ItResourceSpecifications;
+import com.mursion.assignment.itresources.resilience.DatabaseCircuitBreaker;
+import com.mursion.assignment.itresources.resilience.StaleableRead;
+import com.mursion.assignment.itresources.support.MergePatch;
+import com.mursion.assignment.itresources.support.SingleFlight;
+import com.mursion.assignment.itresources.tenant.TenantContext;
 import com.mursion.assignment.itresources.types.enums.SortDirection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -20,11 +37,33 @@ import java.util.UUID;
 @Service
 public class ItResourceService {
 
+    /**
+     * Number of resources updated per statement and transaction by {@link #transitionStatus}.
+     */
+    static final int STATUS_TRANSITION_CHUNK_SIZE = 1000;
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "type", "status", "serialNumber", "inventoryLocation");
+    private static final Set<String> REQUIRED_FIELDS = Set.of("name", "type", "status");
+
     private final ItResourceRepository itResourceRepository;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final AuditTrail auditTrail;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    private final TransactionTemplate transactionTemplate;
+    private final SingleFlight<TenantKey<UUID>, StaleableRead<Optional<ItResource>>> resourceByIdCalls = new SingleFlight<>();
+    private final SingleFlight<TenantKey<ItResourceSearchDto>, StaleableRead<List<ItResource>>> searchCalls = new SingleFlight<>();
 
     @Autowired
-    public ItResourceService(ItResourceRepository itResourceRepository) {
+    public ItResourceService(ItResourceRepository itResourceRepository, ObjectMapper objectMapper,
+                             CacheInvalidationPublisher cacheInvalidationPublisher, AuditTrail auditTrail,
+                             DatabaseCircuitBreaker databaseCircuitBreaker, TransactionTemplate transactionTemplate) {
         this.itResourceRepository = itResourceRepository;
+        this.objectMapper = objectMapper;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.auditTrail = auditTrail;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
@@ -35,17 +74,25 @@ public class ItResourceService {
      */
     @Transactional
     public ItResource saveResource(ItResource resource) {
-        return itResourceRepository.save(resource);
+        ItResource savedResource = itResourceRepository.save(resource);
+        cacheInvalidationPublisher.resourceChanged(savedResource.getId());
+        return savedResource;
     }
 
     /**
-     * Retrieves an IT resource by its ID.
+     * Retrieves an IT resource by its ID. Concurrent calls of the same tenant for the same ID share one query. While
+     * the database is unavailable, the last known good result is served and the response is marked stale.
      *
      * @param id The ID of the IT resource.
      * @return An optional containing the IT resource if found.
      */
     public Optional<ItResource> getResourceById(UUID id) {
-        return itResourceRepository.findById(id);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return itResourceRepository.findById(id);
+        }
+        TenantKey<UUID> key = new TenantKey<>(TenantContext.current(), id);
+        return databaseCircuitBreaker.unwrap(resourceByIdCalls.execute(key,
+                () -> databaseCircuitBreaker.read("resource:" + key, () -> itResourceRepository.findById(id))));
     }
 
     /**
@@ -63,18 +110,43 @@ public class ItResourceService {
      * @param id       The ID of the IT resource to update.
      * @param resource The updated IT resource.
      * @return The updated IT resource.
+     * @throws IllegalArgumentException If the update would make the resource reserved.
      */
     @Transactional
     public ItResource updateResource(UUID id, ItResource resource) {
         ItResource existingResource = itResourceRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Resource not found"));
+                .orElseThrow(ResourceNotFoundException::new);
+        ItResource.ResourceStatus previousStatus = existingResource.getStatus();
 
         existingResource.setName(resource.getName());
         existingResource.setType(resource.getType());
         existingResource.setStatus(resource.getStatus());
+        checkStatusChange(existingResource, previousStatus);
         existingResource.setSerialNumber(resource.getSerialNumber());
         existingResource.setInventoryLocation(resource.getInventoryLocation());
 
+        cacheInvalidationPublisher.resourceChanged(id);
+        return itResourceRepository.save(existingResource);
+    }
+
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to an IT resource. Only the fields present in the patch are changed, and
+     * only the columns that actually changed are written.
+     *
+     * @param id    The ID of the IT resource to patch.
+     * @param patch The merge patch document.
+     * @return The patched IT resource.
+     * @throws IllegalArgumentException If the patch is invalid or would make the resource reserved.
+     */
+    @Transactional
+    public ItResource patchResource(UUID id, JsonNode patch) {
+        ItResource existingResource = itResourceRepository.findById(id)
+                .orElseThrow(ResourceNotFoundException::new);
+
+        ItResource.ResourceStatus previousStatus = existingResource.getStatus();
+        MergePatch.apply(objectMapper, existingResource, patch, PATCHABLE_FIELDS, REQUIRED_FIELDS);
+        checkStatusChange(existingResource, previousStatus);
+        cacheInvalidationPublisher.resourceChanged(id);
         return itResourceRepository.save(existingResource);
     }
 
@@ -86,37 +158,29 @@ public class ItResourceService {
     @Transactional
     public void deleteResource(UUID id) {
         itResourceRepository.deleteById(id);
+        cacheInvalidationPublisher.resourceChanged(id);
     }
 
     /**
-     * Searches for IT resources based on the given search criteria.
+     * Searches for IT resources based on the given search criteria. Concurrent calls of the same tenant with equal
+     * criteria share one query. While the database is unavailable, the last known good result is served and the
+     * response is marked stale.
      *
      * @param searchDto The search criteria.
      * @return A list of matching IT resources.
      */
     public List<ItResource> searchResources(ItResourceSearchDto searchDto) {
-        Specification<ItResource> spec = Specification.where(null);
-
-        if (searchDto.getName() != null) {
-            spec = spec.and((root, query, criteriaBuilder) ->
-                    criteriaBuilder.like(root.get("name"), "%" + searchDto.getName() + "%"));
-        }
-        if (searchDto.getType() != null) {
-            spec = spec.and((root, query, criteriaBuilder) ->
-                    criteriaBuilder.equal(root.get("type"), searchDto.getType()));
-        }
-        if (searchDto.getStatus() != null) {
-            spec = spec.and((root, query, criteriaBuilder) ->
-                    criteriaBuilder.equal(root.get("status"), searchDto.getStatus()));
-        }
-        if (searchDto.getSerialNumber() != null) {
-            spec = spec.and((root, query, criteriaBuilder) ->
-                    criteriaBuilder.like(root.get("serialNumber"), "%" + searchDto.getSerialNumber() + "%"));
-        }
-        if (searchDto.getStartDate() != null && searchDto.getEndDate() != null) {
-            spec = spec.and((root, query, criteriaBuilder) ->
-                    criteriaBuilder.between(root.get("createdAt"), searchDto.getStartDate(), searchDto.getEndDate()));
+        // Inside a transaction the caller may depend on its own uncommitted writes, so it must not share results
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return findResources(searchDto);
         }
+        TenantKey<ItResourceSearchDto> key = new TenantKey<>(TenantContext.current(), searchDto);
+        return databaseCircuitBreaker.unwrap(searchCalls.execute(key,
+                () -> databaseCircuitBreaker.read("search:" + key, () -> findResources(searchDto))));
+    }
+
+    private List<ItResource> findResources(ItResourceSearchDto searchDto) {
+        Specification<ItResource> spec = ItResourceSpecifications.matching(searchDto);
 
         Sort sort = Sort.unsorted();
         if (searchDto.getSort() != null && searchDto.getSortDirection() != null) {
@@ -125,4 +189,115 @@ public class ItResourceService {
 
         return itResourceRepository.findAll(spec, sort);
     }
-}
\ No newline at end of file
+
+    /**
+     * Moves every resource matching the filter to the given status, in chunks of set-based updates that each commit
+     * on their own. Assigned and reserved resources are skipped. Only IDs are read, so no entities are loaded.
+     *
+     * @param filter The search criteria selecting the resources; sorting is ignored.
+     * @param status The new status.
+     * @return The number of updated and skipped resources.
+     */
+    public StatusTransitionResultDto transitionStatus(ItResourceSearchDto filter, ItResource.ResourceStatus status) {
+        if (status == ItResource.ResourceStatus.ASSIGNED) {
+            throw new IllegalArgumentException("Resources can only become assigned through an assignment");
+        }
+        if (status == ItResource.ResourceStatus.RESERVED) {
+            throw new IllegalArgumentException("Resources can only become reserved through a reservation");
+        }
+        Specification<ItResource> matching = ItResourceSpecifications.matching(filter);
+        long skippedAssigned = itResourceRepository.count(matching.and(ItResourceSpecifications.hasStatus(ItResource.ResourceStatus.ASSIGNED)));
+        long skippedReserved = itResourceRepository.count(matching.and(ItResourceSpecifications.hasStatus(ItResource.ResourceStatus.RESERVED)));
+        long unchanged = itResourceRepository.count(matching.and(ItResourceSpecifications.hasStatus(status)));
+
+        long updated = 0;
+        UUID after = null;
+        List<UUID> ids;
+        do {
+            ids = findTransitionCandidates(filter, status, after, STATUS_TRANSITION_CHUNK_SIZE);
+            if (!ids.isEmpty()) {
+                updated += transitionStatusOf(ids, status);
+                after = ids.getLast();
+            }
+        } while (ids.size() == STATUS_TRANSITION_CHUNK_SIZE);
+
+        return new StatusTransitionResultDto(updated, skippedAssigned, skippedReserved, unchanged);
+    }
+
+    /**
+     * Finds a chunk of IDs of resources matching the filter that a transition to the given status would change.
+     *
+     * @param filter The search criteria selecting the resources.
+     * @param status The new status.
+     * @param after  The ID after which to continue, exclusive, or null to start at the beginning.
+     * @param limit  The maximum number of IDs.
+     * @return The IDs, in ID order.
+     */
+    public List<UUID> findTransitionCandidates(ItResourceSearchDto filter, ItResource.ResourceStatus status, UUID after, int limit) {
+        return itResourceRepository.findIdsAfter(transitionCandidates(filter, status), after, limit);
+    }
+
+    /**
+     * Counts the resources matching the filter that a transition to the given status would change.
+     *
+     * @param filter The search criteria selecting the resources.
+     * @param status The new status.
+     * @return The number of resources.
+     */
+    public long countTransitionCandidates(ItResourceSearchDto filter, ItResource.ResourceStatus status) {
+        return itResourceRepository.count(transitionCandidates(filter, status));
+    }
+
+    /**
+     * Moves the given resources to the given status in one statement and transaction. Resources assigned or reserved
+     * in the meantime are left untouched.
+     *
+     * @param ids    The IDs of the resources.
+     * @param status The new status.
+     * @return The number of updated resources.
+     */
+    public int transitionStatusOf(List<UUID> ids, ItResource.ResourceStatus status) {
+        return transactionTemplate.execute(transaction -> {
+            // Locked before the update, so the updated resources are exactly the ones found here
+            List<UUID> candidates = itResourceRepository.lockTransitionCandidates(TenantContext.current(), ids, status.name());
+            if (candidates.isEmpty()) {
+                return 0;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            int updated = itResourceRepository.updateStatusUnlessHeld(candidates, status, ItResource.ResourceStatus.ASSIGNED,
+                    ItResource.ResourceStatus.RESERVED, now);
+            cacheInvalidationPublisher.resourcesChanged(candidates);
+            auditTrail.recordBulkUpdate(ItResource.class, candidates, Map.of("status", status, "updatedAt", now));
+            return updated;
+        });
+    }
+
+    /**
+     * Keeps a direct status change consistent with reservations: only a reservation makes a resource reserved, and a
+     * resource that stops being reserved forgets its reservation.
+     */
+    private static void checkStatusChange(ItResource resource, ItResource.ResourceStatus previousStatus) {
+        boolean reserved = resource.getStatus() == ItResource.ResourceStatus.RESERVED;
+        boolean wasReserved = previousStatus == ItResource.ResourceStatus.RESERVED;
+        if (reserved && !wasReserved) {
+            throw new IllegalArgumentException("Resources can only become reserved through a reservation");
+        }
+        if (wasReserved && !reserved) {
+            resource.setReservedFor(null);
+            resource.setReservationExpiresAt(null);
+        }
+    }
+
+    private Specification<ItResource> transitionCandidates(ItResourceSearchDto filter, ItResource.ResourceStatus status) {
+        return ItResourceSpecifications.matching(filter)
+                .and(Specification.not(ItResourceSpecifications.hasStatus(ItResource.ResourceStatus.ASSIGNED)))
+                .and(Specification.not(ItResourceSpecifications.hasStatus(ItResource.ResourceStatus.RESERVED)))
+                .and(Specification.not(ItResourceSpecifications.hasStatus(status)));
+    }
+
+    /**
+     * Key of a shared or remembered read; reads of different tenants never share results.
+     */
+    private record TenantKey<K>(String tenantId, K key) {
+    }
+}
@@ -0,0 +1,231 @@
+package com.mursion.assignment.itresources.service;
+
+import com.mursion.assignment.itresources.audit.AuditTrail;
+import com.mursion.assignment.itresources.cache.CacheInvalidationPublisher;
+import com.mursion.assignment.itresources.config.ReservationProperties;
+import com.mursion.assignment.itresources.exception.InvalidReservationDurationException;
+import com.mursion.assignment.itresources.exception.ResourceNotAvailableException;
+import com.mursion.assignment.itresources.exception.ResourceNotFoundException;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import com.mursion.assignment.itresources.repository.ReservationExpiry;
+import com.mursion.assignment.itresources.support.HashedTimerWheel;
+import com.mursion.assignment.itresources.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class for putting IT resources on hold for a user for a limited time.
+ * <p>
+ * Expiries are tracked in memory by a hashed timer wheel, so releasing a reservation costs nothing until it is due,
+ * and due reservations are released in batches. The expiry is also stored with the resource: on startup the wheel
+ * is rebuilt from the database, and a slow sweep releases reservations no node tracks any more, for example those
+ * made on a node that went away. Expiries are tracked and released for all tenants at once.
+ */
+@Slf4j
+@Service
+public class ReservationService {
+
+    private final ItResourceRepository itResourceRepository;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final AuditTrail auditTrail;
+    private final ReservationProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final HashedTimerWheel<UUID> expiries;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("reservation-expiry").daemon().factory());
+
+    @Autowired
+    public ReservationService(ItResourceRepository itResourceRepository,
+                              CacheInvalidationPublisher cacheInvalidationPublisher, AuditTrail auditTrail,
+                              ReservationProperties properties, TransactionTemplate transactionTemplate) {
+        this.itResourceRepository = itResourceRepository;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.auditTrail = auditTrail;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.expiries = new HashedTimerWheel<>(properties.getTick().toMillis(), properties.getWheelSize(),
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Reserves an available resource for a user.
+     *
+     * @param id       The ID of the resource.
+     * @param userId   The ID of the user.
+     * @param duration How long the reservation lasts, or null for the default duration.
+     * @return The reserved resource.
+     * @throws InvalidReservationDurationException If the duration is not positive or longer than the maximum.
+     * @throws ResourceNotFoundException           If the resource does not exist.
+     * @throws ResourceNotAvailableException       If the resource is assigned, reserved or deprecated.
+     */
+    @Transactional
+    public ItResource reserve(UUID id, UUID userId, Duration duration) {
+        Duration holdFor = duration != null ? duration : properties.getDefaultDuration();
+        if (holdFor.isNegative() || holdFor.isZero() || holdFor.compareTo(properties.getMaxDuration()) > 0) {
+            throw new InvalidReservationDurationException(properties.getMaxDuration());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(holdFor);
+        int reserved = itResourceRepository.reserve(id, userId, expiresAt, now,
+                ItResource.ResourceStatus.RESERVED, ItResource.ResourceStatus.NOT_ASSIGNED);
+        if (reserved == 0) {
+            if (!itResourceRepository.existsById(id)) {
+                throw new ResourceNotFoundException();
+            }
+            throw new ResourceNotAvailableException("Resource is not available for reservation");
+        }
+
+        // Scheduled right away: should the transaction roll back, the release finds nothing to release
+        expiries.schedule(id, toEpochMillis(expiresAt));
+        cacheInvalidationPublisher.resourceChanged(id);
+        auditTrail.recordBulkUpdate(ItResource.class, List.of(id), Map.of("status", ItResource.ResourceStatus.RESERVED,
+                "reservedFor", userId, "reservationExpiresAt", expiresAt, "updatedAt", now));
+        return itResourceRepository.findById(id).orElseThrow(ResourceNotFoundException::new);
+    }
+
+    /**
+     * Releases a reservation before it expires.
+     *
+     * @param id The ID of the resource.
+     * @return True if the reservation was released, false if the resource was not reserved.
+     */
+    @Transactional
+    public boolean cancel(UUID id) {
+        LocalDateTime now = LocalDateTime.now();
+        int released = itResourceRepository.cancelReservation(id, ItResource.ResourceStatus.NOT_ASSIGNED,
+                ItResource.ResourceStatus.RESERVED, now);
+        expiries.cancel(id);
+        if (released == 0) {
+            return false;
+        }
+        cacheInvalidationPublisher.resourceChanged(id);
+        auditTrail.recordBulkUpdate(ItResource.class, List.of(id), releasedValues(now));
+        return true;
+    }
+
+    /**
+     * Rebuilds the timer wheel from the reservations stored in the database and starts ticking.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<ReservationExpiry> reservations = TenantContext.callAs(TenantContext.ROOT,
+                () -> itResourceRepository.findReservationExpiries(ItResource.ResourceStatus.RESERVED));
+        reservations.forEach(reservation -> expiries.schedule(reservation.id(), toEpochMillis(reservation.expiresAt())));
+        log.info("Tracking {} reservations", reservations.size());
+
+        long tickMillis = properties.getTick().toMillis();
+        ticker.scheduleAtFixedRate(this::releaseDue, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Releases the reservations the timer wheel reports as due.
+     *
+     * @return The number of released reservations.
+     */
+    public int releaseDue() {
+        List<UUID> due = expiries.advance(System.currentTimeMillis());
+        int released = 0;
+        try {
+            for (int from = 0; from < due.size(); from += properties.getBatchSize()) {
+                released += release(due.subList(from, Math.min(from + properties.getBatchSize(), due.size())));
+            }
+        } catch (RuntimeException e) {
+            // Thrown out of the ticker, this would stop every future tick; the sweep releases what is left
+            log.error("Failed to release {} due reservations", due.size(), e);
+        }
+        return released;
+    }
+
+    /**
+     * Releases expired reservations no timer wheel tracks, on the configured schedule.
+     */
+    @Scheduled(fixedDelayString = "${mursion.reservations.sweep-interval:PT10M}",
+            initialDelayString = "${mursion.reservations.sweep-interval:PT10M}")
+    public void sweepOnSchedule() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int released = sweepExpired();
+        if (released > 0) {
+            log.info("Released {} expired reservations not tracked by any node", released);
+        }
+    }
+
+    /**
+     * Releases every expired reservation in the database, in batches.
+     *
+     * @return The number of released reservations.
+     */
+    public int sweepExpired() {
+        int released = 0;
+        List<UUID> ids;
+        do {
+            ids = itResourceRepository.findExpiredReservationIds(LocalDateTime.now(), properties.getBatchSize());
+            if (!ids.isEmpty()) {
+                released += release(ids);
+            }
+        } while (ids.size() == properties.getBatchSize());
+        return released;
+    }
+
+    private int release(List<UUID> ids) {
+        // The IDs may belong to any tenant
+        return TenantContext.callAs(TenantContext.ROOT, () -> transactionTemplate.execute(transaction -> {
+            LocalDateTime now = LocalDateTime.now();
+            // Locked before the update, so the released resources are exactly the ones found here
+            List<UUID> expired = itResourceRepository.lockExpiredReservations(ids, now);
+            if (expired.isEmpty()) {
+                return 0;
+            }
+            int released = itResourceRepository.releaseExpiredReservations(expired, ItResource.ResourceStatus.NOT_ASSIGNED,
+                    ItResource.ResourceStatus.RESERVED, now);
+            cacheInvalidationPublisher.resourcesChanged(expired);
+            auditTrail.recordBulkUpdate(ItResource.class, expired, releasedValues(now));
+            return released;
+        }));
+    }
+
+    private static Map<String, Object> releasedValues(LocalDateTime now) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("status", ItResource.ResourceStatus.NOT_ASSIGNED);
+        values.put("reservedFor", null);
+        values.put("reservationExpiresAt", null);
+        values.put("updatedAt", now);
+        return values;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Stops the timer wheel. Reservations stay in the database and are picked up again on the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+}
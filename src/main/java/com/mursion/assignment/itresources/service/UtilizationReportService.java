@@ -0,0 +1,86 @@
+package com.mursion.assignment.itresources.service;
+
+import com.mursion.assignment.itresources.config.UtilizationReportProperties;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.model.MonthlyUtilization;
+import com.mursion.assignment.itresources.repository.MonthlyUtilizationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Service class for the monthly utilization reports.
+ * <p>
+ * Reports only read rollups. A month that has ended is computed once into the closed rollups; the months still open
+ * live in a materialized view that is refreshed concurrently on a schedule, so readers are never blocked.
+ */
+@Slf4j
+@Service
+public class UtilizationReportService {
+
+    private final MonthlyUtilizationRepository monthlyUtilizationRepository;
+    private final UtilizationReportProperties properties;
+
+    @Autowired
+    public UtilizationReportService(MonthlyUtilizationRepository monthlyUtilizationRepository,
+                                    UtilizationReportProperties properties) {
+        this.monthlyUtilizationRepository = monthlyUtilizationRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Retrieves the utilization by resource type for the given months.
+     *
+     * @param from The first month.
+     * @param to   The last month.
+     * @param type The resource type, or null for all types.
+     * @return The utilization by month and type.
+     * @throws IllegalArgumentException If the range ends before it starts.
+     */
+    public List<MonthlyUtilization> getMonthlyUtilization(YearMonth from, YearMonth to, ItResource.ResourceType type) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The range must not end before it starts");
+        }
+        LocalDate first = from.atDay(1);
+        LocalDate last = to.atDay(1);
+        return type != null
+                ? monthlyUtilizationRepository.findByMonthBetweenAndTypeOrderByMonthAsc(first, last, type)
+                : monthlyUtilizationRepository.findByMonthBetweenOrderByMonthAscTypeAsc(first, last);
+    }
+
+    /**
+     * Refreshes the rollups on the configured schedule, starting right after startup.
+     */
+    @Scheduled(fixedDelayString = "${mursion.reports.utilization.refresh-interval:PT15M}")
+    public void refreshOnSchedule() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int closed = refresh();
+        if (closed > 0) {
+            log.info("Closed {} monthly utilization rollups", closed);
+        }
+    }
+
+    /**
+     * Closes the months that ended at least the configured delay ago, then recomputes the open months. The very
+     * first computation of the open months blocks readers; every later one does not.
+     *
+     * @return The number of rollup rows of newly closed months.
+     */
+    public int refresh() {
+        LocalDate lastClosable = YearMonth.from(LocalDate.now().minus(properties.getCloseDelay())).minusMonths(1).atDay(1);
+        int closed = monthlyUtilizationRepository.closeMonthsThrough(lastClosable);
+        if (monthlyUtilizationRepository.isOpenMonthsPopulated()) {
+            monthlyUtilizationRepository.refreshOpenMonths();
+        } else {
+            monthlyUtilizationRepository.populateOpenMonths();
+        }
+        return closed;
+    }
+}
@@ -0,0 +1,133 @@
+package com.mursion.assignment.itresources.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed timer wheel tracking deadlines of keys in memory. Deadlines are hashed into a fixed ring of buckets by tick,
+ * so scheduling, cancelling and advancing by one tick cost O(1) per key, however many keys are tracked. Deadlines
+ * further away than one turn of the wheel wait in their bucket for the remaining number of turns. Keys expire on
+ * the first tick at or after their deadline, so at most one tick late and never early.
+ * <p>
+ * The wheel has no thread of its own: the owner calls {@link #advance(long)} once per tick.
+ *
+ * @param <K> The key type, which needs value-based equals and hashCode.
+ */
+public class HashedTimerWheel<K> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final List<Set<Timeout<K>>> buckets;
+    private final Map<K, Timeout<K>> timeouts = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * Creates a wheel whose first tick starts at the given time.
+     *
+     * @param tickMillis  The length of a tick in milliseconds.
+     * @param wheelSize   The number of buckets, i.e. ticks per turn of the wheel.
+     * @param startMillis The start time in epoch milliseconds.
+     */
+    public HashedTimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick length and wheel size must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Schedules the key to expire at the deadline, replacing any deadline it already has. Deadlines in the past
+     * expire on the next tick.
+     *
+     * @param key            The key.
+     * @param deadlineMillis The deadline in epoch milliseconds.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        // Rounded up, so a key never expires before its deadline
+        long deadlineTick = Math.max(currentTick, Math.ceilDiv(deadlineMillis - startMillis, tickMillis));
+        Timeout<K> timeout = new Timeout<>(key, bucketOf(deadlineTick), (deadlineTick - currentTick) / buckets.size());
+        buckets.get(timeout.bucket).add(timeout);
+        timeouts.put(key, timeout);
+    }
+
+    /**
+     * Removes the key from the wheel.
+     *
+     * @param key The key.
+     * @return True if the key was scheduled.
+     */
+    public synchronized boolean cancel(K key) {
+        Timeout<K> timeout = timeouts.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        buckets.get(timeout.bucket).remove(timeout);
+        return true;
+    }
+
+    /**
+     * Processes every tick up to the given time and removes the keys whose deadline passed.
+     *
+     * @param nowMillis The current time in epoch milliseconds.
+     * @return The expired keys, in the order of the ticks they expired on.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        while (currentTick <= targetTick) {
+            Iterator<Timeout<K>> bucket = buckets.get(bucketOf(currentTick)).iterator();
+            while (bucket.hasNext()) {
+                Timeout<K> timeout = bucket.next();
+                if (timeout.remainingRounds == 0) {
+                    bucket.remove();
+                    timeouts.remove(timeout.key);
+                    expired.add(timeout.key);
+                } else {
+                    timeout.remainingRounds--;
+                }
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    /**
+     * Counts the scheduled keys.
+     *
+     * @return The number of keys waiting to expire.
+     */
+    public synchronized int size() {
+        return timeouts.size();
+    }
+
+    private int bucketOf(long tick) {
+        return (int) (tick % buckets.size());
+    }
+
+    /**
+     * A scheduled key, its bucket and the number of turns of the wheel left before it expires.
+     */
+    private static final class Timeout<K> {
+
+        private final K key;
+        private final int bucket;
+        private long remainingRounds;
+
+        private Timeout(K key, int bucket, long remainingRounds) {
+            this.key = key;
+            this.bucket = bucket;
+            this.remainingRounds = remainingRounds;
+        }
+    }
+}
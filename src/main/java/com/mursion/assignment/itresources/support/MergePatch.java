@@ -0,0 +1,57 @@
+package com.mursion.assignment.itresources.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies JSON Merge Patch (RFC 7396) documents to entities. Only the members present in the patch are set, so a
+ * dirty-checked entity only writes the columns the patch actually changes.
+ */
+public final class MergePatch {
+
+    /**
+     * Media type of JSON Merge Patch documents.
+     */
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private MergePatch() {
+    }
+
+    /**
+     * Applies a merge patch to the target in place.
+     *
+     * @param objectMapper   The mapper used to convert the patched values.
+     * @param target         The object to patch.
+     * @param patch          The merge patch document, which must be a JSON object.
+     * @param patchableNames The members a patch may set.
+     * @param requiredNames  The patchable members a patch may not remove by setting them to null.
+     * @throws IllegalArgumentException If the patch is not an object, sets a member that is not patchable, removes a
+     *                                  required member, or holds a value of the wrong type.
+     */
+    public static void apply(ObjectMapper objectMapper, Object target, JsonNode patch, Set<String> patchableNames,
+                             Set<String> requiredNames) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> fields = patch.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!patchableNames.contains(field.getKey())) {
+                throw new IllegalArgumentException("Field cannot be patched: " + field.getKey());
+            }
+            if (field.getValue().isNull() && requiredNames.contains(field.getKey())) {
+                throw new IllegalArgumentException("Field cannot be removed: " + field.getKey());
+            }
+        }
+
+        try {
+            objectMapper.readerForUpdating(target).readValue(patch);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getMessage(), e);
+        }
+    }
+}
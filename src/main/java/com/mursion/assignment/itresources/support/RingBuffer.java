@@ -0,0 +1,129 @@
+package com.mursion.assignment.itresources.support;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue on a ring of slots, safe for any number of producers and consumers. Every slot carries a
+ * sequence number telling producers and consumers whether it is free or filled for their turn, so neither side ever
+ * blocks: {@link #offer} fails when the ring is full and {@link #poll} returns null when it is empty, leaving the
+ * caller to decide how to wait.
+ *
+ * @param <T> The element type.
+ */
+public class RingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Creates an empty ring buffer.
+     *
+     * @param capacity The number of slots, a power of two.
+     */
+    public RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element unless the buffer is full.
+     *
+     * @param element The element.
+     * @return True if the element was added, false if the buffer is full.
+     */
+    public boolean offer(T element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    // Publishes the element to consumers
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element.
+     *
+     * @return The element, or null if the buffer is empty.
+     */
+    public T poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    T element = slots.getAndSet(index, null);
+                    // Hands the slot back to producers for the next turn of the ring
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to the given number of elements into the list, oldest first.
+     *
+     * @param target      The list to add to.
+     * @param maxElements The maximum number of elements to move.
+     * @return The number of moved elements.
+     */
+    public int drainTo(List<? super T> target, int maxElements) {
+        int drained = 0;
+        T element;
+        while (drained < maxElements && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Estimates the number of elements. Exact when no other thread is using the buffer.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, mask + 1L));
+    }
+
+    /**
+     * Retrieves the number of slots.
+     *
+     * @return The capacity.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,69 @@
+package com.mursion.assignment.itresources.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single execution. The first caller runs the loader on its own
+ * thread. Callers arriving while it runs wait for and share its result. Nothing is kept once the call completes,
+ * so a result is never older than the execution that produced it.
+ *
+ * @param <K> The key type, which needs value-based equals and hashCode.
+ * @param <V> The result type. Results are shared between callers and must be treated as read-only.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the loader for the key, or joins an execution already in flight for it.
+     *
+     * @param key    The key identifying identical calls.
+     * @param loader The call to execute.
+     * @return The result of the shared execution.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            V result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Retrieves the number of executions currently in flight.
+     *
+     * @return The number of keys being loaded.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V join(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.mursion.assignment.itresources.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the tenant the current thread works for. Hibernate scopes every entity query, load and bulk statement to
+ * it; native queries take it as a parameter.
+ * <p>
+ * Threads that are not bound to a tenant work for the default tenant. Maintenance that spans all tenants, such as
+ * releasing expired reservations, runs as {@link #ROOT}.
+ */
+public final class TenantContext {
+
+    /**
+     * Tenant of all data that predates multi-tenancy, and of requests that do not name a tenant.
+     */
+    public static final String DEFAULT_TENANT = "default";
+
+    /**
+     * Pseudo-tenant that sees the data of every tenant. It owns no data, so it must never insert any.
+     */
+    public static final String ROOT = "*";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Retrieves the tenant the current thread works for.
+     *
+     * @return The tenant ID.
+     */
+    public static String current() {
+        String tenantId = CURRENT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    /**
+     * Runs an action for the given tenant and restores the previous tenant afterwards.
+     *
+     * @param tenantId The tenant ID.
+     * @param action   The action.
+     * @param <T>      The result type.
+     * @return The result of the action.
+     */
+    public static <T> T callAs(String tenantId, Supplier<T> action) {
+        String previous = bind(tenantId);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Runs an action for the given tenant and restores the previous tenant afterwards.
+     *
+     * @param tenantId The tenant ID.
+     * @param action   The action.
+     */
+    public static void runAs(String tenantId, Runnable action) {
+        callAs(tenantId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Binds the current thread to a tenant.
+     *
+     * @param tenantId The tenant ID.
+     * @return The tenant the thread was bound to before, to be passed to {@link #restore}.
+     */
+    static String bind(String tenantId) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenantId);
+        return previous;
+    }
+
+    /**
+     * Binds the current thread back to the tenant it was bound to before {@link #bind}.
+     *
+     * @param previous The previously bound tenant, or null.
+     */
+    static void restore(String previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.mursion.assignment.itresources.tenant;
+
+import com.mursion.assignment.itresources.config.TenancyProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds every request to the tenant named in its tenant header, or to the default tenant if there is none.
+ * Requests for a tenant this deployment does not serve are rejected with a 400. Runs before every filter that
+ * touches tenant data.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final TenancyProperties properties;
+
+    @Autowired
+    public TenantFilter(TenancyProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(properties.getHeader());
+        String tenantId = header != null ? header : TenantContext.DEFAULT_TENANT;
+        if (!properties.getTenants().contains(tenantId)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown tenant: " + tenantId);
+            return;
+        }
+
+        String previous = TenantContext.bind(tenantId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.mursion.assignment.itresources.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Tells Hibernate which tenant a new session works for. Entities with a {@code @TenantId} attribute are then
+ * filtered by it, and get it assigned when they are persisted.
+ */
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.current();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        // A request keeps its session open in the view; it never changes its tenant half-way
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String tenantId) {
+        return TenantContext.ROOT.equals(tenantId);
+    }
+}
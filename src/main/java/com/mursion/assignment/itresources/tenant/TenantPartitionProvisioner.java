@@ -0,0 +1,71 @@
+package com.mursion.assignment.itresources.tenant;
+
+import com.mursion.assignment.itresources.config.TenancyProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Makes sure every configured tenant has its partitions. Like the other schema changes, partitions are created
+ * where migrations run, in the {@code migrate} profile; the server only checks that they exist, since rows of a
+ * tenant without partitions cannot be stored.
+ */
+@Slf4j
+@Component
+public class TenantPartitionProvisioner implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenancyProperties properties;
+    private final boolean migrate;
+
+    @Autowired
+    public TenantPartitionProvisioner(JdbcTemplate jdbcTemplate, TenancyProperties properties,
+                                      @Value("${spring.liquibase.enabled:true}") boolean migrate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.migrate = migrate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrate) {
+            properties.getTenants().forEach(this::provision);
+        } else {
+            verify();
+        }
+    }
+
+    /**
+     * Creates the partitions of a tenant, unless it has them already.
+     *
+     * @param tenantId The tenant ID.
+     */
+    public void provision(String tenantId) {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT resources.create_tenant_partitions(?)",
+                Boolean.class, tenantId))) {
+            log.info("Created the partitions of tenant {}", tenantId);
+        }
+    }
+
+    /**
+     * Fails if any configured tenant has no partitions.
+     *
+     * @throws IllegalStateException If a tenant has not been provisioned.
+     */
+    public void verify() {
+        List<String> missing = properties.getTenants().stream()
+                .filter(tenantId -> !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "SELECT to_regclass('resources.it_resource_tenant_' || ?) IS NOT NULL", Boolean.class, tenantId)))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Tenants without partitions: " + missing
+                    + ". Run the application with the 'migrate' profile first.");
+        }
+    }
+}
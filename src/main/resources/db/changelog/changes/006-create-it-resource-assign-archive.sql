@@ -0,0 +1,25 @@
+-- Cold storage for returned assignments that are no longer needed by the hot paths
+CREATE TABLE resources.it_resource_assign_archive
+(
+    id            uuid PRIMARY KEY,
+    resource_id   uuid      NOT NULL
+        CONSTRAINT fk_resource_assign_archive_resource REFERENCES resources.it_resource (id),
+    user_id       uuid      NOT NULL,
+    status        text      NOT NULL,
+    assigned_date date      NOT NULL,
+    return_date   date,
+    created_at    timestamp,
+    updated_at    timestamp,
+    archived_at   timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_it_resource_assign_archive_resource_id
+    ON resources.it_resource_assign_archive (resource_id);
+
+CREATE INDEX idx_it_resource_assign_archive_user_id
+    ON resources.it_resource_assign_archive (user_id);
+
+-- Lets the archiver find its next chunk without walking the open assignments
+CREATE INDEX idx_it_resource_assign_returned_return_date
+    ON resources.it_resource_assign (return_date)
+    WHERE status = 'RETURNED';
@@ -0,0 +1,26 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Equality filters of the type lookups and of searchResources
+CREATE INDEX idx_it_resource_type_status
+    ON resources.it_resource (type, status);
+
+-- Substring searches: findByNameContainingIgnoreCase* compare upper(name), searchResources compares name as is
+CREATE INDEX idx_it_resource_name_upper_trgm
+    ON resources.it_resource USING gin (upper(name) gin_trgm_ops);
+
+CREATE INDEX idx_it_resource_name_trgm
+    ON resources.it_resource USING gin (name gin_trgm_ops);
+
+CREATE INDEX idx_it_resource_serial_number_trgm
+    ON resources.it_resource USING gin (serial_number gin_trgm_ops);
+
+-- Creation date range of searchResources
+CREATE INDEX idx_it_resource_created_at
+    ON resources.it_resource (created_at);
+
+-- Assignment lookups by resource and by user
+CREATE INDEX idx_it_resource_assign_resource_id
+    ON resources.it_resource_assign (resource_id);
+
+CREATE INDEX idx_it_resource_assign_user_id
+    ON resources.it_resource_assign (user_id);
@@ -0,0 +1,34 @@
+ALTER TABLE resources.it_resource_assign
+    ADD COLUMN due_date date;
+
+ALTER TABLE resources.it_resource_assign_archive
+    ADD COLUMN due_date date;
+
+-- Existing assignments get the loan period of their resource type, as in the default mursion.loan-policy
+UPDATE resources.it_resource_assign a
+SET due_date = CASE
+                   WHEN r.type IN ('LAPTOP', 'DESKTOP', 'MOBILE', 'MONITOR') THEN (a.assigned_date + INTERVAL '1 year')::date
+                   WHEN r.type = 'CHAIR' THEN (a.assigned_date + INTERVAL '2 years')::date
+                   ELSE a.assigned_date + 90
+    END
+FROM resources.it_resource r
+WHERE r.id = a.resource_id
+  AND a.due_date IS NULL;
+
+UPDATE resources.it_resource_assign_archive a
+SET due_date = CASE
+                   WHEN r.type IN ('LAPTOP', 'DESKTOP', 'MOBILE', 'MONITOR') THEN (a.assigned_date + INTERVAL '1 year')::date
+                   WHEN r.type = 'CHAIR' THEN (a.assigned_date + INTERVAL '2 years')::date
+                   ELSE a.assigned_date + 90
+    END
+FROM resources.it_resource r
+WHERE r.id = a.resource_id
+  AND a.due_date IS NULL;
+
+-- Only open assignments can be overdue, so the index stays as small as the set of open rows
+CREATE INDEX idx_it_resource_assign_open_due_date
+    ON resources.it_resource_assign (due_date)
+    WHERE status = 'NOT_RETURNED';
+
+CREATE INDEX idx_it_resource_assign_assigned_date
+    ON resources.it_resource_assign (assigned_date);
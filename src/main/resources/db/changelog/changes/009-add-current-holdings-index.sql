@@ -0,0 +1,4 @@
+-- Covers "what does this user hold right now" with an index-only scan over open assignments
+CREATE INDEX idx_it_resource_assign_open_user_holdings
+    ON resources.it_resource_assign (user_id) INCLUDE (resource_id, assigned_date)
+    WHERE status = 'NOT_RETURNED';
@@ -0,0 +1,22 @@
+-- Long-running bulk operations, processed in chunks with a resumable checkpoint
+CREATE TABLE resources.bulk_job
+(
+    id               UUID PRIMARY KEY,
+    type             VARCHAR(50)  NOT NULL,
+    status           VARCHAR(20)  NOT NULL,
+    parameters       JSONB        NOT NULL DEFAULT '{}'::jsonb,
+    checkpoint       VARCHAR(255),
+    processed_count  BIGINT       NOT NULL DEFAULT 0,
+    total_count      BIGINT,
+    error            TEXT,
+    lease_owner      VARCHAR(255),
+    lease_expires_at TIMESTAMP,
+    created_at       TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at       TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at     TIMESTAMP,
+    CONSTRAINT chk_bulk_job_status CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+-- Only unfinished jobs are ever claimed, oldest first
+CREATE INDEX idx_bulk_job_unfinished_created_at ON resources.bulk_job (created_at)
+    WHERE status IN ('PENDING', 'RUNNING');
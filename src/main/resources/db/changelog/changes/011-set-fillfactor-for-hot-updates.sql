@@ -0,0 +1,4 @@
+-- Leave free space on heap pages so updates that do not touch indexed columns can stay HOT.
+-- Only affects newly written pages; existing pages pick it up as they are rewritten.
+ALTER TABLE resources.it_resource SET (fillfactor = 90);
+ALTER TABLE resources.it_resource_assign SET (fillfactor = 90);
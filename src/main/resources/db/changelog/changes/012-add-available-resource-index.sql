@@ -0,0 +1,4 @@
+-- Lets auto-assignment find the next free resource of a type and location without scanning assigned ones
+CREATE INDEX idx_it_resource_available_type_location
+    ON resources.it_resource (type, inventory_location, id)
+    WHERE status = 'NOT_ASSIGNED';
@@ -0,0 +1,20 @@
+-- Time-limited holds on a resource for a user, released back to NOT_ASSIGNED when they expire
+ALTER TABLE resources.it_resource
+    DROP CONSTRAINT check_it_resource_status;
+
+ALTER TABLE resources.it_resource
+    ADD CONSTRAINT check_it_resource_status
+        CHECK (status IN ('ASSIGNED', 'NOT_ASSIGNED', 'RESERVED', 'DEPRECATED'));
+
+ALTER TABLE resources.it_resource
+    ADD COLUMN reserved_for           UUID,
+    ADD COLUMN reservation_expires_at TIMESTAMP;
+
+ALTER TABLE resources.it_resource
+    ADD CONSTRAINT check_it_resource_reservation
+        CHECK (status <> 'RESERVED' OR (reserved_for IS NOT NULL AND reservation_expires_at IS NOT NULL));
+
+-- Recovery after a restart and the safety sweep only look at reserved resources, by expiry
+CREATE INDEX idx_it_resource_reservation_expires_at
+    ON resources.it_resource (reservation_expires_at)
+    WHERE status = 'RESERVED';
@@ -0,0 +1,38 @@
+--liquibase formatted sql
+
+-- Sent as one script so the dollar-quoted function body is not split at its semicolons
+--changeset mursion:014-create-audit-log splitStatements:false
+
+-- Append-only who/what/when trail of resource and assignment changes
+CREATE TABLE resources.audit_log
+(
+    id          BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    entity_type VARCHAR(50)  NOT NULL,
+    entity_id   UUID         NOT NULL,
+    action      VARCHAR(10)  NOT NULL,
+    actor       VARCHAR(255) NOT NULL,
+    changes     JSONB        NOT NULL DEFAULT '{}'::jsonb,
+    occurred_at TIMESTAMP    NOT NULL,
+    recorded_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT check_audit_log_action CHECK (action IN ('INSERT', 'UPDATE', 'DELETE'))
+);
+
+-- History of a single resource or assignment
+CREATE INDEX idx_audit_log_entity
+    ON resources.audit_log (entity_type, entity_id, occurred_at);
+
+CREATE FUNCTION resources.reject_audit_log_change() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    RAISE EXCEPTION 'resources.audit_log is append-only';
+END;
+$$;
+
+CREATE TRIGGER audit_log_append_only
+    BEFORE UPDATE OR DELETE ON resources.audit_log
+    FOR EACH ROW EXECUTE FUNCTION resources.reject_audit_log_change();
+
+CREATE TRIGGER audit_log_no_truncate
+    BEFORE TRUNCATE ON resources.audit_log
+    FOR EACH STATEMENT EXECUTE FUNCTION resources.reject_audit_log_change();
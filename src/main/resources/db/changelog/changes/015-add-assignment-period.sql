@@ -0,0 +1,23 @@
+-- Assignment history as date ranges, so "who had it on day X" and "what did user U hold during Q1" are index lookups
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE resources.it_resource_assign
+    ADD CONSTRAINT check_it_resource_assign_return_date
+        CHECK (return_date IS NULL OR return_date >= assigned_date);
+
+-- The return day belongs to the next holder; an open assignment runs until further notice
+ALTER TABLE resources.it_resource_assign
+    ADD COLUMN assigned_period daterange
+        GENERATED ALWAYS AS (daterange(assigned_date, return_date, '[)')) STORED;
+
+ALTER TABLE resources.it_resource_assign_archive
+    ADD COLUMN assigned_period daterange
+        GENERATED ALWAYS AS (daterange(assigned_date, return_date, '[)')) STORED;
+
+-- A resource is held by at most one user at a time; the constraint's GiST index also serves resource history lookups
+ALTER TABLE resources.it_resource_assign
+    ADD CONSTRAINT excl_it_resource_assign_period
+        EXCLUDE USING gist (resource_id WITH =, assigned_period WITH &&);
+
+CREATE INDEX idx_it_resource_assign_user_period
+    ON resources.it_resource_assign USING gist (user_id, assigned_period);
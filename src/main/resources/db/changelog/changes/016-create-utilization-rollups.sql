@@ -0,0 +1,76 @@
+--liquibase formatted sql
+
+-- Sent as one script so the dollar-quoted function body is not split at its semicolons
+--changeset mursion:016-create-utilization-rollups splitStatements:false
+
+-- Days assigned and days owned per resource type and month, for the months from first_month to last_month.
+-- The running month only counts up to today.
+CREATE FUNCTION resources.compute_monthly_utilization(first_month DATE, last_month DATE)
+    RETURNS TABLE
+            (
+                month         DATE,
+                type          TEXT,
+                days_assigned BIGINT,
+                days_owned    BIGINT
+            )
+    LANGUAGE sql
+    STABLE AS
+$$
+WITH months AS (SELECT m::date                                                                 AS month,
+                       daterange(m::date, least((m + INTERVAL '1 month')::date, current_date + 1)) AS span
+                FROM generate_series(first_month, last_month, INTERVAL '1 month') AS m),
+     owned AS (SELECT mo.month, r.type, sum(upper(o.span) - lower(o.span)) AS days
+               FROM months mo
+                        JOIN resources.it_resource r ON r.created_at::date < upper(mo.span)
+                        CROSS JOIN LATERAL (SELECT mo.span * daterange(r.created_at::date, NULL) AS span) o
+               GROUP BY mo.month, r.type),
+     periods AS (SELECT resource_id, assigned_period
+                 FROM resources.it_resource_assign
+                 UNION ALL
+                 SELECT resource_id, assigned_period
+                 FROM resources.it_resource_assign_archive),
+     assigned AS (SELECT mo.month, r.type, sum(upper(a.span) - lower(a.span)) AS days
+                  FROM months mo
+                           JOIN periods p ON p.assigned_period && mo.span
+                           JOIN resources.it_resource r ON r.id = p.resource_id
+                           CROSS JOIN LATERAL (SELECT mo.span * p.assigned_period AS span) a
+                  GROUP BY mo.month, r.type)
+SELECT o.month, o.type, coalesce(a.days, 0), o.days
+FROM owned o
+         LEFT JOIN assigned a ON a.month = o.month AND a.type = o.type
+$$;
+
+-- Months that have ended are computed once and never again
+CREATE TABLE resources.monthly_utilization_closed
+(
+    month         DATE      NOT NULL,
+    type          TEXT      NOT NULL,
+    days_assigned BIGINT    NOT NULL,
+    days_owned    BIGINT    NOT NULL,
+    closed_at     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (month, type)
+);
+
+-- Only the months that are not closed yet, which keeps every refresh small. Populated by the first refresh,
+-- so the migration does not have to compute the whole history.
+CREATE MATERIALIZED VIEW resources.monthly_utilization_open AS
+SELECT *
+FROM resources.compute_monthly_utilization(
+        coalesce((SELECT (max(month) + INTERVAL '1 month')::date FROM resources.monthly_utilization_closed),
+                 (SELECT date_trunc('month', min(created_at))::date FROM resources.it_resource)),
+        date_trunc('month', current_date)::date)
+WITH NO DATA;
+
+-- Required by REFRESH MATERIALIZED VIEW CONCURRENTLY
+CREATE UNIQUE INDEX idx_monthly_utilization_open_month_type
+    ON resources.monthly_utilization_open (month, type);
+
+-- What reports read. Open rows of a month that was closed since the last refresh are hidden, so no month is
+-- counted twice.
+CREATE VIEW resources.monthly_utilization AS
+SELECT month, type, days_assigned, days_owned
+FROM resources.monthly_utilization_closed
+UNION ALL
+SELECT month, type, days_assigned, days_owned
+FROM resources.monthly_utilization_open
+WHERE month > coalesce((SELECT max(month) FROM resources.monthly_utilization_closed), '-infinity'::date);
@@ -0,0 +1,16 @@
+-- First response of every POST sent with an Idempotency-Key, replayed to retries of the same request
+CREATE TABLE resources.idempotency_key
+(
+    idempotency_key     VARCHAR(255) PRIMARY KEY,
+    request_fingerprint VARCHAR(64)  NOT NULL,
+    status              VARCHAR(20)  NOT NULL,
+    response_status     INTEGER,
+    response_type       VARCHAR(255),
+    response_body       BYTEA,
+    created_at          TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at          TIMESTAMP    NOT NULL,
+    CONSTRAINT chk_idempotency_key_status CHECK (status IN ('IN_PROGRESS', 'COMPLETED'))
+);
+
+-- Cleanup deletes expired keys in batches, oldest first
+CREATE INDEX idx_idempotency_key_expires_at ON resources.idempotency_key (expires_at);
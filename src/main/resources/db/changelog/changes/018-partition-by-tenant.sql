@@ -0,0 +1,296 @@
+--liquibase formatted sql
+
+-- Sent as one script so the dollar-quoted function bodies are not split at their semicolons
+--changeset mursion:018-partition-by-tenant splitStatements:false
+
+-- One deployment serves several business units. Resources and assignments are list-partitioned by tenant, so a
+-- tenant's scans and indexes only ever cover its own pages. Existing data belongs to the 'default' tenant.
+
+-- The utilization rollups read the tables being replaced; they are rebuilt per tenant below
+DROP VIEW resources.monthly_utilization;
+DROP MATERIALIZED VIEW resources.monthly_utilization_open;
+DROP FUNCTION resources.compute_monthly_utilization(DATE, DATE);
+
+ALTER TABLE resources.it_resource_assign_archive RENAME TO it_resource_assign_archive_unpartitioned;
+ALTER TABLE resources.it_resource_assign RENAME TO it_resource_assign_unpartitioned;
+ALTER TABLE resources.it_resource RENAME TO it_resource_unpartitioned;
+
+CREATE TABLE resources.it_resource
+(
+    tenant_id              TEXT NOT NULL,
+    id                     UUID NOT NULL,
+    name                   TEXT NOT NULL,
+    type                   TEXT NOT NULL,
+    status                 TEXT NOT NULL DEFAULT 'NOT_ASSIGNED',
+    serial_number          TEXT,
+    inventory_location     TEXT,
+    reserved_for           UUID,
+    reservation_expires_at TIMESTAMP,
+    created_at             TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at             TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY LIST (tenant_id);
+
+CREATE TABLE resources.it_resource_assign
+(
+    tenant_id       TEXT NOT NULL,
+    id              UUID NOT NULL,
+    resource_id     UUID NOT NULL,
+    user_id         UUID NOT NULL,
+    status          TEXT NOT NULL,
+    assigned_date   DATE NOT NULL,
+    due_date        DATE,
+    return_date     DATE,
+    assigned_period DATERANGE GENERATED ALWAYS AS (daterange(assigned_date, return_date, '[)')) STORED,
+    created_at      TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at      TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY LIST (tenant_id);
+
+CREATE TABLE resources.it_resource_assign_archive
+(
+    tenant_id       TEXT      NOT NULL,
+    id              UUID      NOT NULL,
+    resource_id     UUID      NOT NULL,
+    user_id         UUID      NOT NULL,
+    status          TEXT      NOT NULL,
+    assigned_date   DATE      NOT NULL,
+    due_date        DATE,
+    return_date     DATE,
+    assigned_period DATERANGE GENERATED ALWAYS AS (daterange(assigned_date, return_date, '[)')) STORED,
+    created_at      TIMESTAMP,
+    updated_at      TIMESTAMP,
+    archived_at     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY LIST (tenant_id);
+
+-- Adds the partitions of a tenant and tells whether any were missing. Tenant IDs become part of the partition
+-- names, hence the restrictive format.
+CREATE FUNCTION resources.create_tenant_partitions(p_tenant_id TEXT) RETURNS BOOLEAN
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    resource_partition TEXT := 'it_resource_tenant_' || p_tenant_id;
+    assign_partition   TEXT := 'it_resource_assign_tenant_' || p_tenant_id;
+    archive_partition  TEXT := 'it_resource_assign_archive_tenant_' || p_tenant_id;
+    created            BOOLEAN := FALSE;
+BEGIN
+    IF p_tenant_id IS NULL OR p_tenant_id !~ '^[a-z][a-z0-9_]{0,19}$' THEN
+        RAISE EXCEPTION 'Invalid tenant ID: %', p_tenant_id;
+    END IF;
+
+    -- Checked first, so that provisioning a known tenant takes no lock on the partitioned tables
+    IF to_regclass('resources.' || resource_partition) IS NULL THEN
+        -- Leaves room for HOT updates, as storage parameters cannot be set on the partitioned table itself
+        EXECUTE format('CREATE TABLE resources.%I PARTITION OF resources.it_resource FOR VALUES IN (%L) '
+                           || 'WITH (fillfactor = 90)', resource_partition, p_tenant_id);
+        created := TRUE;
+    END IF;
+
+    IF to_regclass('resources.' || assign_partition) IS NULL THEN
+        EXECUTE format('CREATE TABLE resources.%I PARTITION OF resources.it_resource_assign FOR VALUES IN (%L) '
+                           || 'WITH (fillfactor = 90)', assign_partition, p_tenant_id);
+        -- PostgreSQL 16 has no exclusion constraints on partitioned tables. A resource never changes its tenant,
+        -- so one per partition still keeps every resource with at most one holder at a time.
+        EXECUTE format('ALTER TABLE resources.%I ADD CONSTRAINT %I '
+                           || 'EXCLUDE USING gist (resource_id WITH =, assigned_period WITH &&)',
+                       assign_partition, 'excl_' || assign_partition || '_period');
+        created := TRUE;
+    END IF;
+
+    IF to_regclass('resources.' || archive_partition) IS NULL THEN
+        EXECUTE format('CREATE TABLE resources.%I PARTITION OF resources.it_resource_assign_archive FOR VALUES IN (%L)',
+                       archive_partition, p_tenant_id);
+        created := TRUE;
+    END IF;
+
+    RETURN created;
+END;
+$$;
+
+SELECT resources.create_tenant_partitions('default');
+
+INSERT INTO resources.it_resource (tenant_id, id, name, type, status, serial_number, inventory_location, reserved_for,
+                                   reservation_expires_at, created_at, updated_at)
+SELECT 'default', id, name, type, status, serial_number, inventory_location, reserved_for, reservation_expires_at,
+       created_at, updated_at
+FROM resources.it_resource_unpartitioned;
+
+INSERT INTO resources.it_resource_assign (tenant_id, id, resource_id, user_id, status, assigned_date, due_date,
+                                          return_date, created_at, updated_at)
+SELECT 'default', id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+FROM resources.it_resource_assign_unpartitioned;
+
+INSERT INTO resources.it_resource_assign_archive (tenant_id, id, resource_id, user_id, status, assigned_date, due_date,
+                                                  return_date, created_at, updated_at, archived_at)
+SELECT 'default', id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at,
+       archived_at
+FROM resources.it_resource_assign_archive_unpartitioned;
+
+DROP TABLE resources.it_resource_assign_archive_unpartitioned;
+DROP TABLE resources.it_resource_assign_unpartitioned;
+DROP TABLE resources.it_resource_unpartitioned;
+
+-- Keys and unique constraints must contain the partition key. IDs come first, so a lookup by ID alone still uses
+-- the index of every partition it visits.
+ALTER TABLE resources.it_resource
+    ADD CONSTRAINT pk_it_resource PRIMARY KEY (id, tenant_id),
+    ADD CONSTRAINT uk_it_resource_serial_number UNIQUE (tenant_id, serial_number),
+    ADD CONSTRAINT check_it_resource_status
+        CHECK (status IN ('ASSIGNED', 'NOT_ASSIGNED', 'RESERVED', 'DEPRECATED')),
+    ADD CONSTRAINT check_it_resource_type
+        CHECK (type IN
+               ('LAPTOP', 'CHAIR', 'MOUSE', 'MOBILE', 'KEYBOARD', 'MONITOR', 'DESKTOP', 'PRINTER', 'SCANNER', 'OTHER')),
+    ADD CONSTRAINT check_it_resource_reservation
+        CHECK (status <> 'RESERVED' OR (reserved_for IS NOT NULL AND reservation_expires_at IS NOT NULL));
+
+-- An assignment always references a resource of its own tenant
+ALTER TABLE resources.it_resource_assign
+    ADD CONSTRAINT pk_it_resource_assign PRIMARY KEY (id, tenant_id),
+    ADD CONSTRAINT fk_resource_assign_resource
+        FOREIGN KEY (resource_id, tenant_id) REFERENCES resources.it_resource (id, tenant_id),
+    ADD CONSTRAINT check_it_resource_assign_status
+        CHECK (status IN ('RETURNED', 'NOT_RETURNED')),
+    ADD CONSTRAINT check_it_resource_assign_return_date
+        CHECK (return_date IS NULL OR return_date >= assigned_date);
+
+ALTER TABLE resources.it_resource_assign_archive
+    ADD CONSTRAINT pk_it_resource_assign_archive PRIMARY KEY (id, tenant_id),
+    ADD CONSTRAINT fk_resource_assign_archive_resource
+        FOREIGN KEY (resource_id, tenant_id) REFERENCES resources.it_resource (id, tenant_id);
+
+-- The indexes of before, now created on every partition
+CREATE INDEX idx_it_resource_type_status
+    ON resources.it_resource (type, status);
+
+CREATE INDEX idx_it_resource_name_upper_trgm
+    ON resources.it_resource USING gin (upper(name) gin_trgm_ops);
+
+CREATE INDEX idx_it_resource_name_trgm
+    ON resources.it_resource USING gin (name gin_trgm_ops);
+
+CREATE INDEX idx_it_resource_serial_number_trgm
+    ON resources.it_resource USING gin (serial_number gin_trgm_ops);
+
+CREATE INDEX idx_it_resource_created_at
+    ON resources.it_resource (created_at);
+
+CREATE INDEX idx_it_resource_available_type_location
+    ON resources.it_resource (type, inventory_location, id)
+    WHERE status = 'NOT_ASSIGNED';
+
+CREATE INDEX idx_it_resource_reservation_expires_at
+    ON resources.it_resource (reservation_expires_at)
+    WHERE status = 'RESERVED';
+
+CREATE INDEX idx_it_resource_assign_resource_id
+    ON resources.it_resource_assign (resource_id);
+
+CREATE INDEX idx_it_resource_assign_user_id
+    ON resources.it_resource_assign (user_id);
+
+CREATE INDEX idx_it_resource_assign_returned_return_date
+    ON resources.it_resource_assign (return_date)
+    WHERE status = 'RETURNED';
+
+CREATE INDEX idx_it_resource_assign_open_due_date
+    ON resources.it_resource_assign (due_date)
+    WHERE status = 'NOT_RETURNED';
+
+CREATE INDEX idx_it_resource_assign_assigned_date
+    ON resources.it_resource_assign (assigned_date);
+
+CREATE INDEX idx_it_resource_assign_open_user_holdings
+    ON resources.it_resource_assign (user_id) INCLUDE (resource_id, assigned_date)
+    WHERE status = 'NOT_RETURNED';
+
+CREATE INDEX idx_it_resource_assign_user_period
+    ON resources.it_resource_assign USING gist (user_id, assigned_period);
+
+CREATE INDEX idx_it_resource_assign_archive_resource_id
+    ON resources.it_resource_assign_archive (resource_id);
+
+CREATE INDEX idx_it_resource_assign_archive_user_id
+    ON resources.it_resource_assign_archive (user_id);
+
+-- Bulk jobs and idempotency keys belong to the tenant that submitted them
+ALTER TABLE resources.bulk_job
+    ADD COLUMN tenant_id TEXT NOT NULL DEFAULT 'default';
+
+ALTER TABLE resources.bulk_job
+    ALTER COLUMN tenant_id DROP DEFAULT;
+
+ALTER TABLE resources.idempotency_key
+    ADD COLUMN tenant_id TEXT NOT NULL DEFAULT 'default';
+
+ALTER TABLE resources.idempotency_key
+    ALTER COLUMN tenant_id DROP DEFAULT;
+
+ALTER TABLE resources.idempotency_key
+    DROP CONSTRAINT idempotency_key_pkey,
+    ADD CONSTRAINT pk_idempotency_key PRIMARY KEY (tenant_id, idempotency_key);
+
+-- Utilization rollups per tenant
+ALTER TABLE resources.monthly_utilization_closed
+    ADD COLUMN tenant_id TEXT NOT NULL DEFAULT 'default';
+
+ALTER TABLE resources.monthly_utilization_closed
+    ALTER COLUMN tenant_id DROP DEFAULT;
+
+ALTER TABLE resources.monthly_utilization_closed
+    DROP CONSTRAINT monthly_utilization_closed_pkey,
+    ADD CONSTRAINT pk_monthly_utilization_closed PRIMARY KEY (tenant_id, month, type);
+
+-- Days assigned and days owned per tenant, resource type and month, for the months from first_month to last_month.
+-- The running month only counts up to today.
+CREATE FUNCTION resources.compute_monthly_utilization(first_month DATE, last_month DATE)
+    RETURNS TABLE
+            (
+                tenant_id     TEXT,
+                month         DATE,
+                type          TEXT,
+                days_assigned BIGINT,
+                days_owned    BIGINT
+            )
+    LANGUAGE sql
+    STABLE AS
+$$
+WITH months AS (SELECT m::date                                                                 AS month,
+                       daterange(m::date, least((m + INTERVAL '1 month')::date, current_date + 1)) AS span
+                FROM generate_series(first_month, last_month, INTERVAL '1 month') AS m),
+     owned AS (SELECT r.tenant_id, mo.month, r.type, sum(upper(o.span) - lower(o.span)) AS days
+               FROM months mo
+                        JOIN resources.it_resource r ON r.created_at::date < upper(mo.span)
+                        CROSS JOIN LATERAL (SELECT mo.span * daterange(r.created_at::date, NULL) AS span) o
+               GROUP BY r.tenant_id, mo.month, r.type),
+     periods AS (SELECT p.tenant_id, p.resource_id, p.assigned_period
+                 FROM resources.it_resource_assign p
+                 UNION ALL
+                 SELECT p.tenant_id, p.resource_id, p.assigned_period
+                 FROM resources.it_resource_assign_archive p),
+     assigned AS (SELECT r.tenant_id, mo.month, r.type, sum(upper(a.span) - lower(a.span)) AS days
+                  FROM months mo
+                           JOIN periods p ON p.assigned_period && mo.span
+                           JOIN resources.it_resource r ON r.id = p.resource_id AND r.tenant_id = p.tenant_id
+                           CROSS JOIN LATERAL (SELECT mo.span * p.assigned_period AS span) a
+                  GROUP BY r.tenant_id, mo.month, r.type)
+SELECT o.tenant_id, o.month, o.type, coalesce(a.days, 0), o.days
+FROM owned o
+         LEFT JOIN assigned a ON a.tenant_id = o.tenant_id AND a.month = o.month AND a.type = o.type
+$$;
+
+CREATE MATERIALIZED VIEW resources.monthly_utilization_open AS
+SELECT *
+FROM resources.compute_monthly_utilization(
+        coalesce((SELECT (max(month) + INTERVAL '1 month')::date FROM resources.monthly_utilization_closed),
+                 (SELECT date_trunc('month', min(created_at))::date FROM resources.it_resource)),
+        date_trunc('month', current_date)::date)
+WITH NO DATA;
+
+CREATE UNIQUE INDEX idx_monthly_utilization_open_tenant_month_type
+    ON resources.monthly_utilization_open (tenant_id, month, type);
+
+CREATE VIEW resources.monthly_utilization AS
+SELECT tenant_id, month, type, days_assigned, days_owned
+FROM resources.monthly_utilization_closed
+UNION ALL
+SELECT tenant_id, month, type, days_assigned, days_owned
+FROM resources.monthly_utilization_open
+WHERE month > coalesce((SELECT max(month) FROM resources.monthly_utilization_closed), '-infinity'::date);
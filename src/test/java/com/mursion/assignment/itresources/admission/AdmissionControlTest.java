@@ -0,0 +1,92 @@
+package com.mursion.assignment.itresources.admission;
+
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
+import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "mursion.admission.rate-limit.capacity=2",
+        "mursion.admission.rate-limit.refill-per-second=0.01",
+        "mursion.admission.trusted-proxies=127.0.0.1"
+})
+@AutoConfigureMockMvc
+public class AdmissionControlTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ItResourceAssignRepository itResourceAssignRepository;
+
+    @Autowired
+    private ItResourceRepository itResourceRepository;
+
+    @BeforeEach
+    void setUp() {
+        itResourceAssignRepository.deleteAll();
+        itResourceRepository.deleteAll();
+    }
+
+    @Test
+    void testRateLimitedClientGets429WithRetryAfter() throws Exception {
+        String clientId = UUID.randomUUID().toString();
+
+        mockMvc.perform(get("/api/resources").header("X-Client-Id", clientId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/resources").header("X-Client-Id", clientId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/resources").header("X-Client-Id", clientId))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testClientsHaveSeparateBuckets() throws Exception {
+        String noisyClient = UUID.randomUUID().toString();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/resources").header("X-Client-Id", noisyClient));
+        }
+
+        mockMvc.perform(get("/api/resources").header("X-Client-Id", UUID.randomUUID().toString()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testClientIdHeaderFromUntrustedCallerIsIgnored() throws Exception {
+        RequestPostProcessor untrustedCaller = request -> {
+            request.setRemoteAddr("192.0.2.17");
+            return request;
+        };
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/resources").header("X-Client-Id", UUID.randomUUID().toString()).with(untrustedCaller))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/resources").header("X-Client-Id", UUID.randomUUID().toString()).with(untrustedCaller))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void testAssignmentWritesAreNeverRateLimited() throws Exception {
+        String clientId = UUID.randomUUID().toString();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/resources").header("X-Client-Id", clientId));
+        }
+
+        mockMvc.perform(delete("/api/assignments/{id}", UUID.randomUUID()).header("X-Client-Id", clientId))
+                .andExpect(status().isNoContent());
+    }
+}
@@ -0,0 +1,38 @@
+package com.mursion.assignment.itresources.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void testRefill() {
+        TokenBucket bucket = new TokenBucket(1, 2, 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(SECOND / 4)).isEqualTo(SECOND / 4);
+        assertThat(bucket.tryConsume(SECOND / 2)).isZero();
+    }
+
+    @Test
+    void testRefillIsCappedAtCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10, 0);
+
+        assertThat(bucket.tryConsume(60 * SECOND)).isZero();
+        assertThat(bucket.tryConsume(60 * SECOND)).isZero();
+        assertThat(bucket.tryConsume(60 * SECOND)).isPositive();
+    }
+}
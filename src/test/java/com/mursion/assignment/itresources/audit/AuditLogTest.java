@@ -0,0 +1,175 @@
+package com.mursion.assignment.itresources.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.dto.it_resource.ItResourceSearchDto;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
+import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import com.mursion.assignment.itresources.service.ItResourceService;
+import com.mursion.assignment.itresources.support.MergePatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "mursion.audit.flush-interval=20ms")
+@AutoConfigureMockMvc
+@Testcontainers
+public class AuditLogTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ItResourceService itResourceService;
+
+    @Autowired
+    private ItResourceRepository itResourceRepository;
+
+    @Autowired
+    private ItResourceAssignRepository itResourceAssignRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        itResourceAssignRepository.deleteAll();
+        itResourceRepository.deleteAll();
+    }
+
+    @Test
+    void testInsertIsAuditedAfterCommit() throws Exception {
+        ItResource resource = itResourceService.saveResource(newResource("SN-AUDIT-1"));
+
+        List<Map<String, Object>> rows = awaitAuditRows(resource.getId(), 1);
+        assertThat(rows.getFirst()).containsEntry("entity_type", "ItResource")
+                .containsEntry("action", "INSERT")
+                .containsEntry("actor", AuditTrail.SYSTEM_ACTOR);
+        JsonNode changes = objectMapper.readTree(rows.getFirst().get("changes").toString());
+        assertThat(changes.at("/serialNumber/new").asText()).isEqualTo("SN-AUDIT-1");
+        assertThat(changes.at("/serialNumber/old").isMissingNode()).isTrue();
+    }
+
+    @Test
+    void testUpdateRecordsOnlyChangedPropertiesAndActor() throws Exception {
+        ItResource resource = itResourceService.saveResource(newResource("SN-AUDIT-2"));
+        awaitAuditRows(resource.getId(), 1);
+
+        mockMvc.perform(patch("/api/resources/{id}", resource.getId())
+                        .header("X-Client-Id", "helpdesk-7")
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"inventoryLocation\": \"Office B\"}"))
+                .andExpect(status().isOk());
+
+        Map<String, Object> update = awaitAuditRows(resource.getId(), 2).get(1);
+        assertThat(update).containsEntry("action", "UPDATE").containsEntry("actor", "127.0.0.1 (unverified: helpdesk-7)");
+        JsonNode changes = objectMapper.readTree(update.get("changes").toString());
+        assertThat(changes.at("/inventoryLocation/old").asText()).isEqualTo("Office A");
+        assertThat(changes.at("/inventoryLocation/new").asText()).isEqualTo("Office B");
+        assertThat(changes.has("serialNumber")).isFalse();
+    }
+
+    @Test
+    void testAuthenticatedPrincipalIsTheActor() throws Exception {
+        ItResource resource = itResourceService.saveResource(newResource("SN-AUDIT-6"));
+        awaitAuditRows(resource.getId(), 1);
+
+        mockMvc.perform(patch("/api/resources/{id}", resource.getId())
+                        .principal(() -> "helpdesk-admin")
+                        .header("X-Client-Id", "someone-else")
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"inventoryLocation\": \"Office C\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(awaitAuditRows(resource.getId(), 2).get(1)).containsEntry("actor", "helpdesk-admin");
+    }
+
+    @Test
+    void testRolledBackChangeIsNotAudited() throws Exception {
+        UUID id = transactionTemplate.execute(status -> {
+            ItResource resource = itResourceService.saveResource(newResource("SN-AUDIT-3"));
+            status.setRollbackOnly();
+            return resource.getId();
+        });
+
+        Thread.sleep(200);
+        assertThat(auditRows(id)).isEmpty();
+    }
+
+    @Test
+    void testSetBasedStatusTransitionIsAudited() throws Exception {
+        ItResource resource = itResourceService.saveResource(newResource("SN-AUDIT-4"));
+        awaitAuditRows(resource.getId(), 1);
+
+        ItResourceSearchDto filter = new ItResourceSearchDto();
+        filter.setSerialNumber("SN-AUDIT-4");
+        itResourceService.transitionStatus(filter, ItResource.ResourceStatus.DEPRECATED);
+
+        Map<String, Object> update = awaitAuditRows(resource.getId(), 2).get(1);
+        assertThat(update).containsEntry("action", "UPDATE");
+        JsonNode changes = objectMapper.readTree(update.get("changes").toString());
+        assertThat(changes.at("/status/new").asText()).isEqualTo("DEPRECATED");
+    }
+
+    @Test
+    void testAuditLogIsAppendOnly() throws Exception {
+        ItResource resource = itResourceService.saveResource(newResource("SN-AUDIT-5"));
+        awaitAuditRows(resource.getId(), 1);
+
+        assertThatThrownBy(() -> jdbcTemplate.update("UPDATE resources.audit_log SET actor = 'someone else' WHERE entity_id = ?",
+                resource.getId())).isInstanceOf(DataAccessException.class);
+        assertThatThrownBy(() -> jdbcTemplate.update("DELETE FROM resources.audit_log WHERE entity_id = ?", resource.getId()))
+                .isInstanceOf(DataAccessException.class);
+    }
+
+    private ItResource newResource(String serialNumber) {
+        ItResource resource = new ItResource();
+        resource.setName("Dell Laptop");
+        resource.setType(ItResource.ResourceType.LAPTOP);
+        resource.setSerialNumber(serialNumber);
+        resource.setInventoryLocation("Office A");
+        resource.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
+        return resource;
+    }
+
+    private List<Map<String, Object>> awaitAuditRows(UUID entityId, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        List<Map<String, Object>> rows = auditRows(entityId);
+        while (rows.size() < count) {
+            assertThat(System.currentTimeMillis()).as("audit rows not written in time").isLessThan(deadline);
+            Thread.sleep(20);
+            rows = auditRows(entityId);
+        }
+        return rows;
+    }
+
+    private List<Map<String, Object>> auditRows(UUID entityId) {
+        return jdbcTemplate.queryForList(
+                "SELECT entity_type, action, actor, changes::text AS changes FROM resources.audit_log WHERE entity_id = ? ORDER BY id",
+                entityId);
+    }
+}
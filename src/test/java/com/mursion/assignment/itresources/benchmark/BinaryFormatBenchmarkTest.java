@@ -0,0 +1,114 @@
+package com.mursion.assignment.itresources.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.model.ItResourceAssign;
+import com.mursion.assignment.itresources.model.id.UuidV7Generator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares payload size and encode/decode cost of JSON, Smile and CBOR for a bulk assignment list, using mappers
+ * configured like the application's message converters. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class BinaryFormatBenchmarkTest {
+
+    private static final int ASSIGNMENTS = Integer.getInteger("benchmark.formats.assignments", 10_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.formats.iterations", 50);
+    private static final int WARMUP_ITERATIONS = 20;
+
+    private static final TypeReference<List<ItResourceAssign>> ASSIGNMENT_LIST = new TypeReference<>() {
+    };
+
+    @Test
+    void benchmarkPayloadSizeAndEncodeCost() throws Exception {
+        List<ItResourceAssign> assignments = createAssignments();
+
+        Result json = measure(mapper(new Jackson2ObjectMapperBuilder()), assignments);
+        Result smile = measure(mapper(new Jackson2ObjectMapperBuilder().factory(new SmileFactory())), assignments);
+        Result cbor = measure(mapper(new Jackson2ObjectMapperBuilder().factory(new CBORFactory())), assignments);
+
+        System.out.printf("%-8s %14s %14s %14s%n", "format", "bytes", "encode (ms)", "decode (ms)");
+        System.out.printf("%-8s %14d %14.2f %14.2f%n", "json", json.bytes(), json.encodeMillis(), json.decodeMillis());
+        System.out.printf("%-8s %14d %14.2f %14.2f%n", "smile", smile.bytes(), smile.encodeMillis(), smile.decodeMillis());
+        System.out.printf("%-8s %14d %14.2f %14.2f%n", "cbor", cbor.bytes(), cbor.encodeMillis(), cbor.decodeMillis());
+
+        assertThat(smile.bytes()).isLessThan(json.bytes());
+        assertThat(cbor.bytes()).isLessThan(json.bytes());
+    }
+
+    private ObjectMapper mapper(Jackson2ObjectMapperBuilder builder) {
+        // Matches Spring Boot's Jackson defaults
+        return builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    }
+
+    private Result measure(ObjectMapper mapper, List<ItResourceAssign> assignments) throws Exception {
+        byte[] payload = mapper.writeValueAsBytes(assignments);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(assignments), ASSIGNMENT_LIST);
+        }
+
+        long encodeStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            payload = mapper.writeValueAsBytes(assignments);
+        }
+        long encodeNanos = System.nanoTime() - encodeStart;
+
+        long decodeStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertThat(mapper.readValue(payload, ASSIGNMENT_LIST)).hasSize(assignments.size());
+        }
+        long decodeNanos = System.nanoTime() - decodeStart;
+
+        return new Result(payload.length, encodeNanos / 1_000_000.0 / ITERATIONS, decodeNanos / 1_000_000.0 / ITERATIONS);
+    }
+
+    private List<ItResourceAssign> createAssignments() {
+        SplittableRandom random = new SplittableRandom(42);
+        ItResource.ResourceType[] types = ItResource.ResourceType.values();
+        LocalDateTime now = LocalDateTime.now();
+        List<ItResourceAssign> assignments = new ArrayList<>(ASSIGNMENTS);
+
+        for (int i = 0; i < ASSIGNMENTS; i++) {
+            ItResource resource = new ItResource();
+            resource.setId(UuidV7Generator.generateUuid());
+            resource.setName("Resource " + i);
+            resource.setType(types[random.nextInt(types.length)]);
+            resource.setStatus(ItResource.ResourceStatus.ASSIGNED);
+            resource.setSerialNumber("SN%010d".formatted(i));
+            resource.setInventoryLocation("Office " + random.nextInt(100));
+            resource.setCreatedAt(now.minusDays(random.nextInt(1000)));
+            resource.setUpdatedAt(now);
+
+            ItResourceAssign assignment = new ItResourceAssign();
+            assignment.setId(UuidV7Generator.generateUuid());
+            assignment.setResource(resource);
+            assignment.setUserId(UUID.randomUUID());
+            assignment.setStatus(ItResourceAssign.AssignStatus.NOT_RETURNED);
+            assignment.setAssignedDate(LocalDate.now().minusDays(random.nextInt(365)));
+            assignment.setDueDate(assignment.getAssignedDate().plusDays(90));
+            assignment.setCreatedAt(now);
+            assignment.setUpdatedAt(now);
+            assignments.add(assignment);
+        }
+        return assignments;
+    }
+
+    private record Result(long bytes, double encodeMillis, double decodeMillis) {
+    }
+}
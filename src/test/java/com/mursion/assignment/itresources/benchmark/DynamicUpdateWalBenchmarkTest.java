@@ -0,0 +1,90 @@
+package com.mursion.assignment.itresources.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import com.mursion.assignment.itresources.service.ItResourceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares WAL bytes per update for a full-row UPDATE, as the PUT endpoint used to issue, and a merge patch that only
+ * writes the changed column. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class DynamicUpdateWalBenchmarkTest extends BaseIntegrationTest {
+
+    private static final int UPDATES = Integer.getInteger("benchmark.wal.updates", 2_000);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ItResourceRepository itResourceRepository;
+
+    @Autowired
+    private ItResourceService itResourceService;
+
+    private final List<ItResource> resources = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        itResourceRepository.deleteAll();
+        resources.clear();
+        for (int i = 0; i < UPDATES; i++) {
+            ItResource resource = new ItResource();
+            resource.setName("Laptop " + i);
+            resource.setType(ItResource.ResourceType.LAPTOP);
+            resource.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
+            resource.setSerialNumber("SN-WAL-" + i);
+            resource.setInventoryLocation("Office A");
+            resources.add(resource);
+        }
+        itResourceRepository.saveAll(resources);
+    }
+
+    @Test
+    void benchmarkWalBytesPerUpdate() {
+        long fullRowBytes = measureWal(() -> {
+            for (ItResource resource : resources) {
+                jdbcTemplate.update("UPDATE resources.it_resource SET name = ?, type = ?, status = ?, serial_number = ?, "
+                                + "inventory_location = ? WHERE id = ?",
+                        resource.getName(), resource.getType().name(), resource.getStatus().name(),
+                        resource.getSerialNumber(), "Office B", resource.getId());
+            }
+        });
+
+        long patchBytes = measureWal(() -> {
+            for (ItResource resource : resources) {
+                itResourceService.patchResource(resource.getId(),
+                        objectMapper.createObjectNode().put("inventoryLocation", "Office C"));
+            }
+        });
+
+        System.out.printf("%-10s %10s %18s%n", "update", "rows", "WAL bytes/update");
+        System.out.printf("%-10s %10d %18d%n", "full row", UPDATES, fullRowBytes / UPDATES);
+        System.out.printf("%-10s %10d %18d%n", "patch", UPDATES, patchBytes / UPDATES);
+
+        assertThat(patchBytes).isLessThanOrEqualTo(fullRowBytes);
+    }
+
+    private long measureWal(Runnable updates) {
+        String start = jdbcTemplate.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+        updates.run();
+        Long bytes = jdbcTemplate.queryForObject(
+                "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), CAST(? AS pg_lsn))::bigint", Long.class, start);
+        return bytes;
+    }
+}
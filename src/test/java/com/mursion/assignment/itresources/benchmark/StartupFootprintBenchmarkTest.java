@@ -0,0 +1,161 @@
+package com.mursion.assignment.itresources.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the packaged application in each of its startup variants against the same database and compares time to a
+ * started context and resident memory. Run with {@code ./gradlew startupBenchmark} or, including the native image,
+ * {@code ./gradlew startupBenchmark -Paot}. RSS is read from /proc, so this only runs on Linux.
+ */
+@Tag("startup")
+public class StartupFootprintBenchmarkTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final int RUNS = Integer.getInteger("startup.runs", 3);
+
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres.start();
+        // The server only verifies the schema, so migrate it once up front
+        List<String> migrate = new ArrayList<>(jvmCommand());
+        migrate.add("--spring.profiles.active=migrate");
+        start(migrate, new File(System.getProperty("startup.jar")).getParentFile()).close();
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        postgres.stop();
+    }
+
+    @Test
+    void benchmarkStartupTimeAndRss() throws Exception {
+        List<Result> results = new ArrayList<>();
+        results.add(measure("jvm", jvmCommand(), new File(System.getProperty("startup.jar")).getParentFile()));
+        results.add(measure(Boolean.getBoolean("startup.aot") ? "aot+cds" : "cds", cdsCommand(),
+                new File(System.getProperty("startup.cds.dir"))));
+
+        Path nativeImage = Path.of(System.getProperty("startup.native"));
+        if (Boolean.getBoolean("startup.aot") && Files.isExecutable(nativeImage)) {
+            results.add(measure("native", List.of(nativeImage.toString(), "--server.port=0"), nativeImage.getParent().toFile()));
+        }
+
+        System.out.printf("%-10s %16s %12s%n", "variant", "startup (ms)", "RSS (MB)");
+        results.forEach(result -> System.out.printf("%-10s %16d %12d%n", result.variant(), result.startupMillis(), result.rssKb() / 1024));
+
+        Result jvm = results.getFirst();
+        assertThat(results.subList(1, results.size()))
+                .allSatisfy(result -> assertThat(result.startupMillis()).isLessThan(jvm.startupMillis()));
+    }
+
+    private Result measure(String variant, List<String> command, File workingDir) throws Exception {
+        long totalMillis = 0;
+        long maxRssKb = 0;
+        for (int run = 0; run < RUNS; run++) {
+            try (RunningApplication application = start(command, workingDir)) {
+                totalMillis += application.startupMillis();
+                maxRssKb = Math.max(maxRssKb, application.rssKb());
+            }
+        }
+        return new Result(variant, totalMillis / RUNS, maxRssKb);
+    }
+
+    private static List<String> jvmCommand() {
+        return List.of(System.getProperty("startup.java"), "-jar", System.getProperty("startup.jar"), "--server.port=0");
+    }
+
+    private static List<String> cdsCommand() {
+        List<String> command = new ArrayList<>(List.of(System.getProperty("startup.java"), "-XX:SharedArchiveFile=application.jsa"));
+        if (Boolean.getBoolean("startup.aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-jar", new File(System.getProperty("startup.jar")).getName(), "--server.port=0"));
+        return command;
+    }
+
+    private static RunningApplication start(List<String> command, File workingDir) throws Exception {
+        ProcessBuilder builder = new ProcessBuilder(command).directory(workingDir).redirectErrorStream(true);
+        builder.environment().putAll(Map.of(
+                "JDBC_URL", postgres.getJdbcUrl(),
+                "DB_USERNAME", postgres.getUsername(),
+                "DB_PASSWORD", postgres.getPassword()));
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        long deadline = start + STARTUP_TIMEOUT.toNanos();
+        String line;
+        while ((line = output.readLine()) != null) {
+            if (line.contains("Started MursionApplication")) {
+                long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                // Keep draining the output, otherwise the application blocks on a full pipe while logging
+                Thread.startVirtualThread(() -> drain(output));
+                return new RunningApplication(process, startupMillis, readRssKb(process.pid()));
+            }
+            if (System.nanoTime() > deadline) {
+                break;
+            }
+        }
+        process.destroyForcibly();
+        throw new IllegalStateException("Application did not start: " + String.join(" ", command));
+    }
+
+    private static void drain(BufferedReader output) {
+        try {
+            output.transferTo(Writer.nullWriter());
+        } catch (IOException e) {
+            // The process is gone
+        }
+    }
+
+    private static long readRssKb(long pid) throws IOException {
+        try {
+            return Files.readAllLines(Path.of("/proc", Long.toString(pid), "status")).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(0L);
+        } catch (NoSuchFileException e) {
+            // One-shot runs such as the migration may already have exited
+            return 0;
+        }
+    }
+
+    private record RunningApplication(Process process, long startupMillis, long rssKb) implements AutoCloseable {
+
+        @Override
+        public void close() throws InterruptedException {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private record Result(String variant, long startupMillis, long rssKb) {
+    }
+}
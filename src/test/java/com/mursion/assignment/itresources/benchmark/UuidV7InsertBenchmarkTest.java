@@ -0,0 +1,74 @@
+package com.mursion.assignment.itresources.benchmark;
+
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.model.id.UuidV7Generator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares insert throughput and primary-key index size for random (v4) and time-ordered (v7) UUID keys.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class UuidV7InsertBenchmarkTest extends BaseIntegrationTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.uuid.rows", 500_000);
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE resources.uuid_v4_benchmark (id uuid PRIMARY KEY, payload text NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE resources.uuid_v7_benchmark (id uuid PRIMARY KEY, payload text NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS resources.uuid_v4_benchmark");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS resources.uuid_v7_benchmark");
+    }
+
+    @Test
+    void benchmarkInsertThroughputAndIndexSize() {
+        Result v4 = insertRows("resources.uuid_v4_benchmark", UUID::randomUUID);
+        Result v7 = insertRows("resources.uuid_v7_benchmark", UuidV7Generator::generateUuid);
+
+        System.out.printf("%-8s %12s %14s %16s%n", "keys", "rows", "rows/sec", "pkey size (kB)");
+        System.out.printf("%-8s %12d %14.0f %16d%n", "v4", ROWS, v4.rowsPerSecond(), v4.indexBytes() / 1024);
+        System.out.printf("%-8s %12d %14.0f %16d%n", "v7", ROWS, v7.rowsPerSecond(), v7.indexBytes() / 1024);
+
+        assertThat(v7.indexBytes()).isLessThan(v4.indexBytes());
+    }
+
+    private Result insertRows(String table, Supplier<UUID> idSupplier) {
+        long start = System.nanoTime();
+        for (int inserted = 0; inserted < ROWS; inserted += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.add(new Object[]{idSupplier.get(), "payload-" + (inserted + i)});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (id, payload) VALUES (?, ?)", batch);
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Long indexBytes = jdbcTemplate.queryForObject(
+                "SELECT pg_relation_size(CAST(? AS regclass))", Long.class, table + "_pkey");
+        return new Result(ROWS / seconds, indexBytes);
+    }
+
+    private record Result(double rowsPerSecond, long indexBytes) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.mursion.assignment.itresources.cache;
+
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.config.CacheInvalidationProperties;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
+import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import com.mursion.assignment.itresources.service.ItResourceService;
+import com.mursion.assignment.itresources.tenant.TenantContext;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "mursion.cache.invalidation.reconnect-delay=100ms")
+@Testcontainers
+public class CacheInvalidationTest extends BaseIntegrationTest {
+
+    private static final String REMOTE_NODE = "remote-node";
+
+    @Autowired
+    private ItResourceService itResourceService;
+
+    @Autowired
+    private ItResourceRepository itResourceRepository;
+
+    @Autowired
+    private ItResourceAssignRepository itResourceAssignRepository;
+
+    @Autowired
+    private CacheInvalidationProperties properties;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Connection listenConnection;
+    private ItResource testResource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        itResourceAssignRepository.deleteAll();
+        itResourceRepository.deleteAll();
+
+        testResource = new ItResource();
+        testResource.setName("Dell Laptop");
+        testResource.setType(ItResource.ResourceType.LAPTOP);
+        testResource.setSerialNumber("SN001");
+        testResource.setInventoryLocation("Office A");
+        testResource.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
+        testResource = itResourceRepository.save(testResource);
+
+        listenConnection = DriverManager.getConnection(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword());
+        try (Statement statement = listenConnection.createStatement()) {
+            statement.execute("LISTEN \"" + properties.getChannel() + "\"");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        listenConnection.close();
+    }
+
+    @Test
+    void testWritePublishesChangedResourceOnCommit() throws Exception {
+        itResourceService.updateResource(testResource.getId(), testResource);
+
+        List<String> payloads = receivePayloads();
+        assertThat(payloads).containsExactly(properties.getNodeId() + "|" + testResource.getId());
+    }
+
+    @Test
+    void testRolledBackWritePublishesNothing() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            itResourceService.updateResource(testResource.getId(), testResource);
+            status.setRollbackOnly();
+        });
+
+        assertThat(receivePayloads()).isEmpty();
+    }
+
+    @Test
+    void testChangesInOneTransactionAreCoalesced() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            itResourceService.updateResource(testResource.getId(), testResource);
+            itResourceService.updateResource(testResource.getId(), testResource);
+        });
+
+        assertThat(receivePayloads()).hasSize(1);
+    }
+
+    @Test
+    void testRemoteChangeEvictsCachedResource() throws Exception {
+        itResourceRepository.findById(testResource.getId());
+        assertThat(isCached(testResource.getId())).isTrue();
+
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, properties.getChannel(),
+                REMOTE_NODE + "|" + testResource.getId());
+
+        awaitTrue(() -> !isCached(testResource.getId()));
+    }
+
+    @Test
+    void testOwnChangeDoesNotEvictCachedResource() throws Exception {
+        itResourceRepository.findById(testResource.getId());
+
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, properties.getChannel(),
+                properties.getNodeId() + "|" + testResource.getId());
+        receivePayloads();
+        Thread.sleep(properties.getBatchWindow().toMillis() * 4);
+
+        assertThat(isCached(testResource.getId())).isTrue();
+    }
+
+    @Test
+    void testReconnectFlushesCache() throws Exception {
+        awaitTrue(() -> listenerBackends() == 1);
+        itResourceRepository.findById(testResource.getId());
+        assertThat(isCached(testResource.getId())).isTrue();
+
+        jdbcTemplate.queryForObject("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                Object.class, CacheInvalidationListener.APPLICATION_NAME);
+
+        awaitTrue(() -> !isCached(testResource.getId()));
+        awaitTrue(() -> listenerBackends() == 1);
+    }
+
+    @Test
+    void testLargeKeySetsAreSplitIntoPayloadsThatFitANotification() {
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < InvalidationMessage.MAX_KEYS * 2 + 1; i++) {
+            keys.add(UUID.randomUUID().toString());
+        }
+
+        List<String> payloads = InvalidationMessage.encode(properties.getNodeId(), keys);
+
+        assertThat(payloads).hasSize(3).allSatisfy(payload -> assertThat(payload.length()).isLessThan(8000));
+        List<String> decoded = new ArrayList<>();
+        payloads.forEach(payload -> decoded.addAll(InvalidationMessage.decode(payload).keys()));
+        assertThat(decoded).containsExactlyElementsOf(keys);
+        assertThat(InvalidationMessage.encode(properties.getNodeId(), Set.of(InvalidationMessage.ALL, "x")))
+                .containsExactly(properties.getNodeId() + "|" + InvalidationMessage.ALL);
+    }
+
+    private List<String> receivePayloads() throws Exception {
+        List<String> payloads = new ArrayList<>();
+        PGNotification[] notifications = listenConnection.unwrap(PGConnection.class).getNotifications(500);
+        if (notifications != null) {
+            for (PGNotification notification : notifications) {
+                payloads.add(notification.getParameter());
+            }
+        }
+        return payloads;
+    }
+
+    private boolean isCached(UUID id) {
+        // Cache keys include the tenant, which the JPA cache API leaves out
+        SessionFactoryImplementor factory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(ItResource.class);
+        EntityDataAccess cache = persister.getCacheAccessStrategy();
+        return cache.contains(cache.generateCacheKey(id, persister, factory, TenantContext.DEFAULT_TENANT));
+    }
+
+    private int listenerBackends() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM pg_stat_activity WHERE application_name = ?",
+                Integer.class, CacheInvalidationListener.APPLICATION_NAME);
+    }
+
+    private void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
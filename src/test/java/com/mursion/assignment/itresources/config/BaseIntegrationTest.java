@@ -22,5 +22,7 @@ public abstract class BaseIntegrationTest {
         registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
         registry.add("spring.datasource.username", postgresContainer::getUsername);
         registry.add("spring.datasource.password", postgresContainer::getPassword);
+        // Every container starts empty, so tests migrate it on startup instead of only verifying the schema
+        registry.add("spring.liquibase.enabled", () -> "true");
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.mursion.assignment.itresources.config;
+
+import com.mursion.assignment.itresources.dto.it_resource.ItResourceSearchDto;
+import com.mursion.assignment.itresources.dto.it_resource_assign.CurrentHoldingView;
+import com.mursion.assignment.itresources.model.id.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.data.projection.TargetAware;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTest() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void testChangelogResources() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/changelog/db.changelog-master.yaml")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/changelog/changes/001-initial-schema.yaml")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/changelog/changes/002-add-constraint.sql")).accepts(hints);
+    }
+
+    @Test
+    void testIdGeneratorIsInstantiable() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(UuidV7Generator.class)).accepts(hints);
+    }
+
+    @Test
+    void testProjectionProxy() {
+        assertThat(RuntimeHintsPredicates.proxies()
+                .forInterfaces(AopProxyUtils.completeJdkProxyInterfaces(CurrentHoldingView.class, TargetAware.class)))
+                .accepts(hints);
+    }
+
+    @Test
+    void testDocumentedTypes() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(ItResourceSearchDto.class)).accepts(hints);
+    }
+}
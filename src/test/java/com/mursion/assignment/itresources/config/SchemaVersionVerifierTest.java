@@ -0,0 +1,47 @@
+package com.mursion.assignment.itresources.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SchemaVersionVerifierTest extends BaseIntegrationTest {
+
+    private static final String CHANGE_LOG = "classpath:db/changelog/db.changelog-master.yaml";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void testMigratedSchemaPasses() {
+        SchemaVersionVerifier verifier = new SchemaVersionVerifier(jdbcTemplate, resourceLoader, CHANGE_LOG);
+
+        assertThat(verifier.findMissingChangelogs()).isEmpty();
+        verifier.verify();
+    }
+
+    @Test
+    void testMissingChangelogFails() {
+        SchemaVersionVerifier verifier = new SchemaVersionVerifier(jdbcTemplate, resourceLoader, CHANGE_LOG);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM databasechangelog WHERE filename LIKE '%009-add-current-holdings-index.sql'");
+
+            assertThat(verifier.findMissingChangelogs()).containsExactly("db/changelog/changes/009-add-current-holdings-index.sql");
+            assertThatThrownBy(verifier::verify)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("migrate");
+            status.setRollbackOnly();
+        });
+    }
+}
@@ -6,6 +6,7 @@ import com.mursion.assignment.itresources.model.ItResource;
 import com.mursion.assignment.itresources.model.ItResourceAssign;
 import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
 import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import com.mursion.assignment.itresources.support.MergePatch;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +23,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import java.time.LocalDate;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -123,4 +125,178 @@ public class ItResourceAssignControllerTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(2));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPatchAssignment() throws Exception {
+        ItResource resource = resourceRepository.save(new ItResource());
+
+        ItResourceAssign assignment = new ItResourceAssign();
+        assignment.setResource(resource);
+        assignment.setUserId(UUID.randomUUID());
+        assignment.setStatus(ItResourceAssign.AssignStatus.NOT_RETURNED);
+        assignment.setAssignedDate(LocalDate.now());
+        ItResourceAssign savedAssignment = assignRepository.save(assignment);
+
+        LocalDate dueDate = LocalDate.now().plusDays(7);
+        mockMvc.perform(patch("/api/assignments/{id}", savedAssignment.getId())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"dueDate\": \"" + dueDate + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dueDate").value(dueDate.toString()))
+                .andExpect(jsonPath("$.userId").value(savedAssignment.getUserId().toString()));
+
+        ItResourceAssign patched = assignRepository.findById(savedAssignment.getId()).orElseThrow();
+        assertThat(patched.getDueDate()).isEqualTo(dueDate);
+        assertThat(patched.getStatus()).isEqualTo(ItResourceAssign.AssignStatus.NOT_RETURNED);
+
+        mockMvc.perform(patch("/api/assignments/{id}", savedAssignment.getId())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"resource\": null}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/assignments/{id}", savedAssignment.getId())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"assignedDate\": null}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAssignmentHistory() throws Exception {
+        ItResource resource = new ItResource();
+        resource.setName("Dell XPS 15");
+        resource.setType(ItResource.ResourceType.LAPTOP);
+        resource.setSerialNumber("DXPS15-HIST");
+        resource.setInventoryLocation("Warehouse B");
+        resource.setStatus(ItResource.ResourceStatus.ASSIGNED);
+        resource = resourceRepository.save(resource);
+
+        UUID userId = UUID.randomUUID();
+        ItResourceAssign assignment = new ItResourceAssign();
+        assignment.setResource(resource);
+        assignment.setUserId(userId);
+        assignment.setStatus(ItResourceAssign.AssignStatus.NOT_RETURNED);
+        assignment.setAssignedDate(LocalDate.of(2023, 1, 15));
+        assignRepository.save(assignment);
+
+        mockMvc.perform(get("/api/assignments/history/on")
+                        .param("serialNumber", "DXPS15-HIST")
+                        .param("date", "2023-03-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].userId").value(userId.toString()));
+
+        mockMvc.perform(get("/api/assignments/history/overlapping")
+                        .param("userId", userId.toString())
+                        .param("from", "2022-10-01")
+                        .param("to", "2022-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(get("/api/assignments/history/overlapping")
+                        .param("userId", userId.toString())
+                        .param("resourceId", resource.getId().toString())
+                        .param("from", "2023-01-01")
+                        .param("to", "2023-03-31"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testAssigningUnavailableResourceIsConflict() throws Exception {
+        ItResource resource = new ItResource();
+        resource.setName("Dell XPS 13");
+        resource.setType(ItResource.ResourceType.LAPTOP);
+        resource.setSerialNumber("DXPS13-TAKEN");
+        resource.setInventoryLocation("Warehouse B");
+        resource.setStatus(ItResource.ResourceStatus.ASSIGNED);
+        resource = resourceRepository.save(resource);
+
+        ItResourceAssign assignment = new ItResourceAssign();
+        assignment.setResource(resource);
+        assignment.setUserId(UUID.randomUUID());
+        assignment.setStatus(ItResourceAssign.AssignStatus.NOT_RETURNED);
+        assignment.setAssignedDate(LocalDate.now());
+
+        mockMvc.perform(post("/api/assignments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(assignment)))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.reason").value("resource_not_available"))
+                .andExpect(jsonPath("$.detail").value("Resource is not available for assignment"));
+        assertThat(assignRepository.count()).isZero();
+    }
+
+    @Test
+    void testOverlappingAssignmentIsConflict() throws Exception {
+        ItResource resource = new ItResource();
+        resource.setName("Dell XPS 13");
+        resource.setType(ItResource.ResourceType.LAPTOP);
+        resource.setSerialNumber("DXPS13-OVERLAP");
+        resource.setInventoryLocation("Warehouse B");
+        resource.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
+        resource = resourceRepository.save(resource);
+
+        ItResourceAssign returned = new ItResourceAssign();
+        returned.setResource(resource);
+        returned.setUserId(UUID.randomUUID());
+        returned.setStatus(ItResourceAssign.AssignStatus.RETURNED);
+        returned.setAssignedDate(LocalDate.of(2023, 1, 1));
+        returned.setReturnDate(LocalDate.of(2023, 3, 1));
+        assignRepository.save(returned);
+
+        ItResourceAssign assignment = new ItResourceAssign();
+        assignment.setResource(resource);
+        assignment.setUserId(UUID.randomUUID());
+        assignment.setStatus(ItResourceAssign.AssignStatus.NOT_RETURNED);
+        assignment.setAssignedDate(LocalDate.of(2023, 2, 1));
+
+        mockMvc.perform(post("/api/assignments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(assignment)))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.reason").value("assignment_period_overlap"));
+        assertThat(assignRepository.count()).isEqualTo(1);
+        assertThat(resourceRepository.findById(resource.getId())).get()
+                .extracting(ItResource::getStatus).isEqualTo(ItResource.ResourceStatus.NOT_ASSIGNED);
+    }
+
+    @Test
+    void testAutoAssignOverlappingConcurrentAssignmentIsConflict() throws Exception {
+        ItResource resource = new ItResource();
+        resource.setName("Dell XPS 13");
+        resource.setType(ItResource.ResourceType.LAPTOP);
+        resource.setSerialNumber("DXPS13-AUTO-OVERLAP");
+        resource.setInventoryLocation("Warehouse C");
+        resource.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
+        resource = resourceRepository.save(resource);
+
+        // Written by another request that has not updated the resource status yet
+        ItResourceAssign concurrent = new ItResourceAssign();
+        concurrent.setResource(resource);
+        concurrent.setUserId(UUID.randomUUID());
+        concurrent.setStatus(ItResourceAssign.AssignStatus.NOT_RETURNED);
+        concurrent.setAssignedDate(LocalDate.now());
+        assignRepository.save(concurrent);
+
+        mockMvc.perform(post("/api/assignments/auto")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\": \"LAPTOP\", \"inventoryLocation\": \"Warehouse C\", \"userId\": \""
+                                + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.reason").value("assignment_period_overlap"));
+        assertThat(assignRepository.count()).isEqualTo(1);
+        assertThat(resourceRepository.findById(resource.getId())).get()
+                .extracting(ItResource::getStatus).isEqualTo(ItResource.ResourceStatus.NOT_ASSIGNED);
+    }
+
+    @Test
+    void testReturningUnknownAssignmentIsNotFound() throws Exception {
+        mockMvc.perform(post("/api/assignments/{id}/return", UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.type").value("urn:mursion:problem:assignment_not_found"));
+    }
+}
@@ -1,11 +1,15 @@
 package com.mursion.assignment.itresources.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.config.BinaryFormatsConfig;
 import com.mursion.assignment.itresources.dto.it_resource.ItResourceDto;
 import com.mursion.assignment.itresources.dto.it_resource.ItResourceSearchDto;
 import com.mursion.assignment.itresources.model.ItResource;
 import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import com.mursion.assignment.itresources.support.MergePatch;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +25,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -94,6 +99,28 @@ public class ItResourceControllerTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$[0].name").value(testResource.getName()));
     }
 
+    @Test
+    void testGetAllResourcesAsSmile() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/resources").accept(BinaryFormatsConfig.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryFormatsConfig.APPLICATION_SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ItResource[] resources = new ObjectMapper(new SmileFactory()).findAndRegisterModules().readValue(body, ItResource[].class);
+        assertThat(resources).extracting(ItResource::getId).containsExactly(testResource.getId());
+    }
+
+    @Test
+    void testGetAllResourcesAsCbor() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/resources").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ItResource[] resources = new ObjectMapper(new CBORFactory()).findAndRegisterModules().readValue(body, ItResource[].class);
+        assertThat(resources).extracting(ItResource::getId).containsExactly(testResource.getId());
+    }
+
     @Test
     void testSearchResources() throws Exception {
         ItResourceSearchDto searchDto = new ItResourceSearchDto();
@@ -120,6 +147,74 @@ public class ItResourceControllerTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.name").value("Updated Resource"));
     }
 
+    @Test
+    void testPatchResource() throws Exception {
+        mockMvc.perform(patch("/api/resources/{id}", testResource.getId())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"inventoryLocation\": \"Office B\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inventoryLocation").value("Office B"))
+                .andExpect(jsonPath("$.name").value(testResource.getName()))
+                .andExpect(jsonPath("$.serialNumber").value(testResource.getSerialNumber()));
+
+        ItResource patched = itResourceRepository.findById(testResource.getId()).orElseThrow();
+        assertThat(patched.getInventoryLocation()).isEqualTo("Office B");
+        assertThat(patched.getSerialNumber()).isEqualTo(testResource.getSerialNumber());
+        assertThat(patched.getStatus()).isEqualTo(ItResource.ResourceStatus.NOT_ASSIGNED);
+    }
+
+    @Test
+    void testPatchResourceRemovesOptionalField() throws Exception {
+        mockMvc.perform(patch("/api/resources/{id}", testResource.getId())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"serialNumber\": null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.serialNumber").doesNotExist());
+    }
+
+    @Test
+    void testPatchResourceRejectsInvalidPatch() throws Exception {
+        mockMvc.perform(patch("/api/resources/{id}", testResource.getId())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"id\": \"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/resources/{id}", testResource.getId())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"name\": null}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(itResourceRepository.findById(testResource.getId()).orElseThrow().getName())
+                .isEqualTo(testResource.getName());
+    }
+
+    @Test
+    void testReservingUnavailableResourceIsConflict() throws Exception {
+        String reservation = "{\"userId\": \"" + UUID.randomUUID() + "\", \"durationMinutes\": 30}";
+        mockMvc.perform(post("/api/resources/{id}/reservation", testResource.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reservation))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RESERVED"));
+
+        mockMvc.perform(post("/api/resources/{id}/reservation", testResource.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reservation))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.reason").value("resource_not_available"));
+    }
+
+    @Test
+    void testReservingForTooLongIsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/resources/{id}/reservation", testResource.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\": \"" + UUID.randomUUID() + "\", \"durationMinutes\": 100000}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.reason").value("invalid_reservation_duration"));
+    }
+
     @Test
     void testDeleteResource() throws Exception {
         mockMvc.perform(delete("/api/resources/{id}", testResource.getId()))
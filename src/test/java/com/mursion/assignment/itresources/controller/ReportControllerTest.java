@@ -0,0 +1,73 @@
+package com.mursion.assignment.itresources.controller;
+
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
+import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import com.mursion.assignment.itresources.service.UtilizationReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.YearMonth;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class ReportControllerTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UtilizationReportService utilizationReportService;
+
+    @Autowired
+    private ItResourceAssignRepository assignRepository;
+
+    @Autowired
+    private ItResourceRepository resourceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM resources.monthly_utilization_closed");
+        jdbcTemplate.update("DELETE FROM resources.it_resource_assign_archive");
+        assignRepository.deleteAll();
+        resourceRepository.deleteAll();
+    }
+
+    @Test
+    void testGetMonthlyUtilization() throws Exception {
+        ItResource resource = new ItResource();
+        resource.setName("Dell Monitor");
+        resource.setType(ItResource.ResourceType.MONITOR);
+        resource.setSerialNumber("SN-REPORT-1");
+        resource.setInventoryLocation("Office A");
+        resource.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
+        resourceRepository.save(resource);
+        utilizationReportService.refresh();
+
+        String month = YearMonth.now().toString();
+        mockMvc.perform(get("/api/reports/utilization").param("from", month).param("to", month))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].type").value("MONITOR"))
+                .andExpect(jsonPath("$[0].daysAssigned").value(0))
+                .andExpect(jsonPath("$[0].utilization").value(0.0));
+
+        mockMvc.perform(get("/api/reports/utilization").param("from", "2024-02").param("to", "2024-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
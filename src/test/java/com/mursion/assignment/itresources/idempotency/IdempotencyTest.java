@@ -0,0 +1,239 @@
+package com.mursion.assignment.itresources.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.dto.it_resource.ItResourceDto;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.repository.IdempotencyRecordRepository;
+import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
+import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class IdempotencyTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ItResourceRepository itResourceRepository;
+
+    @Autowired
+    private ItResourceAssignRepository itResourceAssignRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyRecordRepository.deleteAll();
+        itResourceAssignRepository.deleteAll();
+        itResourceRepository.deleteAll();
+    }
+
+    @Test
+    void testRetryReplaysFirstResponse() throws Exception {
+        String body = objectMapper.writeValueAsString(newResourceDto("SN-IDEM-1"));
+
+        MvcResult first = mockMvc.perform(post("/api/resources")
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+
+        MvcResult retry = mockMvc.perform(post("/api/resources")
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+        assertThat(itResourceRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testRequestsWithoutKeyAreNotTracked() throws Exception {
+        mockMvc.perform(post("/api/resources")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newResourceDto("SN-IDEM-2"))))
+                .andExpect(status().isOk());
+
+        assertThat(idempotencyRecordRepository.count()).isZero();
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequestIsRejected() throws Exception {
+        mockMvc.perform(post("/api/resources")
+                        .header("Idempotency-Key", "create-3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newResourceDto("SN-IDEM-3"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/resources")
+                        .header("Idempotency-Key", "create-3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newResourceDto("SN-IDEM-4"))))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertThat(itResourceRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testRetryWhileInProgressIsRejected() throws Exception {
+        String body = objectMapper.writeValueAsString(newResourceDto("SN-IDEM-5"));
+        String fingerprint = IdempotencyFilter.fingerprint(new MockHttpServletRequest("POST", "/api/resources"),
+                body.getBytes(StandardCharsets.UTF_8));
+        // Another node is still running the first attempt
+        jdbcTemplate.update("""
+                INSERT INTO resources.idempotency_key (tenant_id, idempotency_key, request_fingerprint, status, expires_at)
+                VALUES ('default', 'create-5', ?, 'IN_PROGRESS', now() + interval '1 minute')
+                """, fingerprint);
+
+        mockMvc.perform(post("/api/resources")
+                        .header("Idempotency-Key", "create-5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isConflict())
+                .andExpect(header().exists("Retry-After"));
+
+        assertThat(itResourceRepository.count()).isZero();
+    }
+
+    @Test
+    void testFailedRequestReleasesKey() throws Exception {
+        ItResource duplicate = new ItResource();
+        duplicate.setName("Duplicate");
+        duplicate.setType(ItResource.ResourceType.LAPTOP);
+        duplicate.setSerialNumber("SN-IDEM-6");
+        duplicate.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
+        duplicate = itResourceRepository.save(duplicate);
+        String body = objectMapper.writeValueAsString(newResourceDto("SN-IDEM-6"));
+
+        try {
+            mockMvc.perform(post("/api/resources")
+                    .header("Idempotency-Key", "create-6")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body));
+        } catch (Exception e) {
+            // The duplicate serial number surfaces as an unhandled exception
+        }
+        assertThat(idempotencyRecordRepository.existsById("create-6")).isFalse();
+
+        itResourceRepository.delete(duplicate);
+        mockMvc.perform(post("/api/resources")
+                        .header("Idempotency-Key", "create-6")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void testOversizedBodyIsRejected() throws Exception {
+        mockMvc.perform(post("/api/resources")
+                        .header("Idempotency-Key", "create-7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new byte[300 * 1024]))
+                .andExpect(status().is(413));
+
+        assertThat(idempotencyRecordRepository.existsById("create-7")).isFalse();
+    }
+
+    @Test
+    void testBufferedBodyCanBeReadAsynchronously() throws Exception {
+        byte[] body = "{\"name\": \"Async\"}".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/resources");
+        request.addHeader("Idempotency-Key", "async-1");
+        request.setContent(body);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        idempotencyFilter.doFilter(request, new MockHttpServletResponse(), (filteredRequest, response) -> {
+            ServletInputStream in = filteredRequest.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        received.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        assertThat(received.toByteArray()).isEqualTo(body);
+        assertThat(allDataRead).isTrue();
+    }
+
+    @Test
+    void testCleanupDeletesExpiredKeys() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO resources.idempotency_key (tenant_id, idempotency_key, request_fingerprint, status, expires_at)
+                VALUES ('default', 'expired', 'x', 'COMPLETED', now() - interval '1 minute'),
+                       ('default', 'live', 'x', 'COMPLETED', now() + interval '1 hour')
+                """);
+
+        assertThat(idempotencyStore.cleanup()).isEqualTo(1);
+        assertThat(idempotencyRecordRepository.existsById("expired")).isFalse();
+        assertThat(idempotencyRecordRepository.existsById("live")).isTrue();
+    }
+
+    private static ItResourceDto newResourceDto(String serialNumber) {
+        return ItResourceDto.builder()
+                .name("Idempotent Resource")
+                .type(ItResource.ResourceType.LAPTOP)
+                .serialNumber(serialNumber)
+                .inventoryLocation("Office A")
+                .build();
+    }
+}
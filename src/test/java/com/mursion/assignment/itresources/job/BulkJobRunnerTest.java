@@ -0,0 +1,155 @@
+package com.mursion.assignment.itresources.job;
+
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.dto.bulk_job.BulkJobRequest;
+import com.mursion.assignment.itresources.model.BulkJob;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.model.ItResourceAssign;
+import com.mursion.assignment.itresources.repository.BulkJobRepository;
+import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
+import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import com.mursion.assignment.itresources.service.BulkJobService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "mursion.jobs.chunk-size=2")
+public class BulkJobRunnerTest extends BaseIntegrationTest {
+
+    @Autowired
+    private BulkJobService bulkJobService;
+
+    @Autowired
+    private BulkJobRunner bulkJobRunner;
+
+    @Autowired
+    private BulkJobRepository bulkJobRepository;
+
+    @Autowired
+    private ItResourceRepository itResourceRepository;
+
+    @Autowired
+    private ItResourceAssignRepository itResourceAssignRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID testUserId;
+    private List<ItResourceAssign> assignments;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        testUserId = UUID.randomUUID();
+        assignments = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ItResource resource = new ItResource();
+            resource.setName("Resource " + i);
+            resource.setType(ItResource.ResourceType.LAPTOP);
+            resource.setSerialNumber("SN-JOB-" + i);
+            resource.setInventoryLocation("Office A");
+            resource.setStatus(ItResource.ResourceStatus.ASSIGNED);
+            resource = itResourceRepository.save(resource);
+
+            ItResourceAssign assignment = new ItResourceAssign();
+            assignment.setResource(resource);
+            assignment.setUserId(testUserId);
+            assignment.setStatus(ItResourceAssign.AssignStatus.NOT_RETURNED);
+            assignment.setAssignedDate(LocalDate.now());
+            assignments.add(itResourceAssignRepository.save(assignment));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM resources.bulk_job");
+        itResourceAssignRepository.deleteAll();
+        itResourceRepository.deleteAll();
+    }
+
+    @Test
+    void testOffboardUserJobReturnsAllAssignmentsInChunks() throws Exception {
+        BulkJobRequest request = new BulkJobRequest();
+        request.setType(BulkJob.JobType.OFFBOARD_USER);
+        request.setParameters(Map.of("userId", testUserId.toString()));
+
+        BulkJob job = awaitFinished(bulkJobService.submitJob(request).getId());
+
+        assertThat(job.getStatus()).isEqualTo(BulkJob.JobStatus.COMPLETED);
+        assertThat(job.getTotalCount()).isEqualTo(5);
+        assertThat(job.getProcessedCount()).isEqualTo(5);
+        assertThat(job.getLeaseOwner()).isNull();
+        assertThat(itResourceAssignRepository.findByUserId(testUserId))
+                .allSatisfy(assignment -> assertThat(assignment.getStatus()).isEqualTo(ItResourceAssign.AssignStatus.RETURNED));
+        assertThat(itResourceRepository.findAll())
+                .allSatisfy(resource -> assertThat(resource.getStatus()).isEqualTo(ItResource.ResourceStatus.NOT_ASSIGNED));
+    }
+
+    @Test
+    void testJobOfDeadNodeResumesFromCheckpoint() throws Exception {
+        List<UUID> ids = assignments.stream().map(ItResourceAssign::getId).sorted(this::compareAsPostgres).toList();
+        // A node committed the first two assignments, then died
+        jdbcTemplate.update("UPDATE resources.it_resource_assign SET status = 'RETURNED' WHERE id IN (?, ?)", ids.get(0), ids.get(1));
+
+        BulkJob job = new BulkJob();
+        job.setType(BulkJob.JobType.OFFBOARD_USER);
+        job.setStatus(BulkJob.JobStatus.RUNNING);
+        job.setParameters(Map.of("userId", testUserId.toString()));
+        job.setCheckpoint(ids.get(1).toString());
+        job.setProcessedCount(2);
+        job.setTotalCount(5L);
+        job.setLeaseOwner("dead-node");
+        job.setLeaseExpiresAt(LocalDateTime.now().minusMinutes(1));
+        job = bulkJobRepository.save(job);
+
+        bulkJobRunner.dispatch();
+        job = awaitFinished(job.getId());
+
+        assertThat(job.getStatus()).isEqualTo(BulkJob.JobStatus.COMPLETED);
+        assertThat(job.getProcessedCount()).isEqualTo(5);
+        assertThat(job.getCheckpoint()).isEqualTo(ids.get(4).toString());
+    }
+
+    @Test
+    void testLiveLeaseIsNotTakenOver() {
+        BulkJob job = new BulkJob();
+        job.setType(BulkJob.JobType.OFFBOARD_USER);
+        job.setStatus(BulkJob.JobStatus.RUNNING);
+        job.setParameters(Map.of("userId", testUserId.toString()));
+        job.setLeaseOwner("other-node");
+        job.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(5));
+        bulkJobRepository.save(job);
+
+        assertThat(bulkJobRepository.claimNext("this-node", 60)).isEmpty();
+    }
+
+    private BulkJob awaitFinished(UUID jobId) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            BulkJob job = bulkJobRepository.findById(jobId).orElseThrow();
+            if (job.getStatus() == BulkJob.JobStatus.COMPLETED || job.getStatus() == BulkJob.JobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish");
+    }
+
+    private int compareAsPostgres(UUID a, UUID b) {
+        // Postgres orders uuids as unsigned bytes, UUID.compareTo compares signed longs
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
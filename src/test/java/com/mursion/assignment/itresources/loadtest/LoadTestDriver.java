@@ -0,0 +1,309 @@
+package com.mursion.assignment.itresources.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mursion.assignment.itresources.model.ItResource.ResourceType;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replays a mixed workload against the REST endpoints and reports throughput and latency percentiles.
+ * <p>
+ * The workload mixes single resource lookups, resource searches, assignment searches and assign/return cycles on a
+ * small pool of hot resources, so concurrent agents race for the same devices. Ids to query are sampled from the
+ * database up front.
+ * <p>
+ * Run with {@code ./gradlew loadTest -Pload.baseUrl=http://localhost:8080 -Pload.jdbcUrl=... -Pload.concurrency=64}.
+ */
+public class LoadTestDriver {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Config config;
+    private final HttpClient httpClient;
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private final double[] operationCdf;
+
+    private List<UUID> resourceIds;
+    private List<UUID> userIds;
+    private List<UUID> hotResourceIds;
+
+    public LoadTestDriver(Config config) {
+        this.config = config;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        this.operationCdf = cumulative(config.weights());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestDriver driver = new LoadTestDriver(Config.fromSystemProperties());
+        driver.sample();
+        driver.run();
+        driver.report(System.out);
+    }
+
+    /**
+     * Samples resource and user ids to drive the workload with.
+     */
+    public void sample() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(config.jdbcUrl(), config.username(), config.password());
+             Statement statement = connection.createStatement()) {
+            resourceIds = queryIds(statement, "SELECT id FROM resources.it_resource TABLESAMPLE SYSTEM (1)", config.sampleSize());
+            userIds = queryIds(statement, "SELECT user_id FROM resources.it_resource_assign TABLESAMPLE SYSTEM (1)", config.sampleSize());
+            hotResourceIds = queryIds(statement, "SELECT id FROM resources.it_resource WHERE status = 'NOT_ASSIGNED'", config.hotResources());
+        }
+        if (resourceIds.isEmpty() || userIds.isEmpty() || hotResourceIds.isEmpty()) {
+            throw new IllegalStateException("The database has no data to drive the workload with, run generateData first");
+        }
+    }
+
+    /**
+     * Runs the workload with the configured number of concurrent agents for the warmup and measurement periods.
+     */
+    public void run() {
+        long measureFrom = System.nanoTime() + config.warmup().toNanos();
+        long deadline = measureFrom + config.duration().toNanos();
+
+        try (ExecutorService agents = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int agent = 0; agent < config.concurrency(); agent++) {
+                agents.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        execute(pickOperation(), System.nanoTime() >= measureFrom);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Prints one line per operation with its throughput and latency percentiles.
+     */
+    public void report(PrintStream out) {
+        double seconds = config.duration().toMillis() / 1000.0;
+        out.printf("%-20s %10s %10s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "non-2xx", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        recorders.forEach((operation, recorder) -> {
+            long[] samples = recorder.snapshot();
+            if (samples.length == 0) {
+                return;
+            }
+            Arrays.sort(samples);
+            out.printf("%-20s %10d %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation, samples.length, recorder.failures(), samples.length / seconds,
+                    percentile(samples, 0.50), percentile(samples, 0.90), percentile(samples, 0.99),
+                    percentile(samples, 0.999), samples[samples.length - 1] / 1_000_000.0);
+        });
+    }
+
+    private void execute(Operation operation, boolean measured) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case GET_RESOURCE -> send(operation, measured, HttpRequest.newBuilder(uri("/api/resources/" + pick(resourceIds))).GET());
+            case SEARCH_RESOURCES -> {
+                ResourceType type = ResourceType.values()[random.nextInt(ResourceType.values().length)];
+                String body = "{\"type\":\"%s\",\"status\":\"NOT_ASSIGNED\",\"sort\":\"name\",\"sortDirection\":\"ASCENDING\"}".formatted(type);
+                send(operation, measured, jsonPost("/api/resources/search", body));
+            }
+            case SEARCH_ASSIGNMENTS -> send(operation, measured,
+                    HttpRequest.newBuilder(uri("/api/assignments/search?userId=" + pick(userIds))).GET());
+            case ASSIGN_AND_RETURN -> assignAndReturn(measured);
+        }
+    }
+
+    /**
+     * Assigns a hot resource and hands it back, racing the other agents for the same small pool of resources.
+     */
+    private void assignAndReturn(boolean measured) {
+        String body = "{\"resource\":{\"id\":\"%s\"},\"userId\":\"%s\",\"assignedDate\":\"%s\"}"
+                .formatted(pick(hotResourceIds), pick(userIds), LocalDate.now());
+        HttpResponse<String> assigned = send(Operation.ASSIGN_AND_RETURN, measured, jsonPost("/api/assignments", body));
+        if (assigned == null || assigned.statusCode() != 200) {
+            return;
+        }
+        try {
+            String assignmentId = OBJECT_MAPPER.readTree(assigned.body()).path("id").asText();
+            send(Operation.RETURN, measured, jsonPost("/api/assignments/" + assignmentId + "/return", ""));
+        } catch (Exception e) {
+            recorders.get(Operation.RETURN).recordFailure();
+        }
+    }
+
+    private HttpResponse<String> send(Operation operation, boolean measured, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request.timeout(config.requestTimeout()).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (measured) {
+                recorders.get(operation).record(System.nanoTime() - start, response.statusCode() / 100 == 2);
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            if (measured) {
+                recorders.get(operation).record(System.nanoTime() - start, false);
+            }
+            return null;
+        }
+    }
+
+    private HttpRequest.Builder jsonPost(String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private URI uri(String path) {
+        return config.baseUrl().resolve(path);
+    }
+
+    private Operation pickOperation() {
+        double value = ThreadLocalRandom.current().nextDouble();
+        for (int i = 0; i < operationCdf.length; i++) {
+            if (value < operationCdf[i]) {
+                return Operation.values()[i];
+            }
+        }
+        return Operation.GET_RESOURCE;
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static List<UUID> queryIds(Statement statement, String sql, int limit) throws SQLException {
+        List<UUID> ids = new ArrayList<>();
+        // Tiny tables may not yield a single block sample, fall back to a plain scan
+        for (String query : List.of(sql + " LIMIT " + limit, sql.replace("TABLESAMPLE SYSTEM (1)", "") + " LIMIT " + limit)) {
+            try (ResultSet resultSet = statement.executeQuery(query)) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getObject(1, UUID.class));
+                }
+            }
+            if (!ids.isEmpty()) {
+                break;
+            }
+        }
+        return ids;
+    }
+
+    private static double[] cumulative(Map<Operation, Double> weights) {
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        double[] cdf = new double[Operation.values().length];
+        double sum = 0;
+        for (Operation operation : Operation.values()) {
+            sum += weights.getOrDefault(operation, 0.0) / total;
+            cdf[operation.ordinal()] = sum;
+        }
+        return cdf;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    /**
+     * Operations of the mixed workload; {@link #RETURN} is only issued after a successful assignment.
+     */
+    public enum Operation {
+        GET_RESOURCE, SEARCH_RESOURCES, SEARCH_ASSIGNMENTS, ASSIGN_AND_RETURN, RETURN
+    }
+
+    /**
+     * Settings of the driver, read from {@code load.*} system properties.
+     *
+     * @param baseUrl        Base URL of the service under test.
+     * @param jdbcUrl        Database used to sample ids.
+     * @param username       Database user.
+     * @param password       Database password.
+     * @param concurrency    Number of concurrent agents.
+     * @param warmup         Warmup period whose samples are discarded.
+     * @param duration       Measurement period.
+     * @param requestTimeout Timeout of a single request.
+     * @param sampleSize     Number of resource and user ids sampled.
+     * @param hotResources   Size of the pool of resources agents race for.
+     * @param weights        Relative weight of every operation in the mix.
+     */
+    public record Config(URI baseUrl, String jdbcUrl, String username, String password, int concurrency,
+                         Duration warmup, Duration duration, Duration requestTimeout, int sampleSize, int hotResources,
+                         Map<Operation, Double> weights) {
+
+        public static Config fromSystemProperties() {
+            Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+            weights.put(Operation.GET_RESOURCE, Double.parseDouble(System.getProperty("load.weight.lookup", "55")));
+            weights.put(Operation.SEARCH_RESOURCES, Double.parseDouble(System.getProperty("load.weight.search", "20")));
+            weights.put(Operation.SEARCH_ASSIGNMENTS, Double.parseDouble(System.getProperty("load.weight.assignmentSearch", "15")));
+            weights.put(Operation.ASSIGN_AND_RETURN, Double.parseDouble(System.getProperty("load.weight.assign", "10")));
+            return new Config(
+                    URI.create(System.getProperty("load.baseUrl", "http://localhost:8080")),
+                    System.getProperty("load.jdbcUrl"),
+                    System.getProperty("load.username"),
+                    System.getProperty("load.password"),
+                    Integer.getInteger("load.concurrency", 64),
+                    Duration.parse(System.getProperty("load.warmup", "PT30S")),
+                    Duration.parse(System.getProperty("load.duration", "PT2M")),
+                    Duration.parse(System.getProperty("load.requestTimeout", "PT10S")),
+                    Integer.getInteger("load.sampleSize", 10_000),
+                    Integer.getInteger("load.hotResources", 50),
+                    weights);
+        }
+    }
+
+    /**
+     * Collects latency samples of one operation.
+     */
+    private static final class LatencyRecorder {
+
+        private long[] samples = new long[4096];
+        private int size;
+        private long failures;
+
+        synchronized void record(long nanos, boolean success) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+            if (!success) {
+                failures++;
+            }
+        }
+
+        synchronized void recordFailure() {
+            failures++;
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(samples, size);
+        }
+
+        synchronized long failures() {
+            return failures;
+        }
+    }
+}
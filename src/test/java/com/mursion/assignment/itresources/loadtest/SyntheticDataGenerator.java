@@ -0,0 +1,335 @@
+package com.mursion.assignment.itresources.loadtest;
+
+import com.mursion.assignment.itresources.model.ItResource.ResourceStatus;
+import com.mursion.assignment.itresources.model.ItResource.ResourceType;
+import com.mursion.assignment.itresources.model.ItResourceAssign.AssignStatus;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Generates a realistic synthetic dataset of IT resources and their assignment histories and loads it with COPY.
+ * <p>
+ * Every resource is derived from its own seeded random stream, so the generator streams rows straight into COPY
+ * without holding the dataset in memory, and the same seed always produces the same data. Resource types follow
+ * a fixed weighting, inventory locations and users follow a Zipf distribution, and each resource gets a history of
+ * non-overlapping loans whose last one may still be open.
+ * <p>
+ * Run with {@code ./gradlew generateData -Pgenerator.jdbcUrl=... -Pgenerator.resources=1000000}.
+ */
+public class SyntheticDataGenerator {
+
+    private static final String RESOURCE_COPY = "COPY resources.it_resource "
+            + "(tenant_id, id, name, type, status, serial_number, inventory_location, created_at, updated_at)"
+            + " FROM STDIN WITH (FORMAT csv)";
+    private static final String ASSIGNMENT_COPY = "COPY resources.it_resource_assign "
+            + "(tenant_id, id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at)"
+            + " FROM STDIN WITH (FORMAT csv)";
+    private static final int FLUSH_THRESHOLD = 1 << 20;
+
+    private static final Map<ResourceType, Integer> TYPE_WEIGHTS = new EnumMap<>(Map.of(
+            ResourceType.LAPTOP, 30, ResourceType.MONITOR, 20, ResourceType.MOUSE, 12, ResourceType.KEYBOARD, 12,
+            ResourceType.CHAIR, 10, ResourceType.MOBILE, 8, ResourceType.DESKTOP, 4, ResourceType.PRINTER, 2,
+            ResourceType.SCANNER, 1, ResourceType.OTHER, 1));
+
+    private static final Map<ResourceType, String[]> MODELS = new EnumMap<>(Map.of(
+            ResourceType.LAPTOP, new String[]{"Dell XPS 15", "MacBook Pro 14", "Lenovo ThinkPad X1", "HP EliteBook 840"},
+            ResourceType.MONITOR, new String[]{"Dell UltraSharp 27", "LG 34WN80C", "Samsung ViewFinity S8"},
+            ResourceType.MOUSE, new String[]{"Logitech MX Master 3", "Microsoft Arc Mouse"},
+            ResourceType.KEYBOARD, new String[]{"Logitech MX Keys", "Apple Magic Keyboard"},
+            ResourceType.CHAIR, new String[]{"Herman Miller Aeron Chair", "Steelcase Leap"},
+            ResourceType.MOBILE, new String[]{"iPhone 13", "iPhone 15", "Pixel 8"},
+            ResourceType.DESKTOP, new String[]{"Dell OptiPlex 7010", "Mac mini"},
+            ResourceType.PRINTER, new String[]{"HP LaserJet Pro"},
+            ResourceType.SCANNER, new String[]{"Fujitsu ScanSnap iX1600"},
+            ResourceType.OTHER, new String[]{"USB-C Dock", "Headset"}));
+
+    // Mirrors the default mursion.loan-policy of application.yaml
+    private static final Map<ResourceType, Period> LOAN_PERIODS = new EnumMap<>(Map.of(
+            ResourceType.LAPTOP, Period.ofYears(1), ResourceType.DESKTOP, Period.ofYears(1),
+            ResourceType.MOBILE, Period.ofYears(1), ResourceType.MONITOR, Period.ofYears(1),
+            ResourceType.CHAIR, Period.ofYears(2)));
+    private static final Period DEFAULT_LOAN_PERIOD = Period.ofDays(90);
+
+    private final Config config;
+    private final ResourceType[] types = ResourceType.values();
+    private final double[] typeCdf;
+    private final ZipfDistribution locations;
+    private final ZipfDistribution users;
+    private final LocalDate today = LocalDate.now();
+
+    public SyntheticDataGenerator(Config config) {
+        this.config = config;
+        this.typeCdf = cumulative(types);
+        this.locations = new ZipfDistribution(config.locations(), config.locationSkew());
+        this.users = new ZipfDistribution(config.users(), config.userSkew());
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Config config = Config.fromSystemProperties();
+        try (Connection connection = DriverManager.getConnection(
+                System.getProperty("generator.jdbcUrl"),
+                System.getProperty("generator.username"),
+                System.getProperty("generator.password"))) {
+            long start = System.nanoTime();
+            Counts counts = new SyntheticDataGenerator(config).load(connection);
+            System.out.printf("Loaded %d resources and %d assignments in %.1f s%n",
+                    counts.resources(), counts.assignments(), (System.nanoTime() - start) / 1_000_000_000.0);
+        }
+    }
+
+    /**
+     * Loads the whole dataset in one transaction and refreshes the planner statistics afterwards.
+     *
+     * @param connection A connection to the target database.
+     * @return The number of rows loaded.
+     */
+    public Counts load(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            long resources = copy(copyManager, RESOURCE_COPY, this::appendResource);
+            long assignments = copy(copyManager, ASSIGNMENT_COPY, this::appendAssignments);
+            connection.commit();
+
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE resources.it_resource");
+                statement.execute("ANALYZE resources.it_resource_assign");
+            }
+            return new Counts(resources, assignments);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private long copy(CopyManager copyManager, String sql, RowWriter writer) throws SQLException {
+        CopyIn copyIn = copyManager.copyIn(sql);
+        try {
+            StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 4096);
+            long rows = 0;
+            for (long index = 0; index < config.resources(); index++) {
+                rows += writer.append(plan(index), buffer);
+                if (buffer.length() >= FLUSH_THRESHOLD) {
+                    flush(copyIn, buffer);
+                }
+            }
+            flush(copyIn, buffer);
+            copyIn.endCopy();
+            return rows;
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private int appendResource(ResourcePlan plan, StringBuilder buffer) {
+        buffer.append(config.tenant()).append(',')
+                .append(plan.id()).append(',')
+                .append(quote(plan.name())).append(',')
+                .append(plan.type()).append(',')
+                .append(plan.status()).append(',')
+                .append(plan.serialNumber()).append(',')
+                .append(quote(plan.location())).append(',')
+                .append(plan.createdAt()).append(" 09:00:00,")
+                .append(plan.createdAt()).append(" 09:00:00\n");
+        return 1;
+    }
+
+    private int appendAssignments(ResourcePlan plan, StringBuilder buffer) {
+        for (int i = 0; i < plan.loans().size(); i++) {
+            Loan loan = plan.loans().get(i);
+            boolean open = loan.returnDate() == null;
+            buffer.append(config.tenant()).append(',')
+                    .append(uuid(loan.assignedDate(), plan.index() << 12 | i)).append(',')
+                    .append(plan.id()).append(',')
+                    .append(userId(loan.user())).append(',')
+                    .append(open ? AssignStatus.NOT_RETURNED : AssignStatus.RETURNED).append(',')
+                    .append(loan.assignedDate()).append(',')
+                    .append(loan.assignedDate().plus(LOAN_PERIODS.getOrDefault(plan.type(), DEFAULT_LOAN_PERIOD))).append(',')
+                    .append(open ? "" : loan.returnDate()).append(',')
+                    .append(loan.assignedDate()).append(" 09:00:00,")
+                    .append(open ? loan.assignedDate() : loan.returnDate()).append(" 09:00:00\n");
+        }
+        return plan.loans().size();
+    }
+
+    private ResourcePlan plan(long index) {
+        SplittableRandom random = new SplittableRandom(config.seed() * 1_000_003L + index);
+        ResourceType type = types[sample(typeCdf, random.nextDouble())];
+        String[] models = MODELS.get(type);
+        String name = models[random.nextInt(models.length)];
+        int locationRank = locations.sample(random);
+        String location = "Warehouse " + (char) ('A' + locationRank % 26) + ", Shelf " + (locationRank / 26 + 1);
+        LocalDate createdAt = today.minusDays(1 + random.nextInt(config.historyDays()));
+        boolean deprecated = random.nextDouble() < config.deprecatedRatio();
+
+        List<Loan> loans = new ArrayList<>();
+        LocalDate cursor = createdAt.plusDays(random.nextInt(30));
+        while (cursor.isBefore(today)) {
+            if (random.nextDouble() > config.utilization()) {
+                cursor = cursor.plusDays(1 + random.nextInt(90));
+                continue;
+            }
+            int user = users.sample(random);
+            LocalDate returnDate = cursor.plusDays(14 + random.nextInt(config.maxLoanDays()));
+            if (!returnDate.isBefore(today)) {
+                if (!deprecated) {
+                    loans.add(new Loan(user, cursor, null));
+                }
+                break;
+            }
+            loans.add(new Loan(user, cursor, returnDate));
+            cursor = returnDate.plusDays(random.nextInt(30));
+        }
+
+        ResourceStatus status = deprecated ? ResourceStatus.DEPRECATED
+                : !loans.isEmpty() && loans.getLast().returnDate() == null ? ResourceStatus.ASSIGNED
+                : ResourceStatus.NOT_ASSIGNED;
+        String serialNumber = "%s-%010d".formatted(type.name().substring(0, 3), index);
+        return new ResourcePlan(index, uuid(createdAt, index), name, type, status, serialNumber, location, createdAt, loans);
+    }
+
+    /**
+     * Builds a deterministic, time-ordered UUIDv7 from a date and a unique sequence number.
+     */
+    private static UUID uuid(LocalDate date, long sequence) {
+        long millis = date.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        long mostSigBits = (millis << 16) | 0x7000L;
+        long leastSigBits = 0x8000000000000000L | (sequence & 0x3FFFFFFFFFFFFFFFL);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static UUID userId(int user) {
+        return UUID.nameUUIDFromBytes(("user-" + user).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static double[] cumulative(ResourceType[] types) {
+        double[] cdf = new double[types.length];
+        double total = TYPE_WEIGHTS.values().stream().mapToInt(Integer::intValue).sum();
+        double sum = 0;
+        for (int i = 0; i < types.length; i++) {
+            sum += TYPE_WEIGHTS.get(types[i]) / total;
+            cdf[i] = sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, double value) {
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Tuning knobs of the generator, read from {@code generator.*} system properties.
+     *
+     * @param resources       Number of resources to generate.
+     * @param users           Number of distinct users receiving loans.
+     * @param userSkew        Zipf exponent of the user distribution; 0 is uniform.
+     * @param locations       Number of distinct inventory locations.
+     * @param locationSkew    Zipf exponent of the location distribution; 0 is uniform.
+     * @param historyDays     How far back resources were purchased.
+     * @param maxLoanDays     Upper bound of a loan duration beyond the minimum of two weeks.
+     * @param utilization     Probability that an idle resource is handed out again.
+     * @param deprecatedRatio Share of resources that are deprecated.
+     * @param seed            Seed of the random streams.
+     * @param tenant          Tenant owning the generated rows; its partitions must exist.
+     */
+    public record Config(long resources, int users, double userSkew, int locations, double locationSkew,
+                         int historyDays, int maxLoanDays, double utilization, double deprecatedRatio, long seed,
+                         String tenant) {
+
+        public static Config fromSystemProperties() {
+            return new Config(
+                    Long.getLong("generator.resources", 1_000_000),
+                    Integer.getInteger("generator.users", 50_000),
+                    Double.parseDouble(System.getProperty("generator.userSkew", "0.6")),
+                    Integer.getInteger("generator.locations", 200),
+                    Double.parseDouble(System.getProperty("generator.locationSkew", "1.1")),
+                    Integer.getInteger("generator.historyDays", 3 * 365),
+                    Integer.getInteger("generator.maxLoanDays", 365),
+                    Double.parseDouble(System.getProperty("generator.utilization", "0.7")),
+                    Double.parseDouble(System.getProperty("generator.deprecatedRatio", "0.03")),
+                    Long.getLong("generator.seed", 42),
+                    System.getProperty("generator.tenant", "default"));
+        }
+    }
+
+    public record Counts(long resources, long assignments) {
+    }
+
+    private record Loan(int user, LocalDate assignedDate, LocalDate returnDate) {
+    }
+
+    private record ResourcePlan(long index, UUID id, String name, ResourceType type, ResourceStatus status,
+                                String serialNumber, String location, LocalDate createdAt, List<Loan> loans) {
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        int append(ResourcePlan plan, StringBuilder buffer);
+    }
+
+    /**
+     * Samples ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent.
+     */
+    private static final class ZipfDistribution {
+
+        private final double[] cdf;
+
+        ZipfDistribution(int size, double exponent) {
+            cdf = new double[size];
+            double total = 0;
+            for (int rank = 0; rank < size; rank++) {
+                total += 1 / Math.pow(rank + 1, exponent);
+                cdf[rank] = total;
+            }
+            for (int rank = 0; rank < size; rank++) {
+                cdf[rank] /= total;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            return SyntheticDataGenerator.sample(cdf, random.nextDouble());
+        }
+    }
+}
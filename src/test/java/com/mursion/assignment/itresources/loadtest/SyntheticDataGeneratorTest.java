@@ -0,0 +1,90 @@
+package com.mursion.assignment.itresources.loadtest;
+
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SyntheticDataGeneratorTest extends BaseIntegrationTest {
+
+    private static final int RESOURCES = 2_000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM resources.it_resource_assign");
+        jdbcTemplate.execute("DELETE FROM resources.it_resource");
+    }
+
+    @Test
+    void testLoadProducesConsistentHistories() throws Exception {
+        SyntheticDataGenerator.Counts counts;
+        try (Connection connection = dataSource.getConnection()) {
+            counts = new SyntheticDataGenerator(config()).load(connection);
+        }
+
+        assertThat(counts.resources()).isEqualTo(RESOURCES);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM resources.it_resource", Long.class)).isEqualTo(RESOURCES);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM resources.it_resource_assign", Long.class))
+                .isEqualTo(counts.assignments())
+                .isGreaterThan(RESOURCES);
+
+        // Every assigned resource has exactly one open assignment, every other resource none
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*)
+                FROM resources.it_resource r
+                WHERE (r.status = 'ASSIGNED') <> EXISTS (SELECT 1 FROM resources.it_resource_assign a
+                                                         WHERE a.resource_id = r.id AND a.status = 'NOT_RETURNED')
+                """, Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM (SELECT resource_id FROM resources.it_resource_assign
+                                      WHERE status = 'NOT_RETURNED' GROUP BY resource_id HAVING count(*) > 1) open
+                """, Long.class)).isZero();
+
+        // Loans of the same resource never overlap
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*)
+                FROM resources.it_resource_assign a
+                         JOIN resources.it_resource_assign b ON a.resource_id = b.resource_id AND a.id < b.id
+                WHERE daterange(a.assigned_date, a.return_date) && daterange(b.assigned_date, b.return_date)
+                """, Long.class)).isZero();
+    }
+
+    @Test
+    void testSameSeedProducesSameData() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            new SyntheticDataGenerator(config()).load(connection);
+        }
+        String firstChecksum = checksum();
+        cleanUp();
+
+        try (Connection connection = dataSource.getConnection()) {
+            new SyntheticDataGenerator(config()).load(connection);
+        }
+
+        assertThat(checksum()).isEqualTo(firstChecksum);
+    }
+
+    private String checksum() {
+        return jdbcTemplate.queryForObject(
+                "SELECT md5(string_agg(id::text || status || serial_number, ',' ORDER BY id)) FROM resources.it_resource",
+                String.class);
+    }
+
+    private SyntheticDataGenerator.Config config() {
+        return new SyntheticDataGenerator.Config(RESOURCES, 500, 0.6, 20, 1.1, 3 * 365, 365, 0.7, 0.03, 7, "default");
+    }
+}
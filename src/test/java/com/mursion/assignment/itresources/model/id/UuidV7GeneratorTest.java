@@ -0,0 +1,43 @@
+package com.mursion.assignment.itresources.model.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UuidV7GeneratorTest {
+
+    @Test
+    void testVersionAndVariant() {
+        UUID uuid = UuidV7Generator.generateUuid();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void testTimestampPrefix() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.generateUuid();
+
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertThat(timestamp).isGreaterThanOrEqualTo(before);
+    }
+
+    @Test
+    void testStrictlyIncreasingWithinSameMillisecond() {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            uuids.add(UuidV7Generator.generateUuid());
+        }
+
+        // Postgres compares uuid values byte by byte, i.e. as unsigned numbers
+        for (int i = 1; i < uuids.size(); i++) {
+            assertThat(Long.compareUnsigned(uuids.get(i - 1).getMostSignificantBits(), uuids.get(i).getMostSignificantBits()))
+                    .isLessThan(0);
+        }
+    }
+}
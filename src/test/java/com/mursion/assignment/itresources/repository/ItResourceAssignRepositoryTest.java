@@ -1,13 +1,19 @@
 package com.mursion.assignment.itresources.repository;
 
 import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.dto.it_resource_assign.CurrentHoldingView;
 import com.mursion.assignment.itresources.model.ItResource;
 import com.mursion.assignment.itresources.model.ItResourceAssign;
+import com.mursion.assignment.itresources.tenant.TenantContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -19,6 +25,7 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 @Testcontainers
@@ -32,6 +39,9 @@ public class ItResourceAssignRepositoryTest extends BaseIntegrationTest {
     @Autowired
     private ItResourceRepository itResourceRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private ItResource testResource;
     private UUID testUserId;
 
@@ -84,6 +94,132 @@ public class ItResourceAssignRepositoryTest extends BaseIntegrationTest {
         assertThat(foundAssignments.getFirst().getUserId()).isEqualTo(testUserId);
     }
 
+    @Test
+    void testFindOpenDueBetween() {
+        ItResourceAssign dueToday = createAssignment(testResource, testUserId);
+        dueToday.setDueDate(LocalDate.now());
+        itResourceAssignRepository.save(dueToday);
+
+        ItResourceAssign returned = createAssignment(testResource, testUserId);
+        returned.setStatus(ItResourceAssign.AssignStatus.RETURNED);
+        returned.setAssignedDate(LocalDate.now().minusDays(30));
+        returned.setReturnDate(LocalDate.now());
+        returned.setDueDate(LocalDate.now());
+        itResourceAssignRepository.save(returned);
+
+        Page<ItResourceAssign> found = itResourceAssignRepository.findOpenDueBetween(TenantContext.DEFAULT_TENANT, LocalDate.now(), LocalDate.now(), PageRequest.of(0, 10));
+        assertThat(found.getContent()).extracting(ItResourceAssign::getId).containsExactly(dueToday.getId());
+    }
+
+    @Test
+    void testFindCurrentHoldings() {
+        ItResourceAssign open = createAssignment(testResource, testUserId);
+        itResourceAssignRepository.save(open);
+
+        ItResourceAssign returned = createAssignment(testResource, testUserId);
+        returned.setStatus(ItResourceAssign.AssignStatus.RETURNED);
+        returned.setAssignedDate(LocalDate.now().minusDays(30));
+        returned.setReturnDate(LocalDate.now());
+        itResourceAssignRepository.save(returned);
+
+        List<CurrentHoldingView> holdings = itResourceAssignRepository.findCurrentHoldings(TenantContext.DEFAULT_TENANT, testUserId);
+        assertThat(holdings).hasSize(1);
+        assertThat(holdings.getFirst().getResourceId()).isEqualTo(testResource.getId());
+        assertThat(holdings.getFirst().getSerialNumber()).isEqualTo("SN123456");
+        assertThat(holdings.getFirst().getType()).isEqualTo(ItResource.ResourceType.LAPTOP);
+        assertThat(holdings.getFirst().getAssignedDate()).isEqualTo(LocalDate.now());
+    }
+
+    @Test
+    void testFindRunningOnBySerialNumber() {
+        UUID nextUserId = UUID.randomUUID();
+        ItResourceAssign previous = itResourceAssignRepository.save(
+                createAssignment(testResource, testUserId, LocalDate.of(2023, 1, 15), LocalDate.of(2023, 3, 2)));
+        ItResourceAssign current = itResourceAssignRepository.save(
+                createAssignment(testResource, nextUserId, LocalDate.of(2023, 3, 2), null));
+
+        assertThat(itResourceAssignRepository.findRunningOnBySerialNumber(TenantContext.DEFAULT_TENANT, "SN123456", LocalDate.of(2023, 3, 1)))
+                .extracting(ItResourceAssign::getId).containsExactly(previous.getId());
+        assertThat(itResourceAssignRepository.findRunningOnBySerialNumber(TenantContext.DEFAULT_TENANT, "SN123456", LocalDate.of(2023, 3, 2)))
+                .extracting(ItResourceAssign::getId).containsExactly(current.getId());
+        assertThat(itResourceAssignRepository.findRunningOnBySerialNumber(TenantContext.DEFAULT_TENANT, "SN123456", LocalDate.of(2022, 12, 31))).isEmpty();
+    }
+
+    @Test
+    void testFindOverlappingByUserId() {
+        ItResource otherResource = new ItResource();
+        otherResource.setName("Other Resource");
+        otherResource.setType(ItResource.ResourceType.MONITOR);
+        otherResource.setSerialNumber("SN654321");
+        otherResource.setInventoryLocation("Office A");
+        otherResource.setStatus(ItResource.ResourceStatus.ASSIGNED);
+        otherResource = itResourceRepository.save(otherResource);
+
+        ItResourceAssign inQuarter = itResourceAssignRepository.save(
+                createAssignment(testResource, testUserId, LocalDate.of(2022, 11, 1), LocalDate.of(2023, 1, 10)));
+        ItResourceAssign open = itResourceAssignRepository.save(
+                createAssignment(otherResource, testUserId, LocalDate.of(2023, 3, 31), null));
+        itResourceAssignRepository.save(
+                createAssignment(testResource, testUserId, LocalDate.of(2023, 4, 1), null));
+
+        List<ItResourceAssign> found = itResourceAssignRepository.findOverlappingByUserId(TenantContext.DEFAULT_TENANT, testUserId,
+                LocalDate.of(2023, 1, 1), LocalDate.of(2023, 3, 31));
+        assertThat(found).extracting(ItResourceAssign::getId).containsExactly(inQuarter.getId(), open.getId());
+    }
+
+    @Test
+    void testQueriesSkipRowsOfOtherTenants() {
+        ItResourceAssign own = itResourceAssignRepository.save(
+                createAssignment(testResource, testUserId, LocalDate.of(2023, 3, 1), null));
+
+        // The same serial number and user in a second tenant, written directly since the session is bound to one tenant
+        jdbcTemplate.queryForObject("SELECT resources.create_tenant_partitions(?)", Boolean.class, "acme");
+        UUID otherResourceId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO resources.it_resource (tenant_id, id, name, type, status, serial_number, inventory_location,
+                                                   created_at, updated_at)
+                VALUES ('acme', ?, 'Acme Resource', 'LAPTOP', 'ASSIGNED', 'SN123456', 'Office A', now(), now())
+                """, otherResourceId);
+        jdbcTemplate.update("""
+                INSERT INTO resources.it_resource_assign (tenant_id, id, resource_id, user_id, status, assigned_date,
+                                                          due_date, created_at, updated_at)
+                VALUES ('acme', ?, ?, ?, 'NOT_RETURNED', DATE '2023-03-01', CURRENT_DATE, now(), now())
+                """, UUID.randomUUID(), otherResourceId, testUserId);
+
+        assertThat(itResourceAssignRepository.findCurrentHoldings(TenantContext.DEFAULT_TENANT, testUserId))
+                .extracting(CurrentHoldingView::getResourceId).containsExactly(testResource.getId());
+        assertThat(itResourceAssignRepository.findRunningOnBySerialNumber(TenantContext.DEFAULT_TENANT, "SN123456",
+                LocalDate.of(2023, 3, 2)))
+                .extracting(ItResourceAssign::getId).containsExactly(own.getId());
+        assertThat(itResourceAssignRepository.findOverlappingByUserId(TenantContext.DEFAULT_TENANT, testUserId,
+                LocalDate.of(2023, 1, 1), LocalDate.of(2023, 3, 31)))
+                .extracting(ItResourceAssign::getId).containsExactly(own.getId());
+        assertThat(itResourceAssignRepository.findOpenDueBetween(TenantContext.DEFAULT_TENANT, LocalDate.now(),
+                LocalDate.now(), PageRequest.of(0, 10))).isEmpty();
+        assertThat(itResourceAssignRepository.findCurrentHoldings("acme", testUserId))
+                .extracting(CurrentHoldingView::getResourceId).containsExactly(otherResourceId);
+    }
+
+    @Test
+    void testOverlappingAssignmentsOfSameResourceAreRejected() {
+        itResourceAssignRepository.saveAndFlush(
+                createAssignment(testResource, testUserId, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 2, 1)));
+
+        assertThatThrownBy(() -> itResourceAssignRepository.saveAndFlush(
+                createAssignment(testResource, UUID.randomUUID(), LocalDate.of(2023, 1, 31), null)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private ItResourceAssign createAssignment(ItResource resource, UUID userId, LocalDate assignedDate, LocalDate returnDate) {
+        ItResourceAssign assignment = createAssignment(resource, userId);
+        assignment.setAssignedDate(assignedDate);
+        assignment.setReturnDate(returnDate);
+        if (returnDate != null) {
+            assignment.setStatus(ItResourceAssign.AssignStatus.RETURNED);
+        }
+        return assignment;
+    }
+
     private ItResourceAssign createAssignment(ItResource resource, UUID userId) {
         ItResourceAssign assignment = new ItResourceAssign();
         assignment.setResource(resource);
@@ -0,0 +1,100 @@
+package com.mursion.assignment.itresources.repository;
+
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.model.ItResourceAssign;
+import com.mursion.assignment.itresources.service.ItResourceAssignService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Testcontainers
+public class ItResourceCacheTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ItResourceRepository itResourceRepository;
+
+    @Autowired
+    private ItResourceAssignRepository itResourceAssignRepository;
+
+    @Autowired
+    private ItResourceAssignService itResourceAssignService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private ItResource testResource;
+
+    @BeforeEach
+    void setUp() {
+        itResourceAssignRepository.deleteAll();
+        itResourceRepository.deleteAll();
+
+        testResource = new ItResource();
+        testResource.setName("Dell Laptop");
+        testResource.setType(ItResource.ResourceType.LAPTOP);
+        testResource.setSerialNumber("SN001");
+        testResource.setInventoryLocation("Office A");
+        testResource.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
+        testResource = itResourceRepository.save(testResource);
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindByIdIsServedFromSecondLevelCache() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(itResourceRepository.findById(testResource.getId())).isPresent();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(4);
+    }
+
+    @Test
+    void testTypeLookupsAreServedFromQueryCache() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(itResourceRepository.findByType(ItResource.ResourceType.LAPTOP.toString())).hasSize(1);
+            assertThat(itResourceRepository.findByNameContainingIgnoreCaseAndType("dell", ItResource.ResourceType.LAPTOP.toString())).hasSize(1);
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(8);
+    }
+
+    @Test
+    void testStatusFlipsInvalidateCachedResource() {
+        assertThat(itResourceRepository.findById(testResource.getId()))
+                .hasValueSatisfying(resource -> assertThat(resource.getStatus()).isEqualTo(ItResource.ResourceStatus.NOT_ASSIGNED));
+
+        ItResourceAssign assignment = new ItResourceAssign();
+        assignment.setResource(testResource);
+        assignment.setUserId(UUID.randomUUID());
+        assignment.setAssignedDate(LocalDate.now());
+        assignment = itResourceAssignService.saveAssignment(assignment);
+
+        assertThat(itResourceRepository.findById(testResource.getId()))
+                .hasValueSatisfying(resource -> assertThat(resource.getStatus()).isEqualTo(ItResource.ResourceStatus.ASSIGNED));
+        assertThat(itResourceRepository.findByType(ItResource.ResourceType.LAPTOP.toString()))
+                .extracting(ItResource::getStatus).containsExactly(ItResource.ResourceStatus.ASSIGNED);
+
+        itResourceAssignService.returnResource(assignment.getId());
+
+        assertThat(itResourceRepository.findById(testResource.getId()))
+                .hasValueSatisfying(resource -> assertThat(resource.getStatus()).isEqualTo(ItResource.ResourceStatus.NOT_ASSIGNED));
+    }
+}
@@ -0,0 +1,301 @@
+package com.mursion.assignment.itresources.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the query plans of every repository query shape against a few million seeded rows.
+ * A shape fails when its plan sequentially scans a large table or its estimated cost exceeds its budget.
+ * Run with {@code ./gradlew queryPlanTest}; the dataset size is set with {@code -Pqueryplan.resources}. The rows
+ * belong to the default tenant, and every shape is scoped to it the way Hibernate and the native queries scope them.
+ */
+@Tag("query-plan")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryPlanRegressionTest extends BaseIntegrationTest {
+
+    private static final int RESOURCES = Integer.getInteger("queryplan.resources", 2_000_000);
+    private static final long LARGE_TABLE_ROWS = 10_000;
+    private static final double DEFAULT_COST_BUDGET = 5_000;
+    private static final double RANGE_COST_BUDGET = 20_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Set<String> largeTables;
+    private String resourceId;
+    private String userId;
+    private String nameFragment;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO resources.it_resource (tenant_id, id, name, type, status, serial_number, inventory_location,
+                                                   created_at, updated_at)
+                SELECT 'default',
+                       gen_random_uuid(),
+                       'Resource ' || g || ' ' || md5(g::text),
+                       CASE
+                           WHEN g % 5000 = 0 THEN 'SCANNER'
+                           WHEN g % 1000 = 0 THEN 'PRINTER'
+                           ELSE (ARRAY ['LAPTOP', 'LAPTOP', 'LAPTOP', 'MONITOR', 'MONITOR',
+                                        'CHAIR', 'MOUSE', 'KEYBOARD', 'MOBILE', 'DESKTOP'])[1 + g % 10]
+                       END,
+                       CASE WHEN g % 3 = 0 THEN 'ASSIGNED' WHEN g % 97 = 0 THEN 'DEPRECATED' ELSE 'NOT_ASSIGNED' END,
+                       'SN' || lpad(g::text, 10, '0'),
+                       'Warehouse ' || (g % 50),
+                       TIMESTAMP '2020-01-01' + (g % 1500) * INTERVAL '1 day',
+                       TIMESTAMP '2020-01-01' + (g % 1500) * INTERVAL '1 day'
+                FROM generate_series(1, ?) AS g
+                """, RESOURCES);
+
+        // One returned assignment per resource, plus an open one for every assigned resource
+        jdbcTemplate.update("""
+                INSERT INTO resources.it_resource_assign (tenant_id, id, resource_id, user_id, status, assigned_date, due_date,
+                                                          return_date, created_at, updated_at)
+                SELECT r.tenant_id, gen_random_uuid(), r.id, md5('user' || (r.g % 50000))::uuid, 'RETURNED',
+                       DATE '2019-01-01' + r.g % 1000, DATE '2019-04-01' + r.g % 1000, DATE '2019-01-31' + r.g % 1000,
+                       r.created_at, r.created_at
+                FROM (SELECT tenant_id, id, created_at, substring(serial_number FROM 3)::int AS g FROM resources.it_resource
+                      WHERE serial_number LIKE 'SN%') r
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO resources.it_resource_assign (tenant_id, id, resource_id, user_id, status, assigned_date, due_date,
+                                                          return_date, created_at, updated_at)
+                SELECT r.tenant_id, gen_random_uuid(), r.id, md5('user' || ((r.g + 7) % 50000))::uuid, 'NOT_RETURNED',
+                       DATE '2024-01-01' + r.g % 300, DATE '2024-04-01' + r.g % 300, NULL, r.created_at, r.created_at
+                FROM (SELECT tenant_id, id, created_at, substring(serial_number FROM 3)::int AS g FROM resources.it_resource
+                      WHERE serial_number LIKE 'SN%' AND status = 'ASSIGNED') r
+                """);
+
+        jdbcTemplate.execute("VACUUM ANALYZE resources.it_resource");
+        jdbcTemplate.execute("VACUUM ANALYZE resources.it_resource_assign");
+        jdbcTemplate.execute("VACUUM ANALYZE resources.it_resource_assign_archive");
+
+        largeTables = new HashSet<>(jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_class c
+                         JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE n.nspname = 'resources' AND c.relkind = 'r' AND c.reltuples > ?
+                """, String.class, LARGE_TABLE_ROWS));
+        resourceId = jdbcTemplate.queryForObject(
+                "SELECT id::text FROM resources.it_resource WHERE serial_number = 'SN0000000042'", String.class);
+        userId = jdbcTemplate.queryForObject("SELECT md5('user42')::uuid::text", String.class);
+        nameFragment = jdbcTemplate.queryForObject("SELECT substring(md5('42') FROM 5 FOR 6)", String.class);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE resources.it_resource_assign_archive, resources.it_resource_assign, resources.it_resource");
+    }
+
+    Stream<QueryShape> queryShapes() {
+        String resourceColumns = "r.id, r.name, r.type, r.status, r.serial_number, r.inventory_location, r.created_at, r.updated_at";
+        String assignColumns = "a.id, a.resource_id, a.user_id, a.status, a.assigned_date, a.due_date, a.return_date, "
+                + "a.created_at, a.updated_at";
+        String assignWithResource = "SELECT " + assignColumns + ", " + resourceColumns
+                + " FROM resources.it_resource_assign a"
+                + " LEFT JOIN resources.it_resource r ON r.id = a.resource_id AND r.tenant_id = 'default'"
+                + " WHERE a.tenant_id = 'default'";
+
+        return Stream.of(
+                // ItResourceRepository
+                new QueryShape("ItResourceRepository.findById",
+                        "SELECT %s FROM resources.it_resource r WHERE r.tenant_id = 'default' AND r.id = '%s'".formatted(resourceColumns, resourceId)),
+                new QueryShape("ItResourceRepository.findByNameContainingIgnoreCase",
+                        "SELECT %s FROM resources.it_resource r WHERE r.tenant_id = 'default' AND upper(r.name) LIKE upper('%%%s%%')"
+                                .formatted(resourceColumns, nameFragment)),
+                new QueryShape("ItResourceRepository.findByType",
+                        "SELECT %s FROM resources.it_resource r WHERE r.tenant_id = 'default' AND r.type = 'SCANNER'".formatted(resourceColumns)),
+                new QueryShape("ItResourceRepository.findByNameContainingIgnoreCaseAndType",
+                        ("SELECT %s FROM resources.it_resource r WHERE r.tenant_id = 'default' AND upper(r.name) LIKE upper('%%%s%%')"
+                                + " AND r.type = 'LAPTOP'")
+                                .formatted(resourceColumns, nameFragment)),
+                new QueryShape("ItResourceService.searchResources(name)",
+                        "SELECT %s FROM resources.it_resource r WHERE r.tenant_id = 'default' AND r.name LIKE '%%%s%%' ORDER BY r.name"
+                                .formatted(resourceColumns, nameFragment)),
+                new QueryShape("ItResourceService.searchResources(type, status)",
+                        ("SELECT %s FROM resources.it_resource r WHERE r.tenant_id = 'default' AND r.type = 'SCANNER'"
+                                + " AND r.status = 'NOT_ASSIGNED' ORDER BY r.name")
+                                .formatted(resourceColumns)),
+                new QueryShape("ItResourceService.searchResources(serialNumber)",
+                        "SELECT %s FROM resources.it_resource r WHERE r.tenant_id = 'default' AND r.serial_number LIKE '%%0000042%%'"
+                                .formatted(resourceColumns),
+                        RANGE_COST_BUDGET),
+                new QueryShape("ItResourceService.searchResources(startDate, endDate)",
+                        ("SELECT %s FROM resources.it_resource r WHERE r.tenant_id = 'default'"
+                                + " AND r.created_at BETWEEN '2021-03-01 00:00:00' AND '2021-03-01 23:59:59'")
+                                .formatted(resourceColumns),
+                        RANGE_COST_BUDGET),
+                new QueryShape("ItResourceRepository.lockNextAvailable",
+                        """
+                                SELECT * FROM resources.it_resource
+                                WHERE tenant_id = 'default'
+                                  AND status = 'NOT_ASSIGNED' AND type = 'LAPTOP' AND inventory_location = 'Warehouse 7'
+                                ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED
+                                """),
+                new QueryShape("ItResourceRepository.findExpiredReservationIds",
+                        """
+                                SELECT id FROM resources.it_resource
+                                WHERE status = 'RESERVED' AND reservation_expires_at <= now()
+                                ORDER BY reservation_expires_at LIMIT 500
+                                """),
+
+                // ItResourceAssignRepository
+                new QueryShape("ItResourceAssignRepository.findById",
+                        assignWithResource + " AND a.id = (SELECT id FROM resources.it_resource_assign"
+                                + " WHERE tenant_id = 'default' AND resource_id = '%s' LIMIT 1)"
+                                .formatted(resourceId)),
+                new QueryShape("ItResourceAssignRepository.findByResourceId",
+                        assignWithResource + " AND a.resource_id = '%s'".formatted(resourceId)),
+                new QueryShape("ItResourceAssignRepository.findByUserId",
+                        assignWithResource + " AND a.user_id = '%s'".formatted(userId)),
+                new QueryShape("ItResourceAssignRepository.findByResourceIdAndUserId",
+                        assignWithResource + " AND a.resource_id = '%s' AND a.user_id = '%s'".formatted(resourceId, userId)),
+                new QueryShape("ItResourceAssignRepository.findIncludingArchived",
+                        """
+                                SELECT id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+                                FROM resources.it_resource_assign WHERE tenant_id = 'default' AND user_id = '%1$s'
+                                UNION ALL
+                                SELECT id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+                                FROM resources.it_resource_assign_archive WHERE tenant_id = 'default' AND user_id = '%1$s'
+                                """.formatted(userId)),
+                new QueryShape("ItResourceAssignRepository.archiveReturnedBefore",
+                        """
+                                SELECT id FROM resources.it_resource_assign
+                                WHERE status = 'RETURNED' AND return_date < '2019-06-01'
+                                ORDER BY return_date LIMIT 1000
+                                """,
+                        RANGE_COST_BUDGET),
+                new QueryShape("ItResourceAssignRepository.findOverdue",
+                        """
+                                SELECT * FROM resources.it_resource_assign
+                                WHERE tenant_id = 'default' AND status = 'NOT_RETURNED' AND due_date < '2024-04-05'
+                                ORDER BY due_date, id LIMIT 20
+                                """),
+                new QueryShape("ItResourceAssignRepository.findOverdue(count)",
+                        """
+                                SELECT count(*) FROM resources.it_resource_assign
+                                WHERE tenant_id = 'default' AND status = 'NOT_RETURNED' AND due_date < '2024-04-05'
+                                """),
+                new QueryShape("ItResourceAssignRepository.findOpenDueBetween",
+                        """
+                                SELECT * FROM resources.it_resource_assign
+                                WHERE tenant_id = 'default' AND status = 'NOT_RETURNED' AND due_date BETWEEN '2024-06-01' AND '2024-06-01'
+                                ORDER BY due_date, id LIMIT 20
+                                """),
+                new QueryShape("ItResourceAssignRepository.findByAssignedDateBetween",
+                        assignWithResource + " AND a.assigned_date BETWEEN '2024-03-01' AND '2024-03-01'"
+                                + " ORDER BY a.assigned_date, a.id LIMIT 20",
+                        RANGE_COST_BUDGET),
+                new QueryShape("ItResourceAssignRepository.findCurrentHoldings",
+                        """
+                                SELECT a.resource_id, r.name, r.type, r.serial_number, a.assigned_date
+                                FROM resources.it_resource_assign a
+                                JOIN resources.it_resource r ON r.id = a.resource_id AND r.tenant_id = a.tenant_id
+                                WHERE a.tenant_id = 'default' AND a.user_id = '%s' AND a.status = 'NOT_RETURNED'
+                                ORDER BY a.assigned_date DESC
+                                """.formatted(userId)),
+                new QueryShape("ItResourceAssignRepository.findOpenIdsByUserIdAfter",
+                        """
+                                SELECT id FROM resources.it_resource_assign
+                                WHERE tenant_id = 'default' AND user_id = '%s' AND status = 'NOT_RETURNED' AND id > '00000000-0000-0000-0000-000000000000'
+                                ORDER BY id LIMIT 500
+                                """.formatted(userId)),
+                new QueryShape("ItResourceAssignRepository.findRunningOnBySerialNumber",
+                        """
+                                SELECT %1$s
+                                FROM resources.it_resource_assign a
+                                         JOIN resources.it_resource r ON r.id = a.resource_id AND r.tenant_id = a.tenant_id
+                                WHERE a.tenant_id = 'default' AND r.serial_number = 'SN0000000042' AND a.assigned_period @> DATE '2019-02-20'
+                                UNION ALL
+                                SELECT %1$s
+                                FROM resources.it_resource_assign_archive a
+                                         JOIN resources.it_resource r ON r.id = a.resource_id AND r.tenant_id = a.tenant_id
+                                WHERE a.tenant_id = 'default' AND r.serial_number = 'SN0000000042' AND a.assigned_period @> DATE '2019-02-20'
+                                """.formatted(assignColumns)),
+                new QueryShape("ItResourceAssignRepository.findOverlappingByUserId",
+                        """
+                                SELECT id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+                                FROM resources.it_resource_assign
+                                WHERE tenant_id = 'default' AND user_id = '%1$s' AND assigned_period && daterange('2019-01-01', '2019-03-31', '[]')
+                                UNION ALL
+                                SELECT id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+                                FROM resources.it_resource_assign_archive
+                                WHERE tenant_id = 'default' AND user_id = '%1$s' AND assigned_period && daterange('2019-01-01', '2019-03-31', '[]')
+                                ORDER BY assigned_date, id
+                                """.formatted(userId)),
+                new QueryShape("ItResourceAssignRepository.findOverlappingByResourceId",
+                        """
+                                SELECT id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+                                FROM resources.it_resource_assign
+                                WHERE tenant_id = 'default' AND resource_id = '%1$s' AND assigned_period && daterange('2019-01-01', '2024-12-31', '[]')
+                                UNION ALL
+                                SELECT id, resource_id, user_id, status, assigned_date, due_date, return_date, created_at, updated_at
+                                FROM resources.it_resource_assign_archive
+                                WHERE tenant_id = 'default' AND resource_id = '%1$s' AND assigned_period && daterange('2019-01-01', '2024-12-31', '[]')
+                                ORDER BY assigned_date, id
+                                """.formatted(resourceId))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queryShapes")
+    void testQueryPlan(QueryShape shape) throws Exception {
+        String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + shape.sql(), String.class);
+        JsonNode plan = objectMapper.readTree(json).get(0).get("Plan");
+
+        List<JsonNode> nodes = new ArrayList<>();
+        collectNodes(plan, nodes);
+
+        List<String> seqScannedLargeTables = nodes.stream()
+                .filter(node -> "Seq Scan".equals(node.path("Node Type").asText()))
+                .map(node -> node.path("Relation Name").asText())
+                .filter(largeTables::contains)
+                .toList();
+
+        assertThat(seqScannedLargeTables)
+                .as("%s must not sequentially scan a large table, plan:%n%s", shape.name(), plan.toPrettyString())
+                .isEmpty();
+        assertThat(plan.get("Total Cost").asDouble())
+                .as("%s estimated cost, plan:%n%s", shape.name(), plan.toPrettyString())
+                .isLessThanOrEqualTo(shape.costBudget());
+    }
+
+    private void collectNodes(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        for (JsonNode child : node.path("Plans")) {
+            collectNodes(child, nodes);
+        }
+    }
+
+    record QueryShape(String name, String sql, double costBudget) {
+
+        QueryShape(String name, String sql) {
+            this(name, sql, DEFAULT_COST_BUDGET);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
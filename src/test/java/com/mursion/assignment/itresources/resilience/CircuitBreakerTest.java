@@ -0,0 +1,66 @@
+package com.mursion.assignment.itresources.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 10 * SECOND, 1);
+
+        breaker.onFailure(breaker.tryAcquire(0), 0);
+        breaker.onFailure(breaker.tryAcquire(0), 0);
+        breaker.onSuccess(breaker.tryAcquire(0));
+        breaker.onFailure(breaker.tryAcquire(0), 0);
+        breaker.onFailure(breaker.tryAcquire(0), 0);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.onFailure(breaker.tryAcquire(0), 0);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(SECOND)).isNull();
+        assertThat(breaker.remainingOpenNanos(SECOND)).isEqualTo(9 * SECOND);
+    }
+
+    @Test
+    void testHalfOpenProbeClosesOnSuccess() {
+        CircuitBreaker breaker = openBreaker();
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire(10 * SECOND);
+        assertThat(probe).isEqualTo(CircuitBreaker.Permit.PROBE);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire(10 * SECOND)).as("only one probe at a time").isNull();
+
+        breaker.onSuccess(probe);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire(10 * SECOND)).isEqualTo(CircuitBreaker.Permit.CALL);
+    }
+
+    @Test
+    void testHalfOpenProbeReopensOnFailure() {
+        CircuitBreaker breaker = openBreaker();
+
+        breaker.onFailure(breaker.tryAcquire(10 * SECOND), 10 * SECOND);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(19 * SECOND)).isNull();
+        assertThat(breaker.tryAcquire(20 * SECOND)).isEqualTo(CircuitBreaker.Permit.PROBE);
+    }
+
+    @Test
+    void testReleasedProbeFreesItsSlot() {
+        CircuitBreaker breaker = openBreaker();
+
+        breaker.release(breaker.tryAcquire(10 * SECOND));
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire(10 * SECOND)).isEqualTo(CircuitBreaker.Permit.PROBE);
+    }
+
+    private CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 10 * SECOND, 1);
+        breaker.onFailure(breaker.tryAcquire(0), 0);
+        return breaker;
+    }
+}
@@ -0,0 +1,116 @@
+package com.mursion.assignment.itresources.resilience;
+
+import com.mursion.assignment.itresources.config.DatabaseCircuitBreakerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DatabaseCircuitBreakerTest {
+
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseCircuitBreakerProperties properties = new DatabaseCircuitBreakerProperties();
+        properties.setFailureThreshold(2);
+        properties.setOpenDuration(Duration.ofHours(1));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        databaseCircuitBreaker = new DatabaseCircuitBreaker(properties, transactionManager, new SimpleMeterRegistry());
+
+        response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testFreshReadIsNotMarkedStale() {
+        String value = databaseCircuitBreaker.unwrap(databaseCircuitBreaker.read("key", () -> "fresh"));
+
+        assertThat(value).isEqualTo("fresh");
+        assertThat(response.getHeader(DatabaseCircuitBreaker.STALE_HEADER)).isNull();
+    }
+
+    @Test
+    void testServesLastKnownGoodResultWhenDatabaseIsUnavailable() {
+        databaseCircuitBreaker.read("key", () -> "remembered");
+
+        StaleableRead<String> read = databaseCircuitBreaker.read("key", () -> {
+            throw new DataAccessResourceFailureException("Connection refused");
+        });
+
+        assertThat(read.isStale()).isTrue();
+        assertThat(databaseCircuitBreaker.unwrap(read)).isEqualTo("remembered");
+        assertThat(response.getHeader(DatabaseCircuitBreaker.STALE_HEADER)).isEqualTo("true");
+        assertThat(response.getHeader("Age")).isEqualTo("0");
+    }
+
+    @Test
+    void testOpenBreakerStopsCallingTheDatabase() {
+        databaseCircuitBreaker.read("key", () -> "remembered");
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            databaseCircuitBreaker.read("key", () -> {
+                calls.incrementAndGet();
+                throw new DataAccessResourceFailureException("Connection refused");
+            });
+        }
+
+        assertThat(calls).hasValue(2);
+        assertThatThrownBy(() -> databaseCircuitBreaker.read("unknown", () -> "never"))
+                .isInstanceOf(DatabaseUnavailableException.class);
+    }
+
+    @Test
+    void testErrorsOfAReachableDatabaseDoNotOpenTheBreaker() {
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> databaseCircuitBreaker.read("key", () -> {
+                throw new DataIntegrityViolationException("duplicate key");
+            })).isInstanceOf(DataIntegrityViolationException.class);
+        }
+
+        assertThat(databaseCircuitBreaker.read("key", () -> "fresh").isStale()).isFalse();
+    }
+
+    @Test
+    void testWritesFailFastWhileOpen() throws Exception {
+        DatabaseAvailabilityInterceptor interceptor = new DatabaseAvailabilityInterceptor(databaseCircuitBreaker);
+        HandlerMethod write = new HandlerMethod(this, DatabaseCircuitBreakerTest.class.getDeclaredMethod("testWritesFailFastWhileOpen"));
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/resources");
+            assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), write)).isTrue();
+            interceptor.afterCompletion(request, new MockHttpServletResponse(), write,
+                    new DataAccessResourceFailureException("Connection refused"));
+        }
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("POST", "/api/resources"), rejected, write)).isFalse();
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isNotNull();
+    }
+}
@@ -0,0 +1,103 @@
+package com.mursion.assignment.itresources.service;
+
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.model.ItResourceAssign;
+import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
+import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+public class AssignmentArchiveServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private AssignmentArchiveService assignmentArchiveService;
+
+    @Autowired
+    private ItResourceAssignService itResourceAssignService;
+
+    @Autowired
+    private ItResourceRepository itResourceRepository;
+
+    @Autowired
+    private ItResourceAssignRepository itResourceAssignRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ItResource testResource;
+    private UUID testUserId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        testResource = new ItResource();
+        testResource.setName("Test Resource");
+        testResource.setType(ItResource.ResourceType.LAPTOP);
+        testResource.setSerialNumber("SN123456");
+        testResource.setInventoryLocation("Office A");
+        testResource.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
+        testResource = itResourceRepository.save(testResource);
+
+        testUserId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM resources.it_resource_assign_archive");
+        itResourceAssignRepository.deleteAll();
+        itResourceRepository.deleteAll();
+    }
+
+    @Test
+    void testArchiveMovesOnlyOldReturnedAssignments() {
+        ItResourceAssign oldReturned = saveAssignment(ItResourceAssign.AssignStatus.RETURNED, LocalDate.now().minusYears(3));
+        ItResourceAssign recentReturned = saveAssignment(ItResourceAssign.AssignStatus.RETURNED, LocalDate.now().minusDays(1));
+        ItResourceAssign open = saveAssignment(ItResourceAssign.AssignStatus.NOT_RETURNED, null);
+
+        int archived = assignmentArchiveService.archiveReturnedAssignments();
+
+        assertThat(archived).isEqualTo(1);
+        assertThat(itResourceAssignRepository.findById(oldReturned.getId())).isEmpty();
+        assertThat(itResourceAssignRepository.findById(recentReturned.getId())).isPresent();
+        assertThat(itResourceAssignRepository.findById(open.getId())).isPresent();
+    }
+
+    @Test
+    void testSearchAssignmentsIncludeArchived() {
+        ItResourceAssign oldReturned = saveAssignment(ItResourceAssign.AssignStatus.RETURNED, LocalDate.now().minusYears(3));
+        ItResourceAssign open = saveAssignment(ItResourceAssign.AssignStatus.NOT_RETURNED, null);
+        assignmentArchiveService.archiveReturnedAssignments();
+
+        List<ItResourceAssign> liveOnly = itResourceAssignService.searchAssignments(testResource.getId(), testUserId);
+        List<ItResourceAssign> withArchive = itResourceAssignService.searchAssignments(testResource.getId(), testUserId, true);
+
+        assertThat(liveOnly).extracting(ItResourceAssign::getId).containsExactly(open.getId());
+        assertThat(withArchive).extracting(ItResourceAssign::getId)
+                .containsExactlyInAnyOrder(open.getId(), oldReturned.getId());
+    }
+
+    private ItResourceAssign saveAssignment(ItResourceAssign.AssignStatus status, LocalDate returnDate) {
+        ItResourceAssign assignment = new ItResourceAssign();
+        assignment.setResource(testResource);
+        assignment.setUserId(testUserId);
+        assignment.setStatus(status);
+        assignment.setAssignedDate(returnDate != null ? returnDate.minusMonths(6) : LocalDate.now());
+        assignment.setReturnDate(returnDate);
+        return itResourceAssignRepository.save(assignment);
+    }
+}
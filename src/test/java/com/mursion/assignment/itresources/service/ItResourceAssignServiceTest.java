@@ -1,6 +1,7 @@
 package com.mursion.assignment.itresources.service;
 
 import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.dto.it_resource_assign.AutoAssignDto;
 import com.mursion.assignment.itresources.model.ItResource;
 import com.mursion.assignment.itresources.model.ItResourceAssign;
 import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -16,8 +18,13 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -69,6 +76,40 @@ public class ItResourceAssignServiceTest extends BaseIntegrationTest {
         assertThat(savedAssignment.getResource().getStatus()).isEqualTo(ItResource.ResourceStatus.ASSIGNED);
     }
 
+    @Test
+    void testSaveAssignmentDerivesDueDateFromLoanPolicy() {
+        ItResourceAssign assignment = new ItResourceAssign();
+        assignment.setResource(testResource);
+        assignment.setUserId(testUserId);
+        assignment.setAssignedDate(LocalDate.of(2024, 1, 15));
+
+        ItResourceAssign savedAssignment = itResourceAssignService.saveAssignment(assignment);
+
+        // LAPTOP loans last a year
+        assertThat(savedAssignment.getDueDate()).isEqualTo(LocalDate.of(2025, 1, 15));
+    }
+
+    @Test
+    void testGetOverdueAssignments() {
+        ItResourceAssign assignment = new ItResourceAssign();
+        assignment.setResource(testResource);
+        assignment.setUserId(testUserId);
+        assignment.setAssignedDate(LocalDate.now().minusDays(100));
+        assignment.setDueDate(LocalDate.now().minusDays(10));
+        ItResourceAssign overdue = itResourceAssignService.saveAssignment(assignment);
+
+        Page<ItResourceAssign> overdueToday = itResourceAssignService.getOverdueAssignments(LocalDate.now(), 0, 20);
+        Page<ItResourceAssign> overdueLastMonth = itResourceAssignService.getOverdueAssignments(LocalDate.now().minusDays(30), 0, 20);
+
+        assertThat(overdueToday.getContent()).extracting(ItResourceAssign::getId).containsExactly(overdue.getId());
+        assertThat(overdueToday.getTotalElements()).isEqualTo(1);
+        assertThat(overdueLastMonth.getContent()).isEmpty();
+
+        itResourceAssignService.returnResource(overdue.getId());
+
+        assertThat(itResourceAssignService.getOverdueAssignments(LocalDate.now(), 0, 20).getContent()).isEmpty();
+    }
+
     @Test
     void testSaveAssignmentWithAlreadyAssignedResource() {
         testResource.setStatus(ItResource.ResourceStatus.ASSIGNED);
@@ -130,6 +171,61 @@ public class ItResourceAssignServiceTest extends BaseIntegrationTest {
         assertThat(returnedAssignment.getResource().getStatus()).isEqualTo(ItResource.ResourceStatus.NOT_ASSIGNED);
     }
 
+    @Test
+    void testAutoAssignClaimsAvailableResourceAtLocation() {
+        ItResource elsewhere = createResource("SN-ELSEWHERE", "Office B");
+
+        AutoAssignDto request = new AutoAssignDto();
+        request.setType(ItResource.ResourceType.LAPTOP);
+        request.setInventoryLocation("Office B");
+        request.setUserId(testUserId);
+
+        ItResourceAssign assignment = itResourceAssignService.autoAssign(request).orElseThrow();
+
+        assertThat(assignment.getResource().getId()).isEqualTo(elsewhere.getId());
+        assertThat(assignment.getStatus()).isEqualTo(ItResourceAssign.AssignStatus.NOT_RETURNED);
+        assertThat(assignment.getAssignedDate()).isEqualTo(LocalDate.now());
+        assertThat(assignment.getDueDate()).isNotNull();
+        assertThat(itResourceRepository.findById(elsewhere.getId()).orElseThrow().getStatus())
+                .isEqualTo(ItResource.ResourceStatus.ASSIGNED);
+        assertThat(itResourceAssignService.autoAssign(request)).isEmpty();
+    }
+
+    @Test
+    void testAutoAssignHandsOutEachResourceOnceUnderConcurrency() throws Exception {
+        int resources = 20;
+        for (int i = 1; i < resources; i++) {
+            createResource("SN-AUTO-" + i, "Office A");
+        }
+
+        List<Future<Optional<ItResourceAssign>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < resources + 5; i++) {
+                AutoAssignDto request = new AutoAssignDto();
+                request.setType(ItResource.ResourceType.LAPTOP);
+                request.setUserId(UUID.randomUUID());
+                results.add(executor.submit(() -> itResourceAssignService.autoAssign(request)));
+            }
+        }
+
+        List<UUID> assigned = new ArrayList<>();
+        for (Future<Optional<ItResourceAssign>> result : results) {
+            result.get().ifPresent(assignment -> assigned.add(assignment.getResource().getId()));
+        }
+        assertThat(assigned).hasSize(resources).doesNotHaveDuplicates();
+        assertThat(itResourceAssignRepository.count()).isEqualTo(resources);
+    }
+
+    private ItResource createResource(String serialNumber, String location) {
+        ItResource resource = new ItResource();
+        resource.setName("Laptop " + serialNumber);
+        resource.setType(ItResource.ResourceType.LAPTOP);
+        resource.setSerialNumber(serialNumber);
+        resource.setInventoryLocation(location);
+        resource.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
+        return itResourceRepository.save(resource);
+    }
+
     private ItResourceAssign createAndSaveAssignment(ItResource resource, UUID userId) {
         ItResourceAssign assignment = new ItResourceAssign();
         assignment.setResource(resource);
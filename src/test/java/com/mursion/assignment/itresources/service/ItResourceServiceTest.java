@@ -2,6 +2,7 @@ package com.mursion.assignment.itresources.service;
 
 import com.mursion.assignment.itresources.config.BaseIntegrationTest;
 import com.mursion.assignment.itresources.dto.it_resource.ItResourceSearchDto;
+import com.mursion.assignment.itresources.dto.it_resource.StatusTransitionResultDto;
 import com.mursion.assignment.itresources.model.ItResource;
 import com.mursion.assignment.itresources.repository.ItResourceRepository;
 import com.mursion.assignment.itresources.types.enums.SortDirection;
@@ -106,6 +107,67 @@ public class ItResourceServiceTest extends BaseIntegrationTest {
                 .containsExactly("Laptop 1", "Laptop 2");
     }
 
+    @Test
+    void testTransitionStatusSkipsAssignedResources() {
+        ItResource laptop1 = createAndSaveTestResource("SN-T1", ItResource.ResourceType.LAPTOP, ItResource.ResourceStatus.NOT_ASSIGNED);
+        ItResource laptop2 = createAndSaveTestResource("SN-T2", ItResource.ResourceType.LAPTOP, ItResource.ResourceStatus.NOT_ASSIGNED);
+        ItResource assignedLaptop = createAndSaveTestResource("SN-T3", ItResource.ResourceType.LAPTOP, ItResource.ResourceStatus.ASSIGNED);
+        createAndSaveTestResource("SN-T4", ItResource.ResourceType.LAPTOP, ItResource.ResourceStatus.DEPRECATED);
+        ItResource mouse = createAndSaveTestResource("SN-T5", ItResource.ResourceType.MOUSE, ItResource.ResourceStatus.NOT_ASSIGNED);
+
+        ItResourceSearchDto filter = new ItResourceSearchDto();
+        filter.setType(ItResource.ResourceType.LAPTOP);
+
+        StatusTransitionResultDto result = itResourceService.transitionStatus(filter, ItResource.ResourceStatus.DEPRECATED);
+
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getSkippedAssigned()).isEqualTo(1);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(itResourceRepository.findById(laptop1.getId()).orElseThrow().getStatus()).isEqualTo(ItResource.ResourceStatus.DEPRECATED);
+        assertThat(itResourceRepository.findById(laptop2.getId()).orElseThrow().getStatus()).isEqualTo(ItResource.ResourceStatus.DEPRECATED);
+        assertThat(itResourceRepository.findById(assignedLaptop.getId()).orElseThrow().getStatus()).isEqualTo(ItResource.ResourceStatus.ASSIGNED);
+        assertThat(itResourceRepository.findById(mouse.getId()).orElseThrow().getStatus()).isEqualTo(ItResource.ResourceStatus.NOT_ASSIGNED);
+    }
+
+    @Test
+    void testTransitionStatusSkipsReservedResources() {
+        ItResource laptop = createAndSaveTestResource("SN-R1", ItResource.ResourceType.LAPTOP, ItResource.ResourceStatus.NOT_ASSIGNED);
+        ItResource reservedLaptop = createTestResource();
+        reservedLaptop.setSerialNumber("SN-R2");
+        reservedLaptop.setStatus(ItResource.ResourceStatus.RESERVED);
+        reservedLaptop.setReservedFor(UUID.randomUUID());
+        reservedLaptop.setReservationExpiresAt(LocalDateTime.now().plusHours(1));
+        reservedLaptop = itResourceRepository.save(reservedLaptop);
+
+        ItResourceSearchDto filter = new ItResourceSearchDto();
+        filter.setType(ItResource.ResourceType.LAPTOP);
+
+        StatusTransitionResultDto result = itResourceService.transitionStatus(filter, ItResource.ResourceStatus.DEPRECATED);
+
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getSkippedReserved()).isEqualTo(1);
+        assertThat(itResourceRepository.findById(laptop.getId()).orElseThrow().getStatus()).isEqualTo(ItResource.ResourceStatus.DEPRECATED);
+        ItResource stillReserved = itResourceRepository.findById(reservedLaptop.getId()).orElseThrow();
+        assertThat(stillReserved.getStatus()).isEqualTo(ItResource.ResourceStatus.RESERVED);
+        assertThat(stillReserved.getReservationExpiresAt()).isNotNull();
+    }
+
+    @Test
+    void testUpdateToReservedIsRejected() {
+        ItResource resource = createAndSaveTestResource("SN-R3", ItResource.ResourceType.LAPTOP, ItResource.ResourceStatus.NOT_ASSIGNED);
+        resource.setStatus(ItResource.ResourceStatus.RESERVED);
+
+        assertThrows(IllegalArgumentException.class, () -> itResourceService.updateResource(resource.getId(), resource));
+        assertThat(itResourceRepository.findById(resource.getId()).orElseThrow().getStatus())
+                .isEqualTo(ItResource.ResourceStatus.NOT_ASSIGNED);
+    }
+
+    @Test
+    void testTransitionStatusToAssignedIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> itResourceService.transitionStatus(new ItResourceSearchDto(), ItResource.ResourceStatus.ASSIGNED));
+    }
+
     private ItResource createTestResource() {
         ItResource resource = new ItResource();
         resource.setName("Test Resource");
@@ -126,4 +188,12 @@ public class ItResourceServiceTest extends BaseIntegrationTest {
         resource.setType(type);
         return itResourceRepository.save(resource);
     }
-}
\ No newline at end of file
+
+    private ItResource createAndSaveTestResource(String serialNumber, ItResource.ResourceType type, ItResource.ResourceStatus status) {
+        ItResource resource = createTestResource();
+        resource.setSerialNumber(serialNumber);
+        resource.setType(type);
+        resource.setStatus(status);
+        return itResourceRepository.save(resource);
+    }
+}
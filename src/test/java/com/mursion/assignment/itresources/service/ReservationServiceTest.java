@@ -0,0 +1,148 @@
+package com.mursion.assignment.itresources.service;
+
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.exception.InvalidReservationDurationException;
+import com.mursion.assignment.itresources.exception.ResourceNotAvailableException;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.model.ItResourceAssign;
+import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
+import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "mursion.reservations.tick=50ms")
+@Testcontainers
+public class ReservationServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ItResourceAssignService itResourceAssignService;
+
+    @Autowired
+    private ItResourceRepository itResourceRepository;
+
+    @Autowired
+    private ItResourceAssignRepository itResourceAssignRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ItResource testResource;
+    private UUID testUserId;
+
+    @BeforeEach
+    void setUp() {
+        itResourceAssignRepository.deleteAll();
+        itResourceRepository.deleteAll();
+
+        testResource = new ItResource();
+        testResource.setName("Dell Laptop");
+        testResource.setType(ItResource.ResourceType.LAPTOP);
+        testResource.setSerialNumber("SN001");
+        testResource.setInventoryLocation("Office A");
+        testResource.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
+        testResource = itResourceRepository.save(testResource);
+
+        testUserId = UUID.randomUUID();
+    }
+
+    @Test
+    void testReserveHoldsResourceForUser() {
+        ItResource reserved = reservationService.reserve(testResource.getId(), testUserId, Duration.ofMinutes(30));
+
+        assertThat(reserved.getStatus()).isEqualTo(ItResource.ResourceStatus.RESERVED);
+        assertThat(reserved.getReservedFor()).isEqualTo(testUserId);
+        assertThat(reserved.getReservationExpiresAt()).isAfter(LocalDateTime.now().plusMinutes(29));
+        assertThatThrownBy(() -> reservationService.reserve(testResource.getId(), UUID.randomUUID(), null))
+                .isInstanceOf(ResourceNotAvailableException.class);
+    }
+
+    @Test
+    void testReserveRejectsMissingResourceAndInvalidDuration() {
+        assertThatThrownBy(() -> reservationService.reserve(UUID.randomUUID(), testUserId, null))
+                .hasMessage("Resource not found");
+        assertThatThrownBy(() -> reservationService.reserve(testResource.getId(), testUserId, Duration.ZERO))
+                .isInstanceOf(InvalidReservationDurationException.class);
+        assertThatThrownBy(() -> reservationService.reserve(testResource.getId(), testUserId, Duration.ofDays(2)))
+                .isInstanceOf(InvalidReservationDurationException.class);
+    }
+
+    @Test
+    void testExpiredReservationIsReleasedByTimerWheel() throws InterruptedException {
+        reservationService.reserve(testResource.getId(), testUserId, Duration.ofMillis(200));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (status() == ItResource.ResourceStatus.RESERVED) {
+            assertThat(System.currentTimeMillis()).as("reservation not released in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+
+        ItResource released = itResourceRepository.findById(testResource.getId()).orElseThrow();
+        assertThat(released.getStatus()).isEqualTo(ItResource.ResourceStatus.NOT_ASSIGNED);
+        assertThat(released.getReservedFor()).isNull();
+        assertThat(released.getReservationExpiresAt()).isNull();
+    }
+
+    @Test
+    void testCancelReleasesReservation() {
+        reservationService.reserve(testResource.getId(), testUserId, null);
+
+        assertThat(reservationService.cancel(testResource.getId())).isTrue();
+        assertThat(reservationService.cancel(testResource.getId())).isFalse();
+        assertThat(status()).isEqualTo(ItResource.ResourceStatus.NOT_ASSIGNED);
+    }
+
+    @Test
+    void testSweepReleasesUntrackedExpiredReservations() {
+        // Reserved by a node that went away: only the database knows about it
+        jdbcTemplate.update("""
+                UPDATE resources.it_resource
+                SET status = 'RESERVED', reserved_for = ?, reservation_expires_at = now() - INTERVAL '1 minute'
+                WHERE id = ?
+                """, testUserId, testResource.getId());
+
+        assertThat(reservationService.sweepExpired()).isEqualTo(1);
+        assertThat(status()).isEqualTo(ItResource.ResourceStatus.NOT_ASSIGNED);
+    }
+
+    @Test
+    void testReservedResourceCanOnlyBeAssignedToItsUser() {
+        reservationService.reserve(testResource.getId(), testUserId, null);
+
+        assertThatThrownBy(() -> itResourceAssignService.saveAssignment(assignment(UUID.randomUUID())))
+                .hasMessage("Resource is not available for assignment");
+
+        ItResourceAssign saved = itResourceAssignService.saveAssignment(assignment(testUserId));
+        ItResource assigned = itResourceRepository.findById(testResource.getId()).orElseThrow();
+        assertThat(saved.getId()).isNotNull();
+        assertThat(assigned.getStatus()).isEqualTo(ItResource.ResourceStatus.ASSIGNED);
+        assertThat(assigned.getReservedFor()).isNull();
+        assertThat(reservationService.cancel(testResource.getId())).isFalse();
+    }
+
+    private ItResourceAssign assignment(UUID userId) {
+        ItResourceAssign assignment = new ItResourceAssign();
+        assignment.setResource(testResource);
+        assignment.setUserId(userId);
+        assignment.setAssignedDate(LocalDate.now());
+        return assignment;
+    }
+
+    private ItResource.ResourceStatus status() {
+        return itResourceRepository.findById(testResource.getId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,149 @@
+package com.mursion.assignment.itresources.service;
+
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.model.ItResourceAssign;
+import com.mursion.assignment.itresources.model.MonthlyUtilization;
+import com.mursion.assignment.itresources.repository.ItResourceAssignRepository;
+import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import com.mursion.assignment.itresources.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Testcontainers
+public class UtilizationReportServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private UtilizationReportService utilizationReportService;
+
+    @Autowired
+    private ItResourceRepository itResourceRepository;
+
+    @Autowired
+    private ItResourceAssignRepository itResourceAssignRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ItResource first;
+    private ItResource second;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        first = createResource("SN-UTIL-1", LocalDate.of(2024, 1, 1));
+        second = createResource("SN-UTIL-2", LocalDate.of(2024, 1, 16));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM resources.monthly_utilization_closed");
+        jdbcTemplate.update("DELETE FROM resources.it_resource_assign_archive");
+        itResourceAssignRepository.deleteAll();
+        itResourceRepository.deleteAll();
+    }
+
+    @Test
+    void testClosedMonthsAreComputedFromAssignmentPeriods() {
+        createAssignment(first, LocalDate.of(2024, 1, 11), LocalDate.of(2024, 2, 10));
+
+        assertThat(utilizationReportService.refresh()).isPositive();
+
+        List<MonthlyUtilization> report = utilizationReportService.getMonthlyUtilization(
+                YearMonth.of(2024, 1), YearMonth.of(2024, 2), ItResource.ResourceType.LAPTOP);
+        assertThat(report).hasSize(2);
+        // January: owned 31 + 16 days, assigned from the 11th on; February: owned 2 * 29 days, assigned up to the 9th
+        assertThat(report.get(0).getDaysOwned()).isEqualTo(47);
+        assertThat(report.get(0).getDaysAssigned()).isEqualTo(21);
+        assertThat(report.get(1).getDaysOwned()).isEqualTo(58);
+        assertThat(report.get(1).getDaysAssigned()).isEqualTo(9);
+        assertThat(report.get(1).getUtilization()).isEqualTo(9.0 / 58);
+    }
+
+    @Test
+    void testClosedMonthsAreNeverRecomputed() {
+        ItResourceAssign assignment = createAssignment(first, LocalDate.of(2024, 1, 11), LocalDate.of(2024, 2, 10));
+        utilizationReportService.refresh();
+
+        jdbcTemplate.update("UPDATE resources.it_resource_assign SET return_date = DATE '2024-01-20' WHERE id = ?", assignment.getId());
+
+        assertThat(utilizationReportService.refresh()).isZero();
+        List<MonthlyUtilization> report = utilizationReportService.getMonthlyUtilization(
+                YearMonth.of(2024, 1), YearMonth.of(2024, 1), null);
+        assertThat(report).singleElement().extracting(MonthlyUtilization::getDaysAssigned).isEqualTo(21L);
+    }
+
+    @Test
+    void testRunningMonthIsServedFromRefreshedRollup() {
+        createAssignment(second, LocalDate.of(2024, 3, 1), null);
+        YearMonth current = YearMonth.now();
+
+        utilizationReportService.refresh();
+
+        List<MonthlyUtilization> report = utilizationReportService.getMonthlyUtilization(current, current, null);
+        int daysSoFar = LocalDate.now().getDayOfMonth();
+        assertThat(report).singleElement().satisfies(row -> {
+            assertThat(row.getType()).isEqualTo(ItResource.ResourceType.LAPTOP);
+            assertThat(row.getDaysOwned()).isEqualTo(2L * daysSoFar);
+            assertThat(row.getDaysAssigned()).isEqualTo(daysSoFar);
+        });
+    }
+
+    @Test
+    void testRowsOfDifferentTenantsAreKeptApart() {
+        createAssignment(first, LocalDate.of(2024, 1, 11), LocalDate.of(2024, 2, 10));
+        utilizationReportService.refresh();
+        jdbcTemplate.update("""
+                INSERT INTO resources.monthly_utilization_closed (tenant_id, month, type, days_assigned, days_owned)
+                VALUES ('acme', DATE '2024-01-01', 'LAPTOP', 5, 31)
+                """);
+
+        List<MonthlyUtilization> report = TenantContext.callAs(TenantContext.ROOT, () -> utilizationReportService
+                .getMonthlyUtilization(YearMonth.of(2024, 1), YearMonth.of(2024, 1), ItResource.ResourceType.LAPTOP));
+        assertThat(report).extracting(MonthlyUtilization::getTenantId, MonthlyUtilization::getDaysAssigned)
+                .containsExactlyInAnyOrder(tuple(TenantContext.DEFAULT_TENANT, 21L), tuple("acme", 5L));
+    }
+
+    @Test
+    void testRejectsRangeEndingBeforeItStarts() {
+        assertThrows(IllegalArgumentException.class,
+                () -> utilizationReportService.getMonthlyUtilization(YearMonth.of(2024, 2), YearMonth.of(2024, 1), null));
+    }
+
+    private ItResource createResource(String serialNumber, LocalDate createdOn) {
+        ItResource resource = new ItResource();
+        resource.setName("Laptop " + serialNumber);
+        resource.setType(ItResource.ResourceType.LAPTOP);
+        resource.setSerialNumber(serialNumber);
+        resource.setInventoryLocation("Office A");
+        resource.setStatus(ItResource.ResourceStatus.NOT_ASSIGNED);
+        resource = itResourceRepository.save(resource);
+        jdbcTemplate.update("UPDATE resources.it_resource SET created_at = ? WHERE id = ?", createdOn.atStartOfDay(), resource.getId());
+        return resource;
+    }
+
+    private ItResourceAssign createAssignment(ItResource resource, LocalDate assignedDate, LocalDate returnDate) {
+        ItResourceAssign assignment = new ItResourceAssign();
+        assignment.setResource(resource);
+        assignment.setUserId(UUID.randomUUID());
+        assignment.setStatus(returnDate != null ? ItResourceAssign.AssignStatus.RETURNED : ItResourceAssign.AssignStatus.NOT_RETURNED);
+        assignment.setAssignedDate(assignedDate);
+        assignment.setReturnDate(returnDate);
+        return itResourceAssignRepository.save(assignment);
+    }
+}
@@ -0,0 +1,78 @@
+package com.mursion.assignment.itresources.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HashedTimerWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private final HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, START);
+
+    @Test
+    void testKeyExpiresOnFirstTickAtOrAfterDeadline() {
+        wheel.schedule("a", START + 250);
+
+        assertThat(wheel.advance(START + 249)).isEmpty();
+        assertThat(wheel.advance(START + 299)).isEmpty();
+        assertThat(wheel.advance(START + 300)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void testDeadlineBeyondOneTurnWaitsForRemainingRounds() {
+        // 8 buckets of 100ms: 2050ms is more than two turns away
+        wheel.schedule("far", START + 2050);
+        wheel.schedule("near", START + 50);
+
+        assertThat(wheel.advance(START + 100)).containsExactly("near");
+        assertThat(wheel.advance(START + 2000)).isEmpty();
+        assertThat(wheel.advance(START + 2100)).containsExactly("far");
+    }
+
+    @Test
+    void testPastDeadlineExpiresOnNextTick() {
+        wheel.advance(START + 1000);
+        wheel.schedule("late", START);
+
+        assertThat(wheel.advance(START + 1099)).isEmpty();
+        assertThat(wheel.advance(START + 1100)).containsExactly("late");
+    }
+
+    @Test
+    void testCancelledKeyNeverExpires() {
+        wheel.schedule("a", START + 100);
+
+        assertThat(wheel.cancel("a")).isTrue();
+        assertThat(wheel.cancel("a")).isFalse();
+        assertThat(wheel.advance(START + 10_000)).isEmpty();
+    }
+
+    @Test
+    void testRescheduleReplacesDeadline() {
+        wheel.schedule("a", START + 100);
+        wheel.schedule("a", START + 500);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(START + 400)).isEmpty();
+        assertThat(wheel.advance(START + 500)).containsExactly("a");
+    }
+
+    @Test
+    void testExpiresManyKeysInOneAdvance() {
+        for (int i = 0; i < 1000; i++) {
+            wheel.schedule("key-" + i, START + i);
+        }
+
+        assertThat(wheel.advance(START + 1000)).hasSize(1000).doesNotHaveDuplicates();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void testRejectsInvalidConfiguration() {
+        assertThatThrownBy(() -> new HashedTimerWheel<String>(0, 8, START)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HashedTimerWheel<String>(100, 0, START)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,78 @@
+package com.mursion.assignment.itresources.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RingBufferTest {
+
+    @Test
+    void testOfferFailsWhenFullAndPollKeepsOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+        assertThat(buffer.poll()).isEqualTo(0);
+        assertThat(buffer.offer(4)).isTrue();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void testConcurrentProducersLoseAndDuplicateNothing() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 20_000;
+
+        Set<Integer> received = new HashSet<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(producers)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int offset = p * perProducer;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(offset + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }));
+            }
+
+            List<Integer> batch = new ArrayList<>();
+            while (received.size() < producers * perProducer) {
+                buffer.drainTo(batch, 32);
+                for (Integer element : batch) {
+                    assertThat(received.add(element)).as("duplicate %s", element).isTrue();
+                }
+                batch.clear();
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(received).hasSize(producers * perProducer);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void testRejectsCapacityThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new RingBuffer<Integer>(100)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mursion.assignment.itresources.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    void testConcurrentCallsShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                executions.incrementAndGet();
+                loaderStarted.countDown();
+                await(releaseLoader);
+                return 42;
+            }));
+            assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute("key", executions::incrementAndGet)));
+            }
+            // Give the followers time to join the call in flight
+            Thread.sleep(100);
+            releaseLoader.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            for (Future<Integer> follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+        }
+        assertThat(executions).hasValue(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void testResultIsNotKeptAfterCompletion() {
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThat(singleFlight.execute("key", executions::incrementAndGet)).isEqualTo(1);
+        assertThat(singleFlight.execute("key", executions::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void testFailureIsPropagatedAndNotKept() {
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.execute("key", () -> 1)).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.mursion.assignment.itresources.tenant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mursion.assignment.itresources.config.BaseIntegrationTest;
+import com.mursion.assignment.itresources.dto.it_resource.ItResourceDto;
+import com.mursion.assignment.itresources.dto.it_resource.ItResourceSearchDto;
+import com.mursion.assignment.itresources.model.ItResource;
+import com.mursion.assignment.itresources.repository.ItResourceRepository;
+import com.mursion.assignment.itresources.repository.ItResourceSpecifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "mursion.tenancy.tenants=default,acme")
+@AutoConfigureMockMvc
+@Testcontainers
+public class TenantIsolationTest extends BaseIntegrationTest {
+
+    private static final String TENANT_HEADER = "X-Tenant-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ItResourceRepository itResourceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Repositories only see the current tenant, so every tenant is cleaned directly
+        jdbcTemplate.update("DELETE FROM resources.it_resource_assign_archive");
+        jdbcTemplate.update("DELETE FROM resources.it_resource_assign");
+        jdbcTemplate.update("DELETE FROM resources.it_resource");
+    }
+
+    @Test
+    void testSameSerialNumberInTwoTenants() throws Exception {
+        createResource("default", "Default Laptop", "SN-TENANT-1");
+        createResource("acme", "Acme Laptop", "SN-TENANT-1");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM resources.it_resource_tenant_default", Long.class))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM resources.it_resource_tenant_acme", Long.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void testResourceOfAnotherTenantIsNotFound() throws Exception {
+        UUID id = createResource("acme", "Acme Laptop", "SN-TENANT-2");
+
+        mockMvc.perform(get("/api/resources/{id}", id).header(TENANT_HEADER, "acme"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/resources/{id}", id).header(TENANT_HEADER, "default"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/resources/{id}", id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSearchIsScopedToTenant() throws Exception {
+        createResource("default", "Default Laptop", "SN-TENANT-3");
+        createResource("acme", "Acme Laptop", "SN-TENANT-3");
+        ItResourceSearchDto search = new ItResourceSearchDto();
+        search.setSerialNumber("SN-TENANT-3");
+
+        mockMvc.perform(post("/api/resources/search")
+                        .header(TENANT_HEADER, "acme")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(search)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Acme Laptop"));
+    }
+
+    @Test
+    void testRepositoryQueriesAreScopedToCurrentTenant() throws Exception {
+        createResource("default", "Default Laptop", "SN-TENANT-4");
+        createResource("acme", "Acme Laptop", "SN-TENANT-5");
+        createResource("acme", "Acme Monitor", "SN-TENANT-6");
+
+        assertThat(itResourceRepository.count()).isEqualTo(1);
+        assertThat(TenantContext.callAs("acme", itResourceRepository::count)).isEqualTo(2);
+        assertThat(TenantContext.callAs("acme", () -> itResourceRepository.findAll(
+                ItResourceSpecifications.matching(new ItResourceSearchDto()), Sort.by("name"))))
+                .extracting(ItResource::getName).containsExactly("Acme Laptop", "Acme Monitor");
+        assertThat(TenantContext.callAs(TenantContext.ROOT, itResourceRepository::count)).isEqualTo(3);
+    }
+
+    @Test
+    void testUnknownTenantIsRejected() throws Exception {
+        mockMvc.perform(get("/api/resources").header(TENANT_HEADER, "unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private UUID createResource(String tenantId, String name, String serialNumber) throws Exception {
+        ItResourceDto dto = ItResourceDto.builder()
+                .name(name)
+                .type(ItResource.ResourceType.LAPTOP)
+                .serialNumber(serialNumber)
+                .inventoryLocation("Office A")
+                .build();
+        String response = mockMvc.perform(post("/api/resources")
+                        .header(TENANT_HEADER, tenantId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return UUID.fromString(objectMapper.readTree(response).get("id").asText());
+    }
+}